@@ -11,7 +11,9 @@ import java.util.concurrent.*;
  * 1 still guarantees the order of execution, whereas having a <code>CallerRunsPolicy</code> rejected execution handler
  * does not.<br>
  * In addition, unlike a fixed thread pool, the threads in this pool are terminated if idle for over a minute.<br>
- * Note that task submissions into this pool might throw an <code>InterruptedRuntimeException</code>.
+ * Note that task submissions into this pool might throw an <code>InterruptedRuntimeException</code>.<br>
+ * Alternatively, tasks can be offered to the pool using the <code>offer</code> methods, rejecting the task rather than
+ * blocking, either immediately or after a timeout.
  */
 public class BlockingThreadPoolExecutor extends ThreadPoolExecutor {
     private final Limiter limiter;
@@ -70,6 +72,40 @@ public class BlockingThreadPoolExecutor extends ThreadPoolExecutor {
     public void execute(Runnable command) throws InterruptedRuntimeException {
         Objects.requireNonNull(command);
         Interruptible.begin(limiter);
+        executeBegun(command);
+    }
+
+    /**
+     * Executes the task if a thread is available without blocking, else rejects it by returning false. Allows shedding
+     * load rather than queueing the submitting thread.
+     * @param command The task to execute.
+     * @return True if the task was accepted for execution, false otherwise.
+     */
+    public boolean offer(Runnable command) {
+        Objects.requireNonNull(command);
+        if (!limiter.tryBegin())
+            return false;
+        executeBegun(command);
+        return true;
+    }
+
+    /**
+     * Executes the task if a thread becomes available within the timeout, else rejects it by returning false.
+     * @param command The task to execute.
+     * @param timeout The maximum time to wait for a thread.
+     * @param unit The timeout unit.
+     * @return True if the task was accepted for execution, false if the timeout elapsed.
+     * @throws InterruptedRuntimeException If interrupted while waiting.
+     */
+    public boolean offer(Runnable command, long timeout, TimeUnit unit) throws InterruptedRuntimeException {
+        Objects.requireNonNull(command);
+        if (!Interruptible.get(() -> limiter.tryBegin(timeout, unit)))
+            return false;
+        executeBegun(command);
+        return true;
+    }
+
+    private void executeBegun(Runnable command) {
         try {
             super.execute(() -> {
                 try {
@@ -2,17 +2,22 @@ package ezw.concurrent;
 
 import ezw.Sugar;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.Serial;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
 /**
  * A synchronization aid that allows one or more threads to wait until a set of operations being performed in other
  * threads completes, given that the number of registered operations has reached the defined limit. Operations are
- * registered using the {@link #begin} method, and unregistered using the {@link #end} method.
+ * registered using the {@link #begin} method, and unregistered using the {@link #end} method.<br>
+ * Registration is a compare-and-set of the count while no thread is waiting. Threads reaching the limit are parked in a
+ * FIFO queue, and every <code>end</code> unparks the first waiting thread only, so that threads begin in the order they
+ * blocked, and never spin or synchronize on a monitor.
  */
 public class Limiter {
     private final int limit;
-    private final AtomicInteger blocked = new AtomicInteger();
-    private final AtomicInteger executing = new AtomicInteger();
+    private final Sync sync;
 
     /**
      * Constructs a limiter.
@@ -20,6 +25,7 @@ public class Limiter {
      */
     public Limiter(int limit) {
         this.limit = Sugar.requireRange(limit, 1, null);
+        sync = new Sync(limit);
     }
 
     /**
@@ -33,14 +39,14 @@ public class Limiter {
      * Returns the approximate number of threads blocked on the limit.
      */
     public int getBlocked() {
-        return blocked.get();
+        return sync.getQueueLength();
     }
 
     /**
-     * Returns the current registered operations count.
+     * Returns the current registered operations count, where weighted operations count by their weight.
      */
     public int getExecuting() {
-        return executing.get();
+        return sync.executing();
     }
 
     /**
@@ -49,28 +55,180 @@ public class Limiter {
      * @throws InterruptedException If interrupted.
      */
     public void begin() throws InterruptedException {
+        begin(1);
+    }
+
+    /**
+     * Registers an operation of the weight provided, counting as that number of operations. If the count would exceed
+     * the limit, causes the current thread to wait for the count to decrease enough. Threads begin in the order they
+     * blocked, so that a heavy operation is not starved by lighter ones.
+     * @param operations The operation weight.
+     * @throws InterruptedException If interrupted.
+     * @throws IllegalArgumentException If the weight is not positive or exceeds the limit.
+     */
+    public void begin(int operations) throws InterruptedException {
+        Sugar.requireRange(operations, 1, limit);
         Interruptible.validateInterrupted();
-        blocked.incrementAndGet();
-        synchronized (executing) {
-            try {
-                while (executing.get() == limit) {
-                    executing.wait();
-                }
-            } finally {
-                blocked.decrementAndGet();
-            }
-            executing.incrementAndGet();
-        }
+        sync.acquireSharedInterruptibly(operations);
     }
 
     /**
-     * Decreases the count of registered operations.
+     * Increases the count of registered operations if not reached the limit and no thread is waiting, without
+     * blocking.
+     * @return True if registered, false otherwise.
+     */
+    public boolean tryBegin() {
+        return tryBegin(1);
+    }
+
+    /**
+     * Registers an operation of the weight provided if the count would not exceed the limit and no thread is waiting,
+     * without blocking.
+     * @param operations The operation weight.
+     * @return True if registered, false otherwise.
+     * @throws IllegalArgumentException If the weight is not positive or exceeds the limit.
+     */
+    public boolean tryBegin(int operations) {
+        Sugar.requireRange(operations, 1, limit);
+        return sync.tryAcquireShared(operations) >= 0;
+    }
+
+    /**
+     * Increases the count of registered operations if not reached the limit, else causes the current thread to wait for
+     * the count to decrease, up to the timeout.
+     * @param timeout The maximum time to wait.
+     * @param unit The timeout unit.
+     * @return True if registered, false if the timeout elapsed.
+     * @throws InterruptedException If interrupted.
+     */
+    public boolean tryBegin(long timeout, TimeUnit unit) throws InterruptedException {
+        return tryBegin(1, timeout, unit);
+    }
+
+    /**
+     * Registers an operation of the weight provided, waiting up to the timeout if the count would exceed the limit.
+     * @param operations The operation weight.
+     * @param timeout The maximum time to wait.
+     * @param unit The timeout unit.
+     * @return True if registered, false if the timeout elapsed.
+     * @throws InterruptedException If interrupted.
+     * @throws IllegalArgumentException If the weight is not positive or exceeds the limit.
+     */
+    public boolean tryBegin(int operations, long timeout, TimeUnit unit) throws InterruptedException {
+        Sugar.requireRange(operations, 1, limit);
+        Interruptible.validateInterrupted();
+        return sync.tryAcquireSharedNanos(operations, unit.toNanos(timeout));
+    }
+
+    /**
+     * Decreases the count of registered operations, allowing the first waiting thread to begin.
+     * @throws IllegalStateException If there are no registered operations.
      */
     public void end() {
-        synchronized (executing) {
-            if (executing.decrementAndGet() < 0)
-                throw new IllegalStateException("No registered operations to end.");
-            executing.notifyAll();
+        end(1);
+    }
+
+    /**
+     * Unregisters an operation of the weight provided, decreasing the count by the weight.
+     * @param operations The operation weight.
+     * @throws IllegalStateException If there are fewer registered operations than the weight.
+     * @throws IllegalArgumentException If the weight is not positive.
+     */
+    public void end(int operations) {
+        Sugar.requireRange(operations, 1, null);
+        sync.releaseShared(operations);
+    }
+
+    /**
+     * Registers an operation as in <code>begin</code>, returning a ticket ending it on close. Intended for use in a
+     * try-with-resources statement:
+     * <pre>
+     * try (var ticket = limiter.ticket()) {
+     *     ...
+     * }
+     * </pre>
+     * @return The ticket.
+     * @throws InterruptedException If interrupted.
+     */
+    public Ticket ticket() throws InterruptedException {
+        return ticket(1);
+    }
+
+    /**
+     * Registers an operation of the weight provided as in <code>begin</code>, returning a ticket ending it on close.
+     * @param operations The operation weight.
+     * @return The ticket.
+     * @throws InterruptedException If interrupted.
+     * @throws IllegalArgumentException If the weight is not positive or exceeds the limit.
+     */
+    public Ticket ticket(int operations) throws InterruptedException {
+        begin(operations);
+        return new Ticket(operations);
+    }
+
+    /**
+     * A registered operation, ended by closing the ticket. Closing more than once has no effect.
+     */
+    public final class Ticket implements AutoCloseable {
+        private final int operations;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Ticket(int operations) {
+            this.operations = operations;
+        }
+
+        /**
+         * Returns the operation weight.
+         */
+        public int getOperations() {
+            return operations;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true))
+                end(operations);
+        }
+    }
+
+    /**
+     * The registered operations count as the state of a fair synchronizer, allowing registration up to the limit.
+     */
+    private static final class Sync extends AbstractQueuedSynchronizer {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int limit;
+
+        private Sync(int limit) {
+            this.limit = limit;
+        }
+
+        private int executing() {
+            return getState();
+        }
+
+        @Override
+        protected int tryAcquireShared(int operations) {
+            if (hasQueuedPredecessors())
+                return -1;
+            while (true) {
+                int executing = getState();
+                int remaining = limit - executing - operations;
+                if (remaining < 0 || compareAndSetState(executing, executing + operations))
+                    return remaining;
+            }
+        }
+
+        @Override
+        protected boolean tryReleaseShared(int operations) {
+            while (true) {
+                int executing = getState();
+                if (executing < operations)
+                    throw new IllegalStateException("No registered operations to end.");
+                if (compareAndSetState(executing, executing - operations))
+                    return true;
+            }
         }
     }
 }
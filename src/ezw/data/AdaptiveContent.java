@@ -0,0 +1,205 @@
+package ezw.data;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A content counting its non-null cells, switching from dense to sparse storage once the density drops below the
+ * threshold, and back to dense storage once the density reaches twice the threshold, or halfway from the threshold to
+ * 1 if lower, so that high thresholds remain reversible. Small contents are never switched.
+ * @param <T> The type of elements in the matrix.
+ */
+final class AdaptiveContent<T> extends Content<T> {
+    private static final long minimumCells = 64;
+
+    private final double threshold;
+    private Content<T> content;
+    private long nonNull;
+
+    AdaptiveContent(double threshold) {
+        this(new ListContent<>(0, 0), threshold, 0);
+    }
+
+    private AdaptiveContent(Content<T> content, double threshold, long nonNull) {
+        this.content = content;
+        this.threshold = threshold;
+        this.nonNull = nonNull;
+    }
+
+    /**
+     * Returns true if the cells are currently stored sparse.
+     */
+    boolean isSparse() {
+        return content instanceof SparseContent;
+    }
+
+    private void adapt() {
+        long cells = (long) columns() * rows();
+        if (cells < minimumCells)
+            return;
+        double density = (double) nonNull / cells;
+        if (content instanceof SparseContent<T> sparse) {
+            if (density >= Math.min(threshold * 2, (1 + threshold) / 2))
+                content = sparse.toDense();
+        } else if (density < threshold) {
+            content = SparseContent.of(content);
+        }
+    }
+
+    private long count(List<T> elements) {
+        return elements.stream().filter(Objects::nonNull).count();
+    }
+
+    @Override
+    int columns() {
+        return content.columns();
+    }
+
+    @Override
+    int rows() {
+        return content.rows();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return content.get(x, y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        T previous = content.set(x, y, element);
+        nonNull += (element != null ? 1 : 0) - (previous != null ? 1 : 0);
+        adapt();
+        return previous;
+    }
+
+    @Override
+    void insertRow(int y) {
+        content.insertRow(y);
+        adapt();
+    }
+
+    @Override
+    void insertColumn(int x) {
+        content.insertColumn(x);
+        adapt();
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        var row = content.removeRow(y);
+        nonNull -= count(row);
+        adapt();
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        var column = content.removeColumn(x);
+        nonNull -= count(column);
+        adapt();
+        return column;
+    }
+
+    @Override
+    void clear() {
+        content.clear();
+        nonNull = 0;
+    }
+
+    @Override
+    Content<T> copy() {
+        return new AdaptiveContent<>(content.copy(), threshold, nonNull);
+    }
+
+    /**
+     * Returns an adaptive content of the same threshold, storing the mapped cells dense or sparse by their density.
+     */
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        var mapped = content.map(function);
+        long nonNull = mapped instanceof SparseContent<O> sparse ? sparse.nonNullCount() :
+                mapped.stream().filter(Objects::nonNull).count();
+        var adaptive = new AdaptiveContent<>(mapped, threshold, nonNull);
+        adaptive.adapt();
+        return adaptive;
+    }
+
+    @Override
+    int lastNonNullRow() {
+        return content.lastNonNullRow();
+    }
+
+    @Override
+    int lastNonNullColumn() {
+        return content.lastNonNullColumn();
+    }
+
+    @Override
+    List<T> getRow(int y) {
+        return content.getRow(y);
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return content.getColumn(x);
+    }
+
+    @Override
+    Stream<T> stream() {
+        return content.stream();
+    }
+
+    @Override
+    boolean isView() {
+        return content.isView();
+    }
+
+    @Override
+    boolean contains(T element) {
+        return content.contains(element);
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        return content.indexOfPacked(element);
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        return content.lastIndexOf(element);
+    }
+
+    @Override
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        return content.indexAllOf(element);
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        content.swapRows(y1, y2);
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        content.swapColumns(x1, x2);
+    }
+
+    @Override
+    void reverseX() {
+        content.reverseX();
+    }
+
+    @Override
+    void reverseY() {
+        content.reverseY();
+    }
+
+    @Override
+    Content<T> flip() {
+        content = content.flip();
+        return this;
+    }
+}
@@ -0,0 +1,138 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A content storing the cells in one contiguous object array, in row-major or column-major order.
+ * @param <T> The type of elements in the matrix.
+ */
+final class ArrayContent<T> extends Content<T> {
+    private final FlatGrid grid;
+
+    ArrayContent(Matrix.Order order, int x, int y) {
+        this(new FlatGrid(Object[]::new, Objects.requireNonNull(order, "Order is null.") == Matrix.Order.ROW_MAJOR,
+                x, y));
+    }
+
+    private ArrayContent(FlatGrid grid) {
+        this.grid = grid;
+    }
+
+    private Object[] array() {
+        return (Object[]) grid.array();
+    }
+
+    @Override
+    int columns() {
+        return grid.columns();
+    }
+
+    @Override
+    int rows() {
+        return grid.rows();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T get(int x, int y) {
+        return (T) array()[grid.index(x, y)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T set(int x, int y, T element) {
+        var array = array();
+        int index = grid.index(x, y);
+        T previous = (T) array[index];
+        array[index] = element;
+        return previous;
+    }
+
+    @Override
+    void insertRow(int y) {
+        grid.insertRow(y);
+    }
+
+    @Override
+    void insertColumn(int x) {
+        grid.insertColumn(x);
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        var row = getRow(y);
+        grid.removeRow(y);
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        var column = new ArrayList<>(getColumn(x));
+        grid.removeColumn(x);
+        return column;
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return true;
+    }
+
+    @Override
+    void clear() {
+        grid.clear();
+    }
+
+    @Override
+    Content<T> copy() {
+        return new ArrayContent<>(grid.copy());
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        var mapped = new ArrayContent<O>(grid.create(columns(), rows()));
+        forEach((x, y) -> mapped.set(x, y, function.apply(get(x, y))));
+        return mapped;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    List<T> getRow(int y) {
+        if (!grid.isRowMajor())
+            return super.getRow(y);
+        int from = grid.index(0, y);
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(array(), from,
+                from + columns())));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    List<T> getColumn(int x) {
+        if (grid.isRowMajor())
+            return super.getColumn(x);
+        int from = grid.index(x, 0);
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(array(), from,
+                from + rows())));
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        grid.swapRows(y1, y2);
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        grid.swapColumns(x1, x2);
+    }
+
+    @Override
+    Content<T> flip() {
+        var flipped = grid.create(rows(), columns());
+        forEach((x, y) -> grid.copyCell(x, y, flipped, y, x));
+        return new ArrayContent<>(flipped);
+    }
+}
@@ -0,0 +1,159 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A chunked rope of integer IDs, mapping the positions of an axis to physical IDs. The IDs are kept in chunks of
+ * bounded size, located by binary search over the chunk end positions, so that inserting or removing at any position
+ * only shifts the IDs within one chunk and the ends of the subsequent chunks.
+ */
+final class AxisIndex {
+    private static final int maxChunkSize = 1024;
+
+    private final List<int[]> chunks = new ArrayList<>();
+    private int[] sizes = new int[8];
+    private int[] ends = new int[8];
+
+    int size() {
+        return chunks.isEmpty() ? 0 : ends[chunks.size() - 1];
+    }
+
+    /**
+     * Returns the ID at the position.
+     */
+    int get(int index) {
+        Objects.checkIndex(index, size());
+        int chunk = chunkOf(index);
+        return chunks.get(chunk)[index - start(chunk)];
+    }
+
+    /**
+     * Replaces the ID at the position.
+     * @return The replaced ID.
+     */
+    int set(int index, int id) {
+        Objects.checkIndex(index, size());
+        int chunk = chunkOf(index);
+        var ids = chunks.get(chunk);
+        int offset = index - start(chunk);
+        int previous = ids[offset];
+        ids[offset] = id;
+        return previous;
+    }
+
+    /**
+     * Inserts the ID before the position, where the position may be equal to the size.
+     */
+    void add(int index, int id) {
+        boolean append = Objects.checkIndex(index, size() + 1) == size();
+        int chunk = append ? chunks.size() - 1 : chunkOf(index);
+        if (append && (chunk < 0 || sizes[chunk] == maxChunkSize)) {
+            insertChunk(++chunk, new int[maxChunkSize], 0);
+        } else if (sizes[chunk] == maxChunkSize) {
+            split(chunk);
+            if (index >= ends[chunk])
+                chunk++;
+        }
+        var ids = chunks.get(chunk);
+        int offset = index - start(chunk);
+        System.arraycopy(ids, offset, ids, offset + 1, sizes[chunk] - offset);
+        ids[offset] = id;
+        sizes[chunk]++;
+        for (int i = chunk; i < chunks.size(); i++) {
+            ends[i]++;
+        }
+    }
+
+    /**
+     * Removes the ID at the position.
+     * @return The removed ID.
+     */
+    int remove(int index) {
+        Objects.checkIndex(index, size());
+        int chunk = chunkOf(index);
+        var ids = chunks.get(chunk);
+        int offset = index - start(chunk);
+        int id = ids[offset];
+        System.arraycopy(ids, offset + 1, ids, offset, sizes[chunk] - offset - 1);
+        if (--sizes[chunk] == 0) {
+            removeChunk(chunk);
+        } else {
+            for (int i = chunk; i < chunks.size(); i++) {
+                ends[i]--;
+            }
+        }
+        return id;
+    }
+
+    void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Swaps between the IDs at the positions.
+     */
+    void swap(int index1, int index2) {
+        set(index1, set(index2, get(index1)));
+    }
+
+    /**
+     * Reverses the order of the IDs.
+     */
+    void reverse() {
+        for (int i1 = 0, i2 = size() - 1; i1 < i2; i1++, i2--) {
+            swap(i1, i2);
+        }
+    }
+
+    private int start(int chunk) {
+        return chunk == 0 ? 0 : ends[chunk - 1];
+    }
+
+    private int chunkOf(int index) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] <= index)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private void split(int chunk) {
+        var ids = chunks.get(chunk);
+        int half = sizes[chunk] / 2;
+        var tail = new int[maxChunkSize];
+        int tailSize = sizes[chunk] - half;
+        System.arraycopy(ids, half, tail, 0, tailSize);
+        sizes[chunk] = half;
+        ends[chunk] = start(chunk) + half;
+        insertChunk(chunk + 1, tail, tailSize);
+    }
+
+    private void insertChunk(int chunk, int[] ids, int size) {
+        if (chunks.size() == sizes.length) {
+            sizes = Arrays.copyOf(sizes, sizes.length * 2);
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+        chunks.add(chunk, ids);
+        System.arraycopy(sizes, chunk, sizes, chunk + 1, chunks.size() - chunk - 1);
+        System.arraycopy(ends, chunk, ends, chunk + 1, chunks.size() - chunk - 1);
+        sizes[chunk] = size;
+        ends[chunk] = start(chunk) + size;
+    }
+
+    private void removeChunk(int chunk) {
+        chunks.remove(chunk);
+        System.arraycopy(sizes, chunk + 1, sizes, chunk, chunks.size() - chunk);
+        System.arraycopy(ends, chunk + 1, ends, chunk, chunks.size() - chunk);
+        for (int i = chunk; i < chunks.size(); i++) {
+            ends[i]--;
+        }
+    }
+}
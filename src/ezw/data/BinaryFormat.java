@@ -0,0 +1,216 @@
+package ezw.data;
+
+import ezw.calc.Bytes;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+/**
+ * The versioned binary matrix format. The file consists of a header, the column blocks, a directory of the blocks, and
+ * a trailer:
+ * <ul>
+ *     <li>Header: The magic number, the format version, the flags byte, the cell codec name, the number of columns and
+ *     the number of rows.</li>
+ *     <li>Column block: A null bitmap of the column cells, followed by the non-null cells encoded by the codec. The
+ *     whole block is GZIP-compressed if the compression flag is set.</li>
+ *     <li>Directory: The offset and length of each column block.</li>
+ *     <li>Trailer: The offset of the directory.</li>
+ * </ul>
+ * The directory being at the end allows writing the file in one pass, while the column blocks being independent allows
+ * mapping the file into memory and decoding every column on its first access only, or in bulk into a primitive array.
+ */
+abstract class BinaryFormat {
+    static final int magic = 0x455A574D;
+    static final int version = 1;
+    private static final int compressed = 1;
+
+    private BinaryFormat() {}
+
+    /**
+     * Writes the matrix in the binary format.
+     */
+    static <T> void write(Matrix<T> matrix, OutputStream outputStream, CellCodec<T> codec, boolean compress)
+            throws IOException {
+        var size = matrix.size();
+        var out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(magic);
+        out.writeShort(version);
+        out.writeByte(compress ? compressed : 0);
+        out.writeUTF(codec.name());
+        out.writeInt(size.getX());
+        out.writeInt(size.getY());
+        long position = out.size();
+        long[] offsets = new long[size.getX()];
+        int[] lengths = new int[size.getX()];
+        for (int x = 0; x < size.getX(); x++) {
+            int column = x;
+            byte[] block = encode(y -> matrix.get(column, y), size.getY(), codec);
+            if (compress)
+                block = Bytes.zip(block);
+            out.write(block);
+            offsets[x] = position;
+            lengths[x] = block.length;
+            position += block.length;
+        }
+        for (int x = 0; x < size.getX(); x++) {
+            out.writeLong(offsets[x]);
+            out.writeInt(lengths[x]);
+        }
+        out.writeLong(position);
+        out.flush();
+    }
+
+    /**
+     * Encodes the cells as a null bitmap, followed by the non-null cells encoded by the codec.
+     */
+    static <T> byte[] encode(IntFunction<T> cells, int count, CellCodec<T> codec) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        byte[] bitmap = new byte[(count + 7) / 8];
+        for (int i = 0; i < count; i++) {
+            if (cells.apply(i) != null)
+                bitmap[i / 8] |= (byte) (1 << i % 8);
+        }
+        out.write(bitmap);
+        for (int i = 0; i < count; i++) {
+            T element = cells.apply(i);
+            if (element != null)
+                codec.write(element, out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes cells encoded by <code>encode</code> into a modifiable list.
+     */
+    static <T> List<T> decode(byte[] bytes, int count, CellCodec<T> codec) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte[] bitmap = new byte[(count + 7) / 8];
+        in.readFully(bitmap);
+        List<T> cells = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cells.add((bitmap[i / 8] & 1 << i % 8) != 0 ? Objects.requireNonNull(codec.read(in),
+                    "Codec read null.") : null);
+        }
+        return cells;
+    }
+
+    /**
+     * Maps the file into memory and returns a list content over it, decoding every column on its first access. The
+     * file is not held open: The data remains mapped until the content is no longer referenced.
+     */
+    static <T> Content<T> map(Path path, CellCodec<T> codec) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = readHeader(channel, codec);
+            List<List<T>> lazyColumns = new ArrayList<>(header.columns);
+            forEachBlock(channel, header, (x, block) -> lazyColumns.add(new LazyColumn<>(header.rows,
+                    () -> decode(bytes(block, header.compress), header.rows, codec))));
+            return new ListContent<>(lazyColumns, header.rows);
+        }
+    }
+
+    /**
+     * Maps the file into memory and reads it into a new column-major primitive content created by the factory of the
+     * columns and rows numbers, decoding every column block in bulk into the array, with no boxing. Null cells are left
+     * zero. The codec is only used for its name, and must encode the primitive cells big-endian, as
+     * <code>DataOutput</code> does.
+     */
+    static <T, C extends PrimitiveContent<T>> C read(Path path, CellCodec<T> codec,
+                                                     BiFunction<Integer, Integer, C> factory) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = readHeader(channel, codec);
+            var content = factory.apply(header.columns, header.rows);
+            forEachBlock(channel, header, (x, block) -> {
+                var cells = header.compress ? ByteBuffer.wrap(bytes(block, true)) : block;
+                byte[] bitmap = new byte[(header.rows + 7) / 8];
+                cells.get(bitmap);
+                for (int y = 0; y < header.rows; y++) {
+                    int from = y;
+                    while (y < header.rows && (bitmap[y / 8] & 1 << y % 8) != 0) {
+                        y++;
+                    }
+                    if (y > from)
+                        content.read(cells, content.grid.index(x, from), y - from);
+                }
+            });
+            return content;
+        }
+    }
+
+    private record Header(boolean compress, int columns, int rows) {}
+
+    private interface BlockAction {
+
+        void accept(int x, ByteBuffer block) throws IOException;
+    }
+
+    private static Header readHeader(FileChannel channel, CellCodec<?> codec) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        if (in.readInt() != magic)
+            throw new IOException("Not a binary matrix file.");
+        int fileVersion = in.readShort();
+        if (fileVersion > version)
+            throw new IOException("Unsupported binary matrix format version: " + fileVersion);
+        boolean compress = (in.readByte() & compressed) != 0;
+        String codecName = in.readUTF();
+        if (!codecName.equals(codec.name()))
+            throw new IllegalArgumentException(String.format("The file cells are encoded by the %s codec.",
+                    codecName));
+        int columns = in.readInt();
+        return new Header(compress, columns, in.readInt());
+    }
+
+    /**
+     * Performs the action for every column block, in order, as a slice of a single mapping of the data (or of a mapping
+     * per 2 GB of data), so that wide files don't exhaust the process mappings limit.
+     */
+    private static void forEachBlock(FileChannel channel, Header header, BlockAction action) throws IOException {
+        var directory = read(channel, read(channel, channel.size() - Long.BYTES, Long.BYTES).getLong(),
+                header.columns * (Long.BYTES + Integer.BYTES));
+        long[] offsets = new long[header.columns];
+        int[] lengths = new int[header.columns];
+        long end = 0;
+        for (int x = 0; x < header.columns; x++) {
+            offsets[x] = directory.getLong();
+            lengths[x] = directory.getInt();
+            end = Math.max(end, offsets[x] + lengths[x]);
+        }
+        MappedByteBuffer region = null;
+        long regionStart = 0;
+        for (int x = 0; x < header.columns; x++) {
+            if (region == null || offsets[x] < regionStart ||
+                    offsets[x] + lengths[x] > regionStart + region.capacity()) {
+                regionStart = offsets[x];
+                region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                        Math.min(Integer.MAX_VALUE, end - regionStart));
+            }
+            action.accept(x, region.slice((int) (offsets[x] - regionStart), lengths[x]));
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException("Binary matrix file is truncated.");
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] bytes(ByteBuffer block, boolean compress) throws IOException {
+        byte[] bytes = new byte[block.remaining()];
+        block.duplicate().get(bytes);
+        return compress ? Bytes.unzip(bytes) : bytes;
+    }
+}
@@ -0,0 +1,118 @@
+package ezw.data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A codec of non-null matrix cells in the binary matrix format. The codec name is stored in the file header, and must
+ * match the name of the codec reading the file.
+ * @param <T> The type of elements in the matrix.
+ */
+public interface CellCodec<T> {
+    /**
+     * A codec of integer cells, 4 bytes each.
+     */
+    CellCodec<Integer> INTEGER = new CellCodec<>() {
+        @Override
+        public String name() {
+            return "int";
+        }
+
+        @Override
+        public void write(Integer element, DataOutput out) throws IOException {
+            out.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    /**
+     * A codec of long cells, 8 bytes each.
+     */
+    CellCodec<Long> LONG = new CellCodec<>() {
+        @Override
+        public String name() {
+            return "long";
+        }
+
+        @Override
+        public void write(Long element, DataOutput out) throws IOException {
+            out.writeLong(element);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    /**
+     * A codec of double cells, 8 bytes each.
+     */
+    CellCodec<Double> DOUBLE = new CellCodec<>() {
+        @Override
+        public String name() {
+            return "double";
+        }
+
+        @Override
+        public void write(Double element, DataOutput out) throws IOException {
+            out.writeDouble(element);
+        }
+
+        @Override
+        public Double read(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    /**
+     * A codec of string cells, encoded as the UTF-8 bytes length followed by the bytes.
+     */
+    CellCodec<String> STRING = new CellCodec<>() {
+        @Override
+        public String name() {
+            return "string";
+        }
+
+        @Override
+        public void write(String element, DataOutput out) throws IOException {
+            byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Returns the codec name, identifying the cells encoding in the file header.
+     */
+    String name();
+
+    /**
+     * Writes a non-null element.
+     * @param element The element.
+     * @param out The data output.
+     * @throws IOException If an I/O error occurred.
+     */
+    void write(T element, DataOutput out) throws IOException;
+
+    /**
+     * Reads a non-null element.
+     * @param in The data input.
+     * @return The element.
+     * @throws IOException If an I/O error occurred.
+     */
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,143 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A persistent list of fixed-size chunks. Lists and chunks may be shared between several owners, and are modified in
+ * place only by the owner that created them: Another owner first copies the list, which only references the chunks,
+ * and then the chunks it modifies (path copying), so that the views of other owners remain unchanged. Missing chunks
+ * are all nulls, and the cells beyond the size are always null.
+ * @param <T> The type of elements in the list.
+ */
+final class ChunkedList<T> {
+    private static final int shift = 6;
+    private static final int chunkSize = 1 << shift;
+    private static final int mask = chunkSize - 1;
+
+    private final Object owner;
+    private Chunk[] chunks;
+    private int size;
+
+    /**
+     * Constructs a list of nulls.
+     */
+    ChunkedList(Object owner, int size) {
+        this(owner, new Chunk[(size + mask) >> shift], size);
+    }
+
+    private ChunkedList(Object owner, Chunk[] chunks, int size) {
+        this.owner = owner;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the list may be modified in place by the owner.
+     */
+    boolean isOwnedBy(Object owner) {
+        return this.owner == owner;
+    }
+
+    /**
+     * Returns this list if owned by the owner, else a copy owned by the owner, sharing the chunks of this list.
+     */
+    ChunkedList<T> editable(Object owner) {
+        return this.owner == owner ? this : new ChunkedList<>(owner, chunks.clone(), size);
+    }
+
+    /**
+     * Takes ownership of all the chunks, so that different elements of this list may be set concurrently.
+     */
+    void own() {
+        for (int chunk = 0; chunk < (size + mask) >> shift; chunk++) {
+            cells(chunk);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        Objects.checkIndex(index, size);
+        var chunk = chunks[index >> shift];
+        return chunk == null ? null : (T) chunk.cells[index & mask];
+    }
+
+    @SuppressWarnings("unchecked")
+    T set(int index, T element) {
+        Objects.checkIndex(index, size);
+        if (element == null && chunks[index >> shift] == null)
+            return null;
+        var cells = cells(index >> shift);
+        var previous = (T) cells[index & mask];
+        cells[index & mask] = element;
+        return previous;
+    }
+
+    /**
+     * Inserts the element before the index, where the index may be equal to the size.
+     */
+    void add(int index, T element) {
+        Objects.checkIndex(index, size + 1);
+        if (size == chunks.length << shift)
+            chunks = Arrays.copyOf(chunks, Math.max(1, chunks.length * 2));
+        Object carry = element;
+        for (int chunk = index >> shift, offset = index & mask; chunk <= size >> shift; chunk++, offset = 0) {
+            if (carry == null && chunks[chunk] == null)
+                continue;
+            var cells = cells(chunk);
+            Object last = cells[mask];
+            System.arraycopy(cells, offset, cells, offset + 1, mask - offset);
+            cells[offset] = carry;
+            carry = last;
+        }
+        size++;
+    }
+
+    /**
+     * Removes the element at the index.
+     * @return The removed element.
+     */
+    T remove(int index) {
+        T removed = get(index);
+        int last = (size - 1) >> shift;
+        for (int chunk = index >> shift, offset = index & mask; chunk <= last; chunk++, offset = 0) {
+            Object next = chunk < last && chunks[chunk + 1] != null ? chunks[chunk + 1].cells[0] : null;
+            if (next == null && chunks[chunk] == null)
+                continue;
+            var cells = cells(chunk);
+            System.arraycopy(cells, offset + 1, cells, offset, mask - offset);
+            cells[mask] = next;
+        }
+        if ((--size & mask) == 0)
+            chunks[size >> shift] = null;
+        return removed;
+    }
+
+    /**
+     * Returns a modifiable copy of the elements.
+     */
+    List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    private Object[] cells(int index) {
+        var chunk = chunks[index];
+        if (chunk == null || chunk.owner != owner) {
+            chunk = new Chunk(owner, chunk == null ? new Object[chunkSize] : chunk.cells.clone());
+            chunks[index] = chunk;
+        }
+        return chunk.cells;
+    }
+
+    private record Chunk(Object owner, Object[] cells) {}
+}
@@ -0,0 +1,282 @@
+package ezw.data;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * A column of cells encoded by a dictionary: Every distinct non-null element is stored once, and the cells hold int
+ * codes of the dictionary entries. Unless run-length encoded, the codes are held in an array, and the nulls in a
+ * bitmap. Once compacted, a column having few enough runs of equal cells holds every run as its end and code, where
+ * null cells have the code -1, and is decoded back into the array on its first modification. Lookups and counts
+ * translate the element into its code once, and scan the codes or runs. The unused dictionary entries are dropped on
+ * compaction, and whenever the dictionary outgrows twice the cells.
+ * @param <T> The type of elements in the column.
+ */
+final class CompressedColumn<T> {
+    private static final int nullCode = -1;
+
+    private List<T> dictionary = new ArrayList<>();
+    private Map<T, Integer> codes = new HashMap<>();
+    private int size;
+    private int[] cells;
+    private BitSet nulls;
+    private int[] runEnds;
+    private int[] runCodes;
+
+    CompressedColumn(int size) {
+        this.size = size;
+        cells = new int[Math.max(size, 8)];
+        nulls = new BitSet();
+        nulls.set(0, size);
+    }
+
+    private CompressedColumn(CompressedColumn<T> column) {
+        dictionary = new ArrayList<>(column.dictionary);
+        codes = new HashMap<>(column.codes);
+        size = column.size;
+        if (column.isEncoded()) {
+            runEnds = column.runEnds;
+            runCodes = column.runCodes;
+        } else {
+            cells = Arrays.copyOf(column.cells, Math.max(size, 8));
+            nulls = (BitSet) column.nulls.clone();
+        }
+    }
+
+    /**
+     * Returns an independent copy of this column. Encoded runs are shared, as they are never modified.
+     */
+    CompressedColumn<T> copy() {
+        return new CompressedColumn<>(this);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the column is run-length encoded.
+     */
+    boolean isEncoded() {
+        return runEnds != null;
+    }
+
+    /**
+     * Returns the number of distinct non-null elements in the dictionary.
+     */
+    int dictionarySize() {
+        return dictionary.size();
+    }
+
+    private int encode(T element) {
+        if (element == null)
+            return nullCode;
+        return codes.computeIfAbsent(element, k -> {
+            dictionary.add(k);
+            return dictionary.size() - 1;
+        });
+    }
+
+    private T decode(int code) {
+        return code == nullCode ? null : dictionary.get(code);
+    }
+
+    private int run(int y) {
+        int low = 0;
+        int high = runEnds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runEnds[middle] <= y)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private int code(int y) {
+        if (isEncoded())
+            return runCodes[run(y)];
+        return nulls.get(y) ? nullCode : cells[y];
+    }
+
+    T get(int y) {
+        return decode(code(Objects.checkIndex(y, size)));
+    }
+
+    boolean isNull(int y) {
+        return code(Objects.checkIndex(y, size)) == nullCode;
+    }
+
+    T set(int y, T element) {
+        T previous = get(y);
+        decodeRuns();
+        write(y, encode(element));
+        if (dictionary.size() > 2 * size + 8)
+            compact(false);
+        return previous;
+    }
+
+    private void write(int y, int code) {
+        nulls.set(y, code == nullCode);
+        cells[y] = code == nullCode ? 0 : code;
+    }
+
+    /**
+     * Inserts a null cell before cell y, where y may be equal to the size.
+     */
+    void insert(int y) {
+        Objects.checkIndex(y, size + 1);
+        decodeRuns();
+        if (size == cells.length)
+            cells = Arrays.copyOf(cells, size + (size >> 1) + 1);
+        System.arraycopy(cells, y, cells, y + 1, size - y);
+        for (int i = size; i > y; i--) {
+            nulls.set(i, nulls.get(i - 1));
+        }
+        size++;
+        write(y, nullCode);
+    }
+
+    T remove(int y) {
+        T element = get(y);
+        decodeRuns();
+        System.arraycopy(cells, y + 1, cells, y, size - y - 1);
+        for (int i = y; i < size - 1; i++) {
+            nulls.set(i, nulls.get(i + 1));
+        }
+        size--;
+        nulls.clear(size);
+        return element;
+    }
+
+    void swap(int y1, int y2) {
+        int code1 = code(Objects.checkIndex(y1, size));
+        int code2 = code(Objects.checkIndex(y2, size));
+        decodeRuns();
+        write(y1, code2);
+        write(y2, code1);
+    }
+
+    private void decodeRuns() {
+        if (!isEncoded())
+            return;
+        cells = new int[Math.max(size, 8)];
+        nulls = new BitSet();
+        for (int run = 0, from = 0; run < runEnds.length; from = runEnds[run++]) {
+            for (int y = from; y < runEnds[run]; y++) {
+                write(y, runCodes[run]);
+            }
+        }
+        runEnds = null;
+        runCodes = null;
+    }
+
+    /**
+     * Drops the unused dictionary entries, and run-length encodes the column if the runs are at most half the cells.
+     */
+    void compact() {
+        compact(true);
+    }
+
+    /**
+     * Drops the unused dictionary entries, and run-length encodes the column if allowed and the runs are at most half
+     * the cells. Runs without encoding once the dictionary outgrows the cells by rewriting them, so that the unused
+     * entries are reclaimed at an amortized constant cost per write.
+     */
+    private void compact(boolean encode) {
+        int[] used = new int[dictionary.size()];
+        Arrays.fill(used, nullCode);
+        List<T> compacted = new ArrayList<>();
+        int[] all = IntStream.range(0, size).map(this::code).map(code -> {
+            if (code == nullCode)
+                return code;
+            if (used[code] == nullCode) {
+                used[code] = compacted.size();
+                compacted.add(dictionary.get(code));
+            }
+            return used[code];
+        }).toArray();
+        dictionary = compacted;
+        codes = new HashMap<>();
+        for (int code = 0; code < compacted.size(); code++) {
+            codes.put(compacted.get(code), code);
+        }
+        int runs = 0;
+        for (int y = 0; y < size; y++) {
+            if (y == 0 || all[y] != all[y - 1])
+                runs++;
+        }
+        runEnds = null;
+        if (!encode || runs > size / 2) {
+            cells = new int[Math.max(size, 8)];
+            nulls = new BitSet();
+            for (int y = 0; y < size; y++) {
+                write(y, all[y]);
+            }
+            return;
+        }
+        runEnds = new int[runs];
+        runCodes = new int[runs];
+        for (int y = 0, run = -1; y < size; y++) {
+            if (y == 0 || all[y] != all[y - 1])
+                runCodes[++run] = all[y];
+            runEnds[run] = y + 1;
+        }
+        cells = null;
+        nulls = null;
+    }
+
+    /**
+     * Returns the rows of the element's cells in order, scanning the codes or the runs for its code.
+     */
+    IntStream indexesOf(T element) {
+        Integer code = element == null ? Integer.valueOf(nullCode) : codes.get(element);
+        if (code == null)
+            return IntStream.empty();
+        if (isEncoded())
+            return IntStream.range(0, runEnds.length).filter(run -> runCodes[run] == code)
+                    .flatMap(run -> IntStream.range(run == 0 ? 0 : runEnds[run - 1], runEnds[run]));
+        if (code == nullCode)
+            return nulls.stream().filter(y -> y < size);
+        return IntStream.range(0, size).filter(y -> cells[y] == code && !nulls.get(y));
+    }
+
+    /**
+     * Returns the number of occurrences of every non-null element, summing the run lengths if encoded.
+     */
+    Map<T, Integer> frequencies() {
+        int[] counts = new int[dictionary.size()];
+        if (isEncoded()) {
+            for (int run = 0, from = 0; run < runEnds.length; from = runEnds[run++]) {
+                if (runCodes[run] != nullCode)
+                    counts[runCodes[run]] += runEnds[run] - from;
+            }
+        } else {
+            for (int y = 0; y < size; y++) {
+                if (!nulls.get(y))
+                    counts[cells[y]]++;
+            }
+        }
+        Map<T, Integer> frequencies = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0)
+                frequencies.put(dictionary.get(code), counts[code]);
+        }
+        return frequencies;
+    }
+
+    List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        if (isEncoded()) {
+            for (int run = 0, from = 0; run < runEnds.length; from = runEnds[run++]) {
+                list.addAll(Collections.nCopies(runEnds[run] - from, decode(runCodes[run])));
+            }
+        } else {
+            for (int y = 0; y < size; y++) {
+                list.add(decode(code(y)));
+            }
+        }
+        return list;
+    }
+}
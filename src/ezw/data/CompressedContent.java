@@ -0,0 +1,177 @@
+package ezw.data;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A content storing every column compressed: dictionary encoded, with a null bitmap, and run-length encoded where
+ * compact. Lookups translate the element into a code per column once and scan the encoded cells.
+ * @param <T> The type of elements in the matrix.
+ */
+final class CompressedContent<T> extends Content<T> {
+    private final List<CompressedColumn<T>> columns;
+    private int rows;
+
+    CompressedContent(int x, int y) {
+        this(new ArrayList<>(x), y);
+        for (int i = 0; i < x; i++) {
+            columns.add(new CompressedColumn<>(y));
+        }
+    }
+
+    private CompressedContent(List<CompressedColumn<T>> columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns a compressed copy of the content, compacted.
+     */
+    static <T> CompressedContent<T> of(Content<T> content) {
+        var compressed = new CompressedContent<T>(content.columns(), content.rows());
+        content.forEach((x, y) -> compressed.set(x, y, content.get(x, y)));
+        compressed.compact();
+        return compressed;
+    }
+
+    /**
+     * Compacts all columns.
+     */
+    void compact() {
+        columns.forEach(CompressedColumn::compact);
+    }
+
+    /**
+     * Returns the column at the specified index.
+     */
+    CompressedColumn<T> column(int x) {
+        return columns.get(x);
+    }
+
+    @Override
+    int columns() {
+        return columns.size();
+    }
+
+    @Override
+    int rows() {
+        return rows;
+    }
+
+    @Override
+    T get(int x, int y) {
+        return columns.get(x).get(y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return columns.get(x).set(y, element);
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return columns.get(x).isNull(y);
+    }
+
+    @Override
+    void insertRow(int y) {
+        columns.forEach(column -> column.insert(y));
+        rows++;
+    }
+
+    @Override
+    void insertColumn(int x) {
+        columns.add(x, new CompressedColumn<>(rows));
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        Objects.checkIndex(y, rows);
+        List<T> row = new ArrayList<>(columns.size());
+        columns.forEach(column -> row.add(column.remove(y)));
+        rows--;
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        return columns.remove(x).toList();
+    }
+
+    @Override
+    void clear() {
+        columns.clear();
+        rows = 0;
+    }
+
+    @Override
+    Content<T> copy() {
+        return new CompressedContent<>(new ArrayList<>(columns.stream().map(CompressedColumn::copy).toList()), rows);
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        var mapped = new CompressedContent<O>(columns(), rows);
+        forEach((x, y) -> mapped.set(x, y, function.apply(get(x, y))));
+        mapped.compact();
+        return mapped;
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return Collections.unmodifiableList(columns.get(x).toList());
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        for (int x = 0; x < columns.size(); x++) {
+            var y = columns.get(x).indexesOf(element).findFirst();
+            if (y.isPresent())
+                return Matrix.Coordinates.pack(x, y.getAsInt());
+        }
+        return -1;
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        for (int x = columns.size() - 1; x >= 0; x--) {
+            var y = columns.get(x).indexesOf(element).max();
+            if (y.isPresent())
+                return Matrix.Coordinates.of(x, y.getAsInt());
+        }
+        return null;
+    }
+
+    @Override
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        List<Matrix.Coordinates> coordinates = new ArrayList<>();
+        for (int x = 0; x < columns.size(); x++) {
+            int column = x;
+            columns.get(x).indexesOf(element).forEach(y -> coordinates.add(Matrix.Coordinates.of(column, y)));
+        }
+        return coordinates;
+    }
+
+    @Override
+    Map<T, Integer> frequencies(int x) {
+        return columns.get(x).frequencies();
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        columns.forEach(column -> column.swap(y1, y2));
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        Collections.swap(columns, x1, x2);
+    }
+
+    @Override
+    Content<T> flip() {
+        var flipped = new CompressedContent<T>(rows, columns());
+        forEach((x, y) -> flipped.set(y, x, get(x, y)));
+        flipped.compact();
+        return flipped;
+    }
+}
@@ -0,0 +1,279 @@
+package ezw.data;
+
+import ezw.Sugar;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe matrix, allowing concurrent access to different cells. Cell operations lock one of several stripes,
+ * each guarding a set of 8x8 tiles of cells, and read cells optimistically without locking unless interfered by a
+ * concurrent write. Structural changes lock the whole matrix exclusively by a separate structural lock. Every cell
+ * operation is atomic, and every structural change is atomic as a whole.
+ * @param <T> The type of elements in the matrix.
+ */
+public final class ConcurrentMatrix<T> {
+    private static final int tileShift = 3;
+
+    private final Matrix<T> matrix;
+    private final StampedLock structureLock = new StampedLock();
+    private final StampedLock[] stripes;
+
+    /**
+     * Constructs an empty matrix, with 4 lock stripes per available processor.
+     */
+    public ConcurrentMatrix() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Constructs an empty matrix.
+     * @param stripes The number of lock stripes, limiting the number of cells that can be written concurrently.
+     * @throws IllegalArgumentException If the stripes number is not positive.
+     */
+    public ConcurrentMatrix(int stripes) {
+        this(new ListContent<>(0, 0), stripes);
+    }
+
+    /**
+     * Constructs a matrix containing the data from the provided matrix, with 4 lock stripes per available processor.
+     * @param matrix The matrix.
+     */
+    public ConcurrentMatrix(Matrix<T> matrix) {
+        this(copy(Objects.requireNonNull(matrix, "Matrix is null.")), Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    private ConcurrentMatrix(ListContent<T> content, int stripes) {
+        matrix = new Matrix<>(content);
+        this.stripes = new StampedLock[Sugar.requireRange(stripes, 1, null)];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new StampedLock();
+        }
+    }
+
+    private static <T> ListContent<T> copy(Matrix<T> matrix) {
+        var content = new ListContent<T>(matrix.size().getX(), matrix.size().getY());
+        content.forEach((x, y) -> content.set(x, y, matrix.get(x, y)));
+        return content;
+    }
+
+    private StampedLock stripe(int x, int y) {
+        return stripes[Math.floorMod((x >> tileShift) * 31 + (y >> tileShift), stripes.length)];
+    }
+
+    private <R> R read(StampedLock stripe, Supplier<R> supplier) {
+        long structureStamp = structureLock.tryOptimisticRead();
+        long stripeStamp = stripe.tryOptimisticRead();
+        try {
+            R result = supplier.get();
+            if (structureLock.validate(structureStamp) && stripe.validate(stripeStamp))
+                return result;
+        } catch (RuntimeException e) {
+            if (structureLock.validate(structureStamp) && stripe.validate(stripeStamp))
+                throw e;
+        }
+        long structureRead = structureLock.readLock();
+        try {
+            long stripeRead = stripe.readLock();
+            try {
+                return supplier.get();
+            } finally {
+                stripe.unlockRead(stripeRead);
+            }
+        } finally {
+            structureLock.unlockRead(structureRead);
+        }
+    }
+
+    private <R> R write(StampedLock stripe, Supplier<R> supplier) {
+        long structureRead = structureLock.readLock();
+        try {
+            long stripeWrite = stripe.writeLock();
+            try {
+                return supplier.get();
+            } finally {
+                stripe.unlockWrite(stripeWrite);
+            }
+        } finally {
+            structureLock.unlockRead(structureRead);
+        }
+    }
+
+    private <R> R structural(Supplier<R> supplier) {
+        long stamp = structureLock.writeLock();
+        try {
+            return supplier.get();
+        } finally {
+            structureLock.unlockWrite(stamp);
+        }
+    }
+
+    private void structural(Runnable runnable) {
+        structural(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the matrix size, where X means columns and Y means rows.
+     */
+    public Matrix.Coordinates size() {
+        long stamp = structureLock.tryOptimisticRead();
+        var size = matrix.size();
+        if (structureLock.validate(stamp))
+            return size;
+        stamp = structureLock.readLock();
+        try {
+            return matrix.size();
+        } finally {
+            structureLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the cell at the coordinates provided. The cell is read optimistically, and read again under lock only if
+     * written or structurally changed concurrently.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public T get(int x, int y) {
+        return read(stripe(x, y), () -> matrix.get(x, y));
+    }
+
+    /**
+     * Updates the cell at the coordinates provided.
+     * @return The replaced element.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public T set(int x, int y, T element) {
+        return write(stripe(x, y), () -> matrix.set(x, y, element));
+    }
+
+    /**
+     * Atomically updates the cell at the coordinates provided if it equals (by <code>Objects.equals</code>) the
+     * expected element.
+     * @return True if updated, false if the cell didn't equal the expected element.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public boolean compareAndSet(int x, int y, T expect, T update) {
+        return write(stripe(x, y), () -> {
+            if (!Objects.equals(matrix.get(x, y), expect))
+                return false;
+            matrix.set(x, y, update);
+            return true;
+        });
+    }
+
+    /**
+     * Atomically updates the cell at the coordinates provided with the result of applying the function to it. The
+     * function is applied under the cell's stripe lock, and must not access this matrix.
+     * @return The new element.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public T compute(int x, int y, UnaryOperator<T> function) {
+        Objects.requireNonNull(function, "Function is null.");
+        return write(stripe(x, y), () -> {
+            T element = function.apply(matrix.get(x, y));
+            matrix.set(x, y, element);
+            return element;
+        });
+    }
+
+    /**
+     * Adds a row at the end of the matrix. See {@link Matrix#addRow(Object[])}.
+     */
+    @SafeVarargs
+    public final void addRow(T... row) {
+        structural(() -> matrix.insertRow(matrix.size().getY(), row.length, x -> row[x]));
+    }
+
+    /**
+     * Adds a row before the specified row. See {@link Matrix#addRowBefore(int, Object[])}.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    @SafeVarargs
+    public final void addRowBefore(int y, T... row) {
+        structural(() -> matrix.insertRow(y, row.length, x -> row[x]));
+    }
+
+    /**
+     * Adds a column at the end of the matrix. See {@link Matrix#addColumn(Object[])}.
+     */
+    @SafeVarargs
+    public final void addColumn(T... column) {
+        structural(() -> matrix.insertColumn(matrix.size().getX(), column.length, y -> column[y]));
+    }
+
+    /**
+     * Adds a column before the specified column. See {@link Matrix#addColumnBefore(int, Object[])}.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    @SafeVarargs
+    public final void addColumnBefore(int x, T... column) {
+        structural(() -> matrix.insertColumn(x, column.length, y -> column[y]));
+    }
+
+    /**
+     * Removes the row at the specified index.
+     * @return The removed row.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public List<T> removeRow(int y) {
+        return structural(() -> matrix.removeRow(y));
+    }
+
+    /**
+     * Removes the column at the specified index.
+     * @return The removed column.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public List<T> removeColumn(int x) {
+        return structural(() -> matrix.removeColumn(x));
+    }
+
+    /**
+     * Swaps between the two cells.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public void swap(int x1, int y1, int x2, int y2) {
+        structural(() -> matrix.swap(x1, y1, x2, y2));
+    }
+
+    /**
+     * Swaps between the two rows.
+     * @throws IndexOutOfBoundsException If an index is out of bounds.
+     */
+    public void swapRows(int y1, int y2) {
+        structural(() -> matrix.swapRows(y1, y2));
+    }
+
+    /**
+     * Swaps between the two columns.
+     * @throws IndexOutOfBoundsException If an index is out of bounds.
+     */
+    public void swapColumns(int x1, int x2) {
+        structural(() -> matrix.swapColumns(x1, x2));
+    }
+
+    /**
+     * Removes all cells, shrinking the matrix to [0, 0].
+     */
+    public void clear() {
+        structural(matrix::clear);
+    }
+
+    /**
+     * Returns a consistent unmodifiable copy of the matrix, taken while no cell is being written.
+     */
+    public Matrix<T> snapshot() {
+        return structural(() -> Matrix.unmodifiableCopy(matrix));
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
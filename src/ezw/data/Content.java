@@ -0,0 +1,324 @@
+package ezw.data;
+
+import ezw.function.IntIntConsumer;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * The cells storage of a matrix. Unlike the matrix, the content has no size rules: It may have columns without rows or
+ * rows without columns, leaving the matrix to maintain its own semantics using the structural primitives.
+ * @param <T> The type of elements in the matrix.
+ */
+abstract class Content<T> {
+
+    /**
+     * Returns the columns number.
+     */
+    abstract int columns();
+
+    /**
+     * Returns the rows number.
+     */
+    abstract int rows();
+
+    /**
+     * Returns the cell at the coordinates provided.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    abstract T get(int x, int y);
+
+    /**
+     * Updates the cell at the coordinates provided.
+     * @return The replaced element.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    abstract T set(int x, int y, T element);
+
+    /**
+     * Inserts a row of nulls before row y, where y may be equal to the rows number.
+     */
+    abstract void insertRow(int y);
+
+    /**
+     * Inserts a column of nulls before column x, where x may be equal to the columns number.
+     */
+    abstract void insertColumn(int x);
+
+    /**
+     * Removes the row at the specified index.
+     * @return The removed row.
+     */
+    abstract List<T> removeRow(int y);
+
+    /**
+     * Removes the column at the specified index.
+     * @return The removed column.
+     */
+    abstract List<T> removeColumn(int x);
+
+    /**
+     * Removes all cells, shrinking the content to [0, 0].
+     */
+    abstract void clear();
+
+    /**
+     * Returns a modifiable copy of the content, independent of this content.
+     */
+    abstract Content<T> copy();
+
+    /**
+     * Returns a new content consisting of the results of applying the function to the cells of this content.
+     */
+    <O> Content<O> map(Function<T, O> function) {
+        var mapped = new ListContent<O>(columns(), rows());
+        forEach((x, y) -> mapped.set(x, y, function.apply(get(x, y))));
+        return mapped;
+    }
+
+    /**
+     * Returns true if different cells may be set concurrently by different threads, with no structural changes.
+     */
+    boolean isParallelWritable() {
+        return false;
+    }
+
+    /**
+     * Prepares a parallel writable content for different cells to be set concurrently, right before they are.
+     */
+    void prepareParallelWrite() {}
+
+    /**
+     * Returns true if the cell at the coordinates provided is considered null for packing purposes.
+     */
+    boolean isNull(int x, int y) {
+        return get(x, y) == null;
+    }
+
+    /**
+     * Returns the index of the last row having a non-null cell, or -1 if all cells are null.
+     */
+    int lastNonNullRow() {
+        for (int y = rows() - 1; y >= 0; y--) {
+            for (int x = 0; x < columns(); x++) {
+                if (!isNull(x, y))
+                    return y;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last column having a non-null cell, or -1 if all cells are null.
+     */
+    int lastNonNullColumn() {
+        for (int x = columns() - 1; x >= 0; x--) {
+            for (int y = 0; y < rows(); y++) {
+                if (!isNull(x, y))
+                    return x;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the row at the specified index as an unmodifiable list.
+     */
+    List<T> getRow(int y) {
+        Objects.checkIndex(y, rows());
+        List<T> row = new ArrayList<>(columns());
+        for (int x = 0; x < columns(); x++) {
+            row.add(get(x, y));
+        }
+        return Collections.unmodifiableList(row);
+    }
+
+    /**
+     * Returns the column at the specified index as an unmodifiable list.
+     */
+    List<T> getColumn(int x) {
+        Objects.checkIndex(x, columns());
+        List<T> column = new ArrayList<>(rows());
+        for (int y = 0; y < rows(); y++) {
+            column.add(get(x, y));
+        }
+        return Collections.unmodifiableList(column);
+    }
+
+    /**
+     * Returns a flat stream of the cells, column 0 from row 0 to Y, column 1 from row 0 etc. The stream is sized and
+     * splits evenly by cell index.
+     */
+    Stream<T> stream() {
+        int rows = rows();
+        return LongStream.range(0, (long) columns() * rows).mapToObj(i -> get((int) (i / rows), (int) (i % rows)));
+    }
+
+    /**
+     * Returns the packed coordinates of the block cells in the preferred access order of the storage, by columns unless
+     * overridden.
+     */
+    LongStream cells(Matrix.Block block) {
+        return block.packedStream();
+    }
+
+    /**
+     * Returns true if the content reads through to the cells of another matrix, which may change them without going
+     * through this content.
+     */
+    boolean isView() {
+        return false;
+    }
+
+    /**
+     * Returns true if the content contains the element.
+     */
+    boolean contains(T element) {
+        return indexOfPacked(element) >= 0;
+    }
+
+    /**
+     * Returns the coordinates of the first occurrence of the element by columns, or null if not found.
+     */
+    final Matrix.Coordinates indexOf(T element) {
+        long packed = indexOfPacked(element);
+        return packed >= 0 ? Matrix.Coordinates.unpack(packed) : null;
+    }
+
+    /**
+     * Returns the packed coordinates of the first occurrence of the element by columns, or -1 if not found.
+     */
+    long indexOfPacked(T element) {
+        for (int x = 0; x < columns(); x++) {
+            for (int y = 0; y < rows(); y++) {
+                if (Objects.equals(get(x, y), element))
+                    return Matrix.Coordinates.pack(x, y);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the coordinates of the last occurrence of the element by columns, or null if not found.
+     */
+    Matrix.Coordinates lastIndexOf(T element) {
+        for (int x = columns() - 1; x >= 0; x--) {
+            for (int y = rows() - 1; y >= 0; y--) {
+                if (Objects.equals(get(x, y), element))
+                    return Matrix.Coordinates.of(x, y);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the coordinates of all occurrences of the element by columns.
+     */
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        List<Matrix.Coordinates> coordinates = new ArrayList<>();
+        forEach((x, y) -> {
+            if (Objects.equals(get(x, y), element))
+                coordinates.add(Matrix.Coordinates.of(x, y));
+        });
+        return coordinates;
+    }
+
+    /**
+     * Returns the number of occurrences of every non-null element in the column.
+     */
+    Map<T, Integer> frequencies(int x) {
+        Map<T, Integer> frequencies = new HashMap<>();
+        for (T element : getColumn(x)) {
+            if (element != null)
+                frequencies.merge(element, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Swaps between the two cells.
+     */
+    void swap(int x1, int y1, int x2, int y2) {
+        set(x1, y1, set(x2, y2, get(x1, y1)));
+    }
+
+    /**
+     * Swaps between the two rows.
+     */
+    void swapRows(int y1, int y2) {
+        Objects.checkIndex(y1, rows());
+        Objects.checkIndex(y2, rows());
+        for (int x = 0; x < columns(); x++) {
+            swap(x, y1, x, y2);
+        }
+    }
+
+    /**
+     * Swaps between the two columns.
+     */
+    void swapColumns(int x1, int x2) {
+        Objects.checkIndex(x1, columns());
+        Objects.checkIndex(x2, columns());
+        for (int y = 0; y < rows(); y++) {
+            swap(x1, y, x2, y);
+        }
+    }
+
+    /**
+     * Reverses the order of the columns.
+     */
+    void reverseX() {
+        for (int x1 = 0, x2 = columns() - 1; x1 < x2; x1++, x2--) {
+            swapColumns(x1, x2);
+        }
+    }
+
+    /**
+     * Reverses the order of the rows.
+     */
+    void reverseY() {
+        for (int y1 = 0, y2 = rows() - 1; y1 < y2; y1++, y2--) {
+            swapRows(y1, y2);
+        }
+    }
+
+    /**
+     * Flips the content along the diagonal.
+     * @return The flipped content, which may be this content or a new one replacing it.
+     */
+    Content<T> flip() {
+        var flipped = new ListContent<T>(rows(), columns());
+        forEach((x, y) -> flipped.set(y, x, get(x, y)));
+        return flipped;
+    }
+
+    /**
+     * Returns a content applying orientation transforms lazily over this content, which may be this content.
+     */
+    Content<T> oriented() {
+        return new OrientedContent<>(this);
+    }
+
+    /**
+     * Applies pending orientation transforms, if any, to the storage.
+     * @return The materialized content, which may be this content or a new one replacing it.
+     */
+    Content<T> materialize() {
+        return this;
+    }
+
+    /**
+     * Performs an action for each cell coordinates, by columns.
+     */
+    void forEach(IntIntConsumer action) {
+        int columns = columns();
+        int rows = rows();
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++) {
+                action.accept(x, y);
+            }
+        }
+    }
+}
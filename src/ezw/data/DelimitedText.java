@@ -0,0 +1,154 @@
+package ezw.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Streaming conversions between matrices and delimited text, such as CSV and TSV. The text is written and read row by
+ * row, never holding more than a row of it in memory.
+ */
+abstract class DelimitedText {
+    private static final int bufferSize = 8192;
+
+    private DelimitedText() {}
+
+    /**
+     * Writes the matrix as delimited text. The output is identical to the matrix's custom string representation: Each
+     * row and the whole text are stripped of trailing whitespace.
+     */
+    static void write(Matrix<?> matrix, Appendable appendable, String cellsDelimiter, String rowsDelimiter,
+                      String nullDefault, boolean tabFiller) throws IOException {
+        var size = matrix.size();
+        int[] maxLength = new int[size.getX()];
+        if (tabFiller) {
+            matrix.getBlock().forEach((x, y) -> maxLength[x] = Math.max(maxLength[x],
+                    Objects.toString(matrix.get(x, y), nullDefault).length()));
+        }
+        var output = new TrailingWhitespaceStripper(appendable);
+        var row = new StringBuilder();
+        for (int y = 0; y < size.getY(); y++) {
+            if (y > 0)
+                output.append(rowsDelimiter);
+            row.setLength(0);
+            for (int x = 0; x < size.getX(); x++) {
+                if (x > 0)
+                    row.append(cellsDelimiter);
+                String string = Objects.toString(matrix.get(x, y), nullDefault);
+                row.append(string);
+                if (tabFiller)
+                    row.append(" ".repeat(maxLength[x] - string.length()));
+            }
+            row.setLength(lastNonWhitespace(row) + 1);
+            output.append(row);
+        }
+    }
+
+    /**
+     * Reads delimited text into the matrix, adding each row as soon as it is parsed.
+     */
+    static <T> void read(Matrix<T> matrix, Reader reader, String cellsDelimiter, String rowsDelimiter,
+                         String nullDefault, Function<String, T> parser) throws IOException {
+        boolean rowsFirst = rowsDelimiter.length() >= cellsDelimiter.length();
+        char[] buffer = new char[bufferSize];
+        var cell = new StringBuilder();
+        List<T> row = new ArrayList<>();
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                cell.append(buffer[i]);
+                boolean rowEnd = endsWith(cell, rowsDelimiter) && (rowsFirst || !endsWith(cell, cellsDelimiter));
+                if (!rowEnd && !endsWith(cell, cellsDelimiter))
+                    continue;
+                cell.setLength(cell.length() - (rowEnd ? rowsDelimiter : cellsDelimiter).length());
+                row.add(parse(cell, nullDefault, parser));
+                cell.setLength(0);
+                if (rowEnd)
+                    addRow(matrix, row);
+            }
+        }
+        if (!cell.isEmpty() || !row.isEmpty()) {
+            row.add(parse(cell, nullDefault, parser));
+            addRow(matrix, row);
+        }
+    }
+
+    private static <T> T parse(StringBuilder cell, String nullDefault, Function<String, T> parser) {
+        String string = cell.toString();
+        return string.equals(nullDefault) ? null : parser.apply(string);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void addRow(Matrix<T> matrix, List<T> row) {
+        matrix.addRow((T[]) row.toArray());
+        row.clear();
+    }
+
+    private static boolean endsWith(StringBuilder builder, String suffix) {
+        int offset = builder.length() - suffix.length();
+        if (offset < 0)
+            return false;
+        for (int i = 0; i < suffix.length(); i++) {
+            if (builder.charAt(offset + i) != suffix.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static int lastNonWhitespace(CharSequence sequence) {
+        int index = sequence.length() - 1;
+        while (index >= 0 && Character.isWhitespace(sequence.charAt(index))) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * An appendable writer holding back trailing whitespace until followed by other characters, so that the whitespace
+     * at the end of the text is never written. A run of identical whitespace sequences, such as the rows delimiters
+     * between empty rows, is held back as a single sequence and a count of its repeats.
+     */
+    private static final class TrailingWhitespaceStripper {
+        private final Appendable appendable;
+        private final StringBuilder pending = new StringBuilder();
+        private String repeated;
+        private int repeats;
+
+        TrailingWhitespaceStripper(Appendable appendable) {
+            this.appendable = appendable;
+        }
+
+        void append(CharSequence sequence) throws IOException {
+            if (sequence.isEmpty())
+                return;
+            int end = lastNonWhitespace(sequence) + 1;
+            if (end == 0) {
+                hold(sequence);
+                return;
+            }
+            appendable.append(pending);
+            pending.setLength(0);
+            for (; repeats > 0; repeats--) {
+                appendable.append(repeated);
+            }
+            appendable.append(sequence, 0, end);
+            if (end < sequence.length())
+                hold(sequence.subSequence(end, sequence.length()));
+        }
+
+        private void hold(CharSequence whitespace) {
+            if (repeats > 0 && repeated.contentEquals(whitespace)) {
+                repeats++;
+                return;
+            }
+            for (; repeats > 0; repeats--) {
+                pending.append(repeated);
+            }
+            repeated = whitespace.toString();
+            repeats = 1;
+        }
+    }
+}
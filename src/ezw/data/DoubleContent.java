@@ -0,0 +1,62 @@
+package ezw.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A content storing the cells in one contiguous double array.
+ */
+final class DoubleContent extends PrimitiveContent<Double> {
+
+    DoubleContent(Matrix.Order order, int x, int y) {
+        super(double[]::new, order, x, y);
+    }
+
+    private DoubleContent(FlatGrid grid) {
+        super(grid);
+    }
+
+    private double[] array() {
+        return (double[]) grid.array();
+    }
+
+    double getDouble(int x, int y) {
+        return array()[grid.index(x, y)];
+    }
+
+    double setDouble(int x, int y, double value) {
+        var array = array();
+        int index = grid.index(x, y);
+        double previous = array[index];
+        array[index] = value;
+        return previous;
+    }
+
+    @Override
+    Double get(int index) {
+        return array()[index];
+    }
+
+    @Override
+    Double set(int index, Double element) {
+        var array = array();
+        double previous = array[index];
+        array[index] = element == null ? 0.0 : element;
+        return previous;
+    }
+
+    @Override
+    void read(ByteBuffer buffer, int index, int count) {
+        buffer.asDoubleBuffer().get(array(), index, count);
+        buffer.position(buffer.position() + count * Double.BYTES);
+    }
+
+    @Override
+    boolean isZero(int index) {
+        return array()[index] == 0;
+    }
+
+    @Override
+    PrimitiveContent<Double> create(FlatGrid grid) {
+        return new DoubleContent(grid);
+    }
+}
@@ -0,0 +1,192 @@
+package ezw.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * A matrix of double cells, stored unboxed in one contiguous array. Supports all matrix operations, as well as
+ * primitive accessors, views and streams that don't box the cells. Null cells are not supported: Cells added by
+ * structural changes are zero, setting null stores zero, and packing removes trailing rows and columns of zeros.
+ */
+public class DoubleMatrix extends Matrix<Double> {
+
+    /**
+     * Constructs an empty matrix.
+     */
+    public DoubleMatrix() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a row-major matrix of the specified size.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public DoubleMatrix(int x, int y) {
+        this(Order.ROW_MAJOR, x, y);
+    }
+
+    /**
+     * Constructs a matrix of the specified size.
+     * @param order The cells order.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public DoubleMatrix(Order order, int x, int y) {
+        super(new DoubleContent(order, validateSize(x, y), y));
+    }
+
+    /**
+     * Constructs a row-major matrix containing the data from the provided two-dimensional array, padding shorter rows
+     * with zeros.
+     * @param data The matrix data.
+     * @throws IndexOutOfBoundsException If rows length is zero.
+     */
+    public DoubleMatrix(double[][] data) {
+        this(IntStream.range(0, data.length).map(y -> data[y].length).max().orElse(0), data.length);
+        for (int y = 0; y < data.length; y++) {
+            if (data[y].length == 0)
+                throw new IndexOutOfBoundsException("The matrix size can't be zero in one dimension.");
+            for (int x = 0; x < data[y].length; x++) {
+                setDouble(x, y, data[y][x]);
+            }
+        }
+    }
+
+    /**
+     * Constructs a matrix containing the data from the provided matrix.
+     * @param matrix The matrix.
+     */
+    public DoubleMatrix(DoubleMatrix matrix) {
+        super(matrix);
+    }
+
+    private DoubleMatrix(DoubleContent content) {
+        super(content);
+    }
+
+    /**
+     * Reads a binary matrix file written by the <code>double</code> codec into a new column-major matrix. The file is
+     * mapped into memory, and every column block is decoded in bulk into the array, with no boxing. Unlike
+     * <code>Matrix.open</code>, all the columns are read at once, and null cells are read as zeros.
+     * @param path The file path.
+     * @return The matrix.
+     * @throws IOException If an I/O error occurred, or the file is not a supported binary matrix file.
+     * @throws IllegalArgumentException If the file was written by a codec of a different name.
+     */
+    public static DoubleMatrix open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path is null.");
+        return new DoubleMatrix(BinaryFormat.read(path, CellCodec.DOUBLE, (x, y) ->
+                new DoubleContent(Order.COLUMN_MAJOR, x, y)));
+    }
+
+    /**
+     * Returns the cell at the coordinates provided.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public double getDouble(int x, int y) {
+        if (content() instanceof DoubleContent content)
+            return content.getDouble(x, y);
+        if (content() instanceof OrientedContent<Double> oriented &&
+                oriented.storage() instanceof DoubleContent content)
+            return content.getDouble(oriented.storageX(x, y), oriented.storageY(x, y));
+        return Objects.requireNonNullElse(get(x, y), 0.0);
+    }
+
+    /**
+     * Updates the cell at the coordinates provided.
+     * @return The replaced value.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public double setDouble(int x, int y, double value) {
+        if (content() instanceof DoubleContent content)
+            return content.setDouble(x, y, value);
+        if (content() instanceof OrientedContent<Double> oriented &&
+                oriented.storage() instanceof DoubleContent content)
+            return content.setDouble(oriented.storageX(x, y), oriented.storageY(x, y), value);
+        return Objects.requireNonNullElse(set(x, y, value), 0.0);
+    }
+
+    /**
+     * Returns a flat stream of the matrix values. The order is column 0 from row 0 to Y, column 1 from row 0 etc.
+     */
+    public DoubleStream doubleStream() {
+        int rows = size().getY();
+        return LongStream.range(0, (long) size().getX() * rows).mapToDouble(i ->
+                getDouble((int) (i / rows), (int) (i % rows)));
+    }
+
+    /**
+     * Returns a live view of the row at the specified index. The view reflects the row currently at this index, and
+     * accessing it out of the matrix bounds throws <code>IndexOutOfBoundsException</code>.
+     */
+    public View getRowView(int y) {
+        return new View(true, y);
+    }
+
+    /**
+     * Returns a live view of the column at the specified index. The view reflects the column currently at this index,
+     * and accessing it out of the matrix bounds throws <code>IndexOutOfBoundsException</code>.
+     */
+    public View getColumnView(int x) {
+        return new View(false, x);
+    }
+
+    /**
+     * A live view of a matrix row or column.
+     */
+    public final class View {
+        private final boolean row;
+        private final int index;
+
+        private View(boolean row, int index) {
+            this.row = row;
+            this.index = index;
+        }
+
+        /**
+         * Returns the number of cells in the row or column.
+         */
+        public int size() {
+            return row ? DoubleMatrix.this.size().getX() : DoubleMatrix.this.size().getY();
+        }
+
+        /**
+         * Returns the cell at the position provided.
+         * @throws IndexOutOfBoundsException If the position is out of bounds.
+         */
+        public double getDouble(int i) {
+            return row ? DoubleMatrix.this.getDouble(i, index) : DoubleMatrix.this.getDouble(index, i);
+        }
+
+        /**
+         * Updates the cell at the position provided.
+         * @return The replaced value.
+         * @throws IndexOutOfBoundsException If the position is out of bounds.
+         */
+        public double setDouble(int i, double value) {
+            return row ? DoubleMatrix.this.setDouble(i, index, value) :
+                    DoubleMatrix.this.setDouble(index, i, value);
+        }
+
+        /**
+         * Returns a stream of the row or column values.
+         */
+        public DoubleStream stream() {
+            return IntStream.range(0, size()).mapToDouble(this::getDouble);
+        }
+
+        /**
+         * Returns the row or column values as a new array.
+         */
+        public double[] toArray() {
+            return stream().toArray();
+        }
+    }
+}
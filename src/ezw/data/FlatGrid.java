@@ -0,0 +1,260 @@
+package ezw.data;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A grid of cells in one contiguous array of any component type, addressed by stride. The cells are stored in lines
+ * along the major axis (rows if row-major, columns if column-major), each line having a capacity of <code>stride</code>
+ * cells. Both the stride and the lines capacity grow by half when exhausted, so that inserting rows and columns at the
+ * end is amortized O(1) per cell. Vacated cells are cleared to the array's default value (null or zero).
+ */
+final class FlatGrid {
+    private final IntFunction<Object> allocator;
+    private final boolean rowMajor;
+    private Object array;
+    private Object blank;
+    private int blankLength;
+    private int columns;
+    private int rows;
+    private int stride;
+    private int capacity;
+
+    /**
+     * Constructs a grid.
+     * @param allocator The array allocator, such as <code>int[]::new</code>.
+     * @param rowMajor True if rows are contiguous, false if columns are contiguous.
+     * @param x The columns number.
+     * @param y The rows number.
+     */
+    FlatGrid(IntFunction<Object> allocator, boolean rowMajor, int x, int y) {
+        this.allocator = Objects.requireNonNull(allocator, "Allocator is null.");
+        this.rowMajor = rowMajor;
+        columns = x;
+        rows = y;
+        stride = minors();
+        capacity = majors();
+        array = allocator.apply(Math.multiplyExact(stride, capacity));
+        blank = allocator.apply(0);
+    }
+
+    private FlatGrid(FlatGrid grid) {
+        allocator = grid.allocator;
+        rowMajor = grid.rowMajor;
+        columns = grid.columns;
+        rows = grid.rows;
+        stride = grid.stride;
+        capacity = grid.capacity;
+        array = allocator.apply(stride * capacity);
+        System.arraycopy(grid.array, 0, array, 0, stride * majors());
+        blank = grid.blank;
+        blankLength = grid.blankLength;
+    }
+
+    /**
+     * Returns an independent copy of this grid.
+     */
+    FlatGrid copy() {
+        return new FlatGrid(this);
+    }
+
+    /**
+     * Returns a new empty grid of the same array type and order.
+     * @param x The columns number.
+     * @param y The rows number.
+     */
+    FlatGrid create(int x, int y) {
+        return new FlatGrid(allocator, rowMajor, x, y);
+    }
+
+    /**
+     * Returns the backing array. Invalidated by any structural change.
+     */
+    Object array() {
+        return array;
+    }
+
+    boolean isRowMajor() {
+        return rowMajor;
+    }
+
+    int columns() {
+        return columns;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the array index of the cell, validating the coordinates.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    int index(int x, int y) {
+        Objects.checkIndex(x, columns);
+        Objects.checkIndex(y, rows);
+        return rowMajor ? y * stride + x : x * stride + y;
+    }
+
+    private int majors() {
+        return rowMajor ? rows : columns;
+    }
+
+    private int minors() {
+        return rowMajor ? columns : rows;
+    }
+
+    private void setMajors(int majors) {
+        if (rowMajor)
+            rows = majors;
+        else
+            columns = majors;
+    }
+
+    private void setMinors(int minors) {
+        if (rowMajor)
+            columns = minors;
+        else
+            rows = minors;
+    }
+
+    void insertRow(int y) {
+        if (rowMajor)
+            insertMajor(Objects.checkIndex(y, rows + 1));
+        else
+            insertMinor(Objects.checkIndex(y, rows + 1));
+    }
+
+    void insertColumn(int x) {
+        if (rowMajor)
+            insertMinor(Objects.checkIndex(x, columns + 1));
+        else
+            insertMajor(Objects.checkIndex(x, columns + 1));
+    }
+
+    void removeRow(int y) {
+        if (rowMajor)
+            removeMajor(Objects.checkIndex(y, rows));
+        else
+            removeMinor(Objects.checkIndex(y, rows));
+    }
+
+    void removeColumn(int x) {
+        if (rowMajor)
+            removeMinor(Objects.checkIndex(x, columns));
+        else
+            removeMajor(Objects.checkIndex(x, columns));
+    }
+
+    void swapRows(int y1, int y2) {
+        if (rowMajor)
+            swapMajors(Objects.checkIndex(y1, rows), Objects.checkIndex(y2, rows));
+        else
+            swapMinors(Objects.checkIndex(y1, rows), Objects.checkIndex(y2, rows));
+    }
+
+    void swapColumns(int x1, int x2) {
+        if (rowMajor)
+            swapMinors(Objects.checkIndex(x1, columns), Objects.checkIndex(x2, columns));
+        else
+            swapMajors(Objects.checkIndex(x1, columns), Objects.checkIndex(x2, columns));
+    }
+
+    void clear() {
+        columns = 0;
+        rows = 0;
+        stride = 0;
+        capacity = 0;
+        array = allocator.apply(0);
+    }
+
+    private void insertMajor(int major) {
+        int majors = majors();
+        if (majors == capacity)
+            reallocate(stride, capacity + (capacity >> 1) + 1);
+        System.arraycopy(array, major * stride, array, (major + 1) * stride, (majors - major) * stride);
+        clear(major * stride, stride);
+        setMajors(majors + 1);
+    }
+
+    private void removeMajor(int major) {
+        int majors = majors();
+        System.arraycopy(array, (major + 1) * stride, array, major * stride, (majors - major - 1) * stride);
+        clear((majors - 1) * stride, stride);
+        setMajors(majors - 1);
+    }
+
+    private void insertMinor(int minor) {
+        int minors = minors();
+        if (minors == stride)
+            reallocate(stride + (stride >> 1) + 1, capacity);
+        for (int line = 0, majors = majors(); line < majors; line++) {
+            int start = line * stride;
+            System.arraycopy(array, start + minor, array, start + minor + 1, minors - minor);
+            clear(start + minor, 1);
+        }
+        setMinors(minors + 1);
+    }
+
+    private void removeMinor(int minor) {
+        int minors = minors();
+        for (int line = 0, majors = majors(); line < majors; line++) {
+            int start = line * stride;
+            System.arraycopy(array, start + minor + 1, array, start + minor, minors - minor - 1);
+            clear(start + minors - 1, 1);
+        }
+        setMinors(minors - 1);
+    }
+
+    private void swapMajors(int major1, int major2) {
+        if (major1 == major2)
+            return;
+        int minors = minors();
+        Object temp = allocator.apply(minors);
+        System.arraycopy(array, major1 * stride, temp, 0, minors);
+        System.arraycopy(array, major2 * stride, array, major1 * stride, minors);
+        System.arraycopy(temp, 0, array, major2 * stride, minors);
+    }
+
+    private void swapMinors(int minor1, int minor2) {
+        if (minor1 == minor2)
+            return;
+        Object temp = allocator.apply(1);
+        for (int line = 0, majors = majors(); line < majors; line++) {
+            int start = line * stride;
+            System.arraycopy(array, start + minor1, temp, 0, 1);
+            System.arraycopy(array, start + minor2, array, start + minor1, 1);
+            System.arraycopy(temp, 0, array, start + minor2, 1);
+        }
+    }
+
+    /**
+     * Copies a cell from this grid into the target grid, which must be of the same array type.
+     */
+    void copyCell(int x, int y, FlatGrid target, int targetX, int targetY) {
+        System.arraycopy(array, index(x, y), target.array, target.index(targetX, targetY), 1);
+    }
+
+    private void reallocate(int newStride, int newCapacity) {
+        Object newArray = allocator.apply(Math.multiplyExact(newStride, newCapacity));
+        int minors = minors();
+        if (newStride == stride) {
+            System.arraycopy(array, 0, newArray, 0, majors() * stride);
+        } else {
+            for (int line = 0, majors = majors(); line < majors; line++) {
+                System.arraycopy(array, line * stride, newArray, line * newStride, minors);
+            }
+        }
+        array = newArray;
+        stride = newStride;
+        capacity = newCapacity;
+    }
+
+    private void clear(int from, int length) {
+        if (length > blankLength) {
+            blankLength = Math.max(length, stride);
+            blank = allocator.apply(blankLength);
+        }
+        System.arraycopy(blank, 0, array, from, length);
+    }
+}
@@ -0,0 +1,195 @@
+package ezw.data;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Formula cells of a matrix, recalculated incrementally. Every formula declares the blocks of cells it depends on, and
+ * the formulas form a dependency graph: Setting a cell through this object recalculates only the formulas depending on
+ * it, directly or transitively, each exactly once and after all of its own dirty dependencies. Formulas independent of
+ * each other are calculated in parallel if there are at least the parallel threshold of the matrix of them, and must
+ * therefore be thread safe, reading the matrix only. Cyclic dependencies are rejected.<br>
+ * Formulas are bound to the coordinates of the cells, and are not updated on structural changes of the matrix.
+ * @param <T> The type of elements in the matrix.
+ */
+public class Formulas<T> {
+    private final Matrix<T> matrix;
+    private final Map<Long, Formula<T>> formulas = new HashMap<>();
+    private final Map<Integer, List<Formula<T>>> formulasByColumn = new HashMap<>();
+
+    /**
+     * Constructs a formulas graph of the matrix.
+     * @param matrix The matrix.
+     */
+    public Formulas(Matrix<T> matrix) {
+        this.matrix = Objects.requireNonNull(matrix, "Matrix is null.");
+    }
+
+    /**
+     * Returns the matrix.
+     */
+    public Matrix<T> getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Defines a formula cell, replacing its previous formula if any, and calculates it and the formulas depending on
+     * it.
+     * @param cell The formula cell coordinates.
+     * @param dependencies The blocks of cells that the formula reads.
+     * @param function The formula function, calculating the cell from the matrix.
+     * @throws IndexOutOfBoundsException If the cell is out of the matrix bounds.
+     * @throws IllegalArgumentException If the formula depends on itself, directly or transitively. The previous formula
+     * of the cell is kept in this case.
+     */
+    public void define(Matrix.Coordinates cell, Collection<Matrix.Block> dependencies,
+                       Function<Matrix<T>, T> function) {
+        Objects.requireNonNull(cell, "Cell is null.");
+        Objects.requireNonNull(function, "Function is null.");
+        matrix.get(cell);
+        var formula = new Formula<>(Matrix.Coordinates.pack(cell.getX(), cell.getY()),
+                List.copyOf(Objects.requireNonNull(dependencies, "Dependencies are null.")), function);
+        var previous = remove(formula.cell);
+        add(formula);
+        if (dependsOn(formula.cell, formula.cell)) {
+            remove(formula.cell);
+            if (previous != null)
+                add(previous);
+            throw new IllegalArgumentException("Formula of " + cell + " has a cyclic dependency.");
+        }
+        recalculate(List.of(formula.cell), true);
+    }
+
+    /**
+     * Removes the formula of the cell, if any, keeping the cell's last calculated value.
+     * @param cell The cell coordinates.
+     * @return True if the cell had a formula, else false.
+     */
+    public boolean undefine(Matrix.Coordinates cell) {
+        Objects.requireNonNull(cell, "Cell is null.");
+        return remove(Matrix.Coordinates.pack(cell.getX(), cell.getY())) != null;
+    }
+
+    /**
+     * Returns true if the cell has a formula.
+     */
+    public boolean isFormula(Matrix.Coordinates cell) {
+        return formulas.containsKey(Matrix.Coordinates.pack(cell.getX(), cell.getY()));
+    }
+
+    /**
+     * Updates the cell, removing its formula if any, and recalculates the formulas depending on it.
+     * @return The replaced element.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public T set(int x, int y, T element) {
+        var previous = matrix.set(x, y, element);
+        long cell = Matrix.Coordinates.pack(x, y);
+        remove(cell);
+        recalculate(List.of(cell), false);
+        return previous;
+    }
+
+    /**
+     * Recalculates all the formulas, in dependency order.
+     */
+    public void recalculate() {
+        recalculate(new ArrayList<>(formulas.keySet()), true);
+    }
+
+    private void add(Formula<T> formula) {
+        formulas.put(formula.cell, formula);
+        formula.columns().forEach(x -> formulasByColumn.computeIfAbsent(x, k -> new ArrayList<>()).add(formula));
+    }
+
+    private Formula<T> remove(long cell) {
+        var formula = formulas.remove(cell);
+        if (formula != null) {
+            formula.columns().forEach(x -> {
+                var column = formulasByColumn.get(x);
+                column.removeIf(f -> f == formula);
+                if (column.isEmpty())
+                    formulasByColumn.remove(x);
+            });
+        }
+        return formula;
+    }
+
+    private List<Formula<T>> dependents(long cell) {
+        int x = Matrix.Coordinates.unpackX(cell);
+        int y = Matrix.Coordinates.unpackY(cell);
+        return formulasByColumn.getOrDefault(x, List.of()).stream().filter(formula -> formula.reads(x, y)).toList();
+    }
+
+    private boolean dependsOn(long dependent, long cell) {
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>(List.of(cell));
+        while (!queue.isEmpty()) {
+            for (var formula : dependents(queue.poll())) {
+                if (formula.cell == dependent)
+                    return true;
+                if (visited.add(formula.cell))
+                    queue.add(formula.cell);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recalculates the formulas depending on the changed cells transitively, and the changed cells themselves if
+     * included, level by level: Every level consists of the dirty formulas whose dirty dependencies are all calculated.
+     */
+    private void recalculate(Collection<Long> changed, boolean included) {
+        Map<Long, List<Long>> edges = new HashMap<>();
+        Map<Long, Integer> pending = new HashMap<>();
+        if (included)
+            changed.forEach(cell -> pending.put(cell, 0));
+        Set<Long> visited = new HashSet<>(changed);
+        Deque<Long> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            long cell = queue.poll();
+            boolean dirty = pending.containsKey(cell);
+            for (var formula : dependents(cell)) {
+                if (dirty) {
+                    edges.computeIfAbsent(cell, k -> new ArrayList<>()).add(formula.cell);
+                    pending.merge(formula.cell, 1, Integer::sum);
+                } else {
+                    pending.putIfAbsent(formula.cell, 0);
+                }
+                if (visited.add(formula.cell))
+                    queue.add(formula.cell);
+            }
+        }
+        var level = pending.keySet().stream().filter(cell -> pending.get(cell) == 0).toList();
+        while (!level.isEmpty()) {
+            var stream = level.stream();
+            if (level.size() >= matrix.getParallelThreshold())
+                stream = stream.parallel();
+            var values = stream.map(cell -> formulas.get(cell).function.apply(matrix)).toList();
+            List<Long> next = new ArrayList<>();
+            for (int i = 0; i < level.size(); i++) {
+                long cell = level.get(i);
+                matrix.set(Matrix.Coordinates.unpackX(cell), Matrix.Coordinates.unpackY(cell), values.get(i));
+                for (long dependent : edges.getOrDefault(cell, List.of())) {
+                    if (pending.merge(dependent, -1, Integer::sum) == 0)
+                        next.add(dependent);
+                }
+            }
+            level = next;
+        }
+    }
+
+    private record Formula<T>(long cell, List<Matrix.Block> dependencies, Function<Matrix<T>, T> function) {
+
+        boolean reads(int x, int y) {
+            return dependencies.stream().anyMatch(block -> block.getFrom().getX() <= x && x < block.getTo().getX() &&
+                    block.getFrom().getY() <= y && y < block.getTo().getY());
+        }
+
+        Set<Integer> columns() {
+            Set<Integer> columns = new TreeSet<>();
+            dependencies.forEach(block -> block.getXRange().stream().forEach(columns::add));
+            return columns;
+        }
+    }
+}
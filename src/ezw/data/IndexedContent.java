@@ -0,0 +1,332 @@
+package ezw.data;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A decorator of a content maintaining a hash index from each non-null element to the cells containing it. Cells are
+ * identified by stable row and column IDs, so that structural changes only update the positions of the IDs along the
+ * affected axis, and never re-index the cells. Lookups of non-null elements cost O(occurrences). Inserting or removing
+ * a row or a column shifts the positions of the following ones along that axis, which costs O(rows) or O(columns).
+ * @param <T> The type of elements in the matrix.
+ */
+final class IndexedContent<T> extends Content<T> {
+    private final Map<T, Set<Long>> cells = new HashMap<>();
+    private Content<T> content;
+    private Axis columns = new Axis();
+    private Axis rows = new Axis();
+    private boolean flipped;
+
+    IndexedContent(Content<T> content) {
+        this.content = content;
+        for (int x = 0; x < content.columns(); x++) {
+            columns.insert(x);
+        }
+        for (int y = 0; y < content.rows(); y++) {
+            rows.insert(y);
+        }
+        content.forEach((x, y) -> index(content.get(x, y), x, y));
+    }
+
+    /**
+     * Returns the indexed content.
+     */
+    Content<T> content() {
+        return content;
+    }
+
+    private long key(int x, int y) {
+        long columnId = columns.id(x);
+        long rowId = rows.id(y);
+        return flipped ? rowId << 32 | columnId : columnId << 32 | rowId;
+    }
+
+    private Matrix.Coordinates coordinates(long key) {
+        int first = (int) (key >>> 32);
+        int second = (int) key;
+        return flipped ? Matrix.Coordinates.of(columns.position(second), rows.position(first)) :
+                Matrix.Coordinates.of(columns.position(first), rows.position(second));
+    }
+
+    private void index(T element, int x, int y) {
+        if (element != null)
+            cells.computeIfAbsent(element, e -> new HashSet<>()).add(key(x, y));
+    }
+
+    private void unindex(T element, int x, int y) {
+        if (element == null)
+            return;
+        var keys = cells.get(element);
+        keys.remove(key(x, y));
+        if (keys.isEmpty())
+            cells.remove(element);
+    }
+
+    private Stream<Matrix.Coordinates> occurrences(T element) {
+        return cells.getOrDefault(element, Set.of()).stream().map(this::coordinates);
+    }
+
+    private static int compare(Matrix.Coordinates c1, Matrix.Coordinates c2) {
+        int compare = Integer.compare(c1.getX(), c2.getX());
+        return compare != 0 ? compare : Integer.compare(c1.getY(), c2.getY());
+    }
+
+    @Override
+    int columns() {
+        return content.columns();
+    }
+
+    @Override
+    int rows() {
+        return content.rows();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return content.get(x, y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        T previous = content.set(x, y, element);
+        unindex(previous, x, y);
+        index(element, x, y);
+        return previous;
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return content.isNull(x, y);
+    }
+
+    @Override
+    void insertRow(int y) {
+        content.insertRow(y);
+        rows.insert(y);
+    }
+
+    @Override
+    void insertColumn(int x) {
+        content.insertColumn(x);
+        columns.insert(x);
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        var row = content.removeRow(y);
+        for (int x = 0; x < row.size(); x++) {
+            unindex(row.get(x), x, y);
+        }
+        rows.remove(y);
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        var column = content.removeColumn(x);
+        for (int y = 0; y < column.size(); y++) {
+            unindex(column.get(y), x, y);
+        }
+        columns.remove(x);
+        return column;
+    }
+
+    @Override
+    void clear() {
+        content.clear();
+        cells.clear();
+        columns = new Axis();
+        rows = new Axis();
+        flipped = false;
+    }
+
+    @Override
+    Content<T> copy() {
+        return new IndexedContent<>(content.copy());
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        return content.map(function);
+    }
+
+    @Override
+    Content<T> oriented() {
+        content = content.oriented();
+        return this;
+    }
+
+    @Override
+    Content<T> materialize() {
+        content = content.materialize();
+        return this;
+    }
+
+    @Override
+    int lastNonNullRow() {
+        return content.lastNonNullRow();
+    }
+
+    @Override
+    int lastNonNullColumn() {
+        return content.lastNonNullColumn();
+    }
+
+    @Override
+    List<T> getRow(int y) {
+        return content.getRow(y);
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return content.getColumn(x);
+    }
+
+    @Override
+    Stream<T> stream() {
+        return content.stream();
+    }
+
+    @Override
+    LongStream cells(Matrix.Block block) {
+        return content.cells(block);
+    }
+
+    @Override
+    boolean isView() {
+        return content.isView();
+    }
+
+    @Override
+    boolean contains(T element) {
+        return element == null ? content.contains(null) : cells.containsKey(element);
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        if (element == null)
+            return content.indexOfPacked(null);
+        return occurrences(element).min(IndexedContent::compare).map(Matrix.Coordinates::packed).orElse(-1L);
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        if (element == null)
+            return content.lastIndexOf(null);
+        return occurrences(element).max(IndexedContent::compare).orElse(null);
+    }
+
+    @Override
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        if (element == null)
+            return content.indexAllOf(null);
+        return occurrences(element).sorted(IndexedContent::compare).toList();
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        content.swapRows(y1, y2);
+        rows.swap(y1, y2);
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        content.swapColumns(x1, x2);
+        columns.swap(x1, x2);
+    }
+
+    @Override
+    void reverseX() {
+        content.reverseX();
+        columns.reverse();
+    }
+
+    @Override
+    void reverseY() {
+        content.reverseY();
+        rows.reverse();
+    }
+
+    @Override
+    Content<T> flip() {
+        content = content.flip();
+        var axis = columns;
+        columns = rows;
+        rows = axis;
+        flipped = !flipped;
+        return this;
+    }
+
+    /**
+     * The IDs of the rows or columns by position, and their positions by ID, in primitive arrays. IDs of removed rows
+     * or columns are reused, so that the positions array never outgrows the largest size of the axis.
+     */
+    private static final class Axis {
+        private int[] ids = new int[16];
+        private int[] positions = new int[16];
+        private int[] free = new int[16];
+        private int size;
+        private int freeCount;
+        private int nextId;
+
+        int id(int position) {
+            return ids[position];
+        }
+
+        int position(int id) {
+            return positions[id];
+        }
+
+        void insert(int position) {
+            int id;
+            if (freeCount > 0) {
+                id = free[--freeCount];
+            } else {
+                id = nextId++;
+                if (id == positions.length)
+                    positions = Arrays.copyOf(positions, 2 * id);
+            }
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, 2 * size);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+            update(position, size);
+        }
+
+        void remove(int position) {
+            int id = ids[position];
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (freeCount == free.length)
+                free = Arrays.copyOf(free, 2 * freeCount);
+            free[freeCount++] = id;
+            update(position, size);
+        }
+
+        void swap(int position1, int position2) {
+            int id = ids[position1];
+            ids[position1] = ids[position2];
+            ids[position2] = id;
+            positions[ids[position1]] = position1;
+            positions[ids[position2]] = position2;
+        }
+
+        void reverse() {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int id = ids[i];
+                ids[i] = ids[j];
+                ids[j] = id;
+            }
+            update(0, size);
+        }
+
+        private void update(int from, int to) {
+            for (int position = from; position < to; position++) {
+                positions[ids[position]] = position;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ezw.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A content storing the cells in one contiguous int array.
+ */
+final class IntContent extends PrimitiveContent<Integer> {
+
+    IntContent(Matrix.Order order, int x, int y) {
+        super(int[]::new, order, x, y);
+    }
+
+    private IntContent(FlatGrid grid) {
+        super(grid);
+    }
+
+    private int[] array() {
+        return (int[]) grid.array();
+    }
+
+    int getInt(int x, int y) {
+        return array()[grid.index(x, y)];
+    }
+
+    int setInt(int x, int y, int value) {
+        var array = array();
+        int index = grid.index(x, y);
+        int previous = array[index];
+        array[index] = value;
+        return previous;
+    }
+
+    @Override
+    Integer get(int index) {
+        return array()[index];
+    }
+
+    @Override
+    Integer set(int index, Integer element) {
+        var array = array();
+        int previous = array[index];
+        array[index] = element == null ? 0 : element;
+        return previous;
+    }
+
+    @Override
+    void read(ByteBuffer buffer, int index, int count) {
+        buffer.asIntBuffer().get(array(), index, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+    }
+
+    @Override
+    boolean isZero(int index) {
+        return array()[index] == 0;
+    }
+
+    @Override
+    PrimitiveContent<Integer> create(FlatGrid grid) {
+        return new IntContent(grid);
+    }
+}
@@ -0,0 +1,188 @@
+package ezw.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * A matrix of int cells, stored unboxed in one contiguous array. Supports all matrix operations, as well as primitive
+ * accessors, views and streams that don't box the cells. Null cells are not supported: Cells added by structural
+ * changes are zero, setting null stores zero, and packing removes trailing rows and columns of zeros.
+ */
+public class IntMatrix extends Matrix<Integer> {
+
+    /**
+     * Constructs an empty matrix.
+     */
+    public IntMatrix() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a row-major matrix of the specified size.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public IntMatrix(int x, int y) {
+        this(Order.ROW_MAJOR, x, y);
+    }
+
+    /**
+     * Constructs a matrix of the specified size.
+     * @param order The cells order.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public IntMatrix(Order order, int x, int y) {
+        super(new IntContent(order, validateSize(x, y), y));
+    }
+
+    /**
+     * Constructs a row-major matrix containing the data from the provided two-dimensional array, padding shorter rows
+     * with zeros.
+     * @param data The matrix data.
+     * @throws IndexOutOfBoundsException If rows length is zero.
+     */
+    public IntMatrix(int[][] data) {
+        this(IntStream.range(0, data.length).map(y -> data[y].length).max().orElse(0), data.length);
+        for (int y = 0; y < data.length; y++) {
+            if (data[y].length == 0)
+                throw new IndexOutOfBoundsException("The matrix size can't be zero in one dimension.");
+            for (int x = 0; x < data[y].length; x++) {
+                setInt(x, y, data[y][x]);
+            }
+        }
+    }
+
+    /**
+     * Constructs a matrix containing the data from the provided matrix.
+     * @param matrix The matrix.
+     */
+    public IntMatrix(IntMatrix matrix) {
+        super(matrix);
+    }
+
+    private IntMatrix(IntContent content) {
+        super(content);
+    }
+
+    /**
+     * Reads a binary matrix file written by the <code>int</code> codec into a new column-major matrix. The file is
+     * mapped into memory, and every column block is decoded in bulk into the array, with no boxing. Unlike
+     * <code>Matrix.open</code>, all the columns are read at once, and null cells are read as zeros.
+     * @param path The file path.
+     * @return The matrix.
+     * @throws IOException If an I/O error occurred, or the file is not a supported binary matrix file.
+     * @throws IllegalArgumentException If the file was written by a codec of a different name.
+     */
+    public static IntMatrix open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path is null.");
+        return new IntMatrix(BinaryFormat.read(path, CellCodec.INTEGER, (x, y) ->
+                new IntContent(Order.COLUMN_MAJOR, x, y)));
+    }
+
+    /**
+     * Returns the cell at the coordinates provided.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public int getInt(int x, int y) {
+        if (content() instanceof IntContent content)
+            return content.getInt(x, y);
+        if (content() instanceof OrientedContent<Integer> oriented && oriented.storage() instanceof IntContent content)
+            return content.getInt(oriented.storageX(x, y), oriented.storageY(x, y));
+        return Objects.requireNonNullElse(get(x, y), 0);
+    }
+
+    /**
+     * Updates the cell at the coordinates provided.
+     * @return The replaced value.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public int setInt(int x, int y, int value) {
+        if (content() instanceof IntContent content)
+            return content.setInt(x, y, value);
+        if (content() instanceof OrientedContent<Integer> oriented && oriented.storage() instanceof IntContent content)
+            return content.setInt(oriented.storageX(x, y), oriented.storageY(x, y), value);
+        return Objects.requireNonNullElse(set(x, y, value), 0);
+    }
+
+    /**
+     * Returns a flat stream of the matrix values. The order is column 0 from row 0 to Y, column 1 from row 0 etc.
+     */
+    public IntStream intStream() {
+        int rows = size().getY();
+        return LongStream.range(0, (long) size().getX() * rows).mapToInt(i ->
+                getInt((int) (i / rows), (int) (i % rows)));
+    }
+
+    /**
+     * Returns a live view of the row at the specified index. The view reflects the row currently at this index, and
+     * accessing it out of the matrix bounds throws <code>IndexOutOfBoundsException</code>.
+     */
+    public View getRowView(int y) {
+        return new View(true, y);
+    }
+
+    /**
+     * Returns a live view of the column at the specified index. The view reflects the column currently at this index,
+     * and accessing it out of the matrix bounds throws <code>IndexOutOfBoundsException</code>.
+     */
+    public View getColumnView(int x) {
+        return new View(false, x);
+    }
+
+    /**
+     * A live view of a matrix row or column.
+     */
+    public final class View {
+        private final boolean row;
+        private final int index;
+
+        private View(boolean row, int index) {
+            this.row = row;
+            this.index = index;
+        }
+
+        /**
+         * Returns the number of cells in the row or column.
+         */
+        public int size() {
+            return row ? IntMatrix.this.size().getX() : IntMatrix.this.size().getY();
+        }
+
+        /**
+         * Returns the cell at the position provided.
+         * @throws IndexOutOfBoundsException If the position is out of bounds.
+         */
+        public int getInt(int i) {
+            return row ? IntMatrix.this.getInt(i, index) : IntMatrix.this.getInt(index, i);
+        }
+
+        /**
+         * Updates the cell at the position provided.
+         * @return The replaced value.
+         * @throws IndexOutOfBoundsException If the position is out of bounds.
+         */
+        public int setInt(int i, int value) {
+            return row ? IntMatrix.this.setInt(i, index, value) : IntMatrix.this.setInt(index, i, value);
+        }
+
+        /**
+         * Returns a stream of the row or column values.
+         */
+        public IntStream stream() {
+            return IntStream.range(0, size()).map(this::getInt);
+        }
+
+        /**
+         * Returns the row or column values as a new array.
+         */
+        public int[] toArray() {
+            return stream().toArray();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ezw.data;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * An ascending range of integers, from <code>from</code> (inclusive) to <code>to</code> (exclusive), holding its bounds
+ * unboxed.
+ */
+public final class IntRange implements Comparable<IntRange> {
+    private final int from;
+    private final int to;
+
+    private IntRange(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Constructs a range.
+     * @throws IllegalArgumentException If <code>from</code> is greater than <code>to</code>.
+     */
+    public static IntRange of(int from, int to) {
+        if (from > to)
+            throw new IllegalArgumentException("Negative range.");
+        return new IntRange(from, to);
+    }
+
+    /**
+     * Returns the range of the values of a range: If the range is descending, the values from <code>to + 1</code>
+     * (inclusive) to <code>from + 1</code> (exclusive).
+     */
+    public static IntRange of(Range range) {
+        Objects.requireNonNull(range, "Range is null.");
+        if (range.signum() == -1)
+            return new IntRange(range.getTo() + 1, range.getFrom() + 1);
+        return new IntRange(range.getFrom(), range.getTo());
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * Returns <code>to - from</code>.
+     */
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * Returns true if the range size is zero.
+     */
+    public boolean isEmpty() {
+        return from == to;
+    }
+
+    /**
+     * Returns true if the value is between <code>from</code> (inclusive) and <code>to</code> (exclusive).
+     */
+    public boolean contains(int value) {
+        return value >= from && value < to;
+    }
+
+    /**
+     * Returns true if all values of the other range are in this range. An empty range is contained in any range.
+     */
+    public boolean contains(IntRange other) {
+        return other.isEmpty() || (other.from >= from && other.to <= to);
+    }
+
+    /**
+     * Returns true if the ranges have a common value.
+     */
+    public boolean overlaps(IntRange other) {
+        return other.from < to && from < other.to && !isEmpty() && !other.isEmpty();
+    }
+
+    /**
+     * Returns the range of the common values of the ranges, or null if they don't overlap.
+     */
+    public IntRange intersection(IntRange other) {
+        return overlaps(other) ? new IntRange(Math.max(from, other.from), Math.min(to, other.to)) : null;
+    }
+
+    /**
+     * Returns the range as a <code>Range</code>.
+     */
+    public Range toRange() {
+        return Range.of(from, to);
+    }
+
+    /**
+     * Returns a stream of the range values in ascending order.
+     */
+    public IntStream intStream() {
+        return IntStream.range(from, to);
+    }
+
+    /**
+     * Compares the ranges by <code>from</code>, then by <code>to</code>.
+     */
+    @Override
+    public int compareTo(IntRange other) {
+        int compare = Integer.compare(from, other.from);
+        return compare != 0 ? compare : Integer.compare(to, other.to);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        IntRange range = (IntRange) o;
+        return from == range.from && to == range.to;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * from + to;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + "]";
+    }
+}
@@ -0,0 +1,284 @@
+package ezw.data;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A join of the rows of two queries on key columns. The result rows consist of the projected cells of the left row,
+ * followed by the projected cells of the matching right row unless an anti join. Rows having a null key cell match no
+ * row. By default, the join hashes the keys of the side having fewer rows in its matrix and probes it with the rows
+ * of the other side, costing O(n + m) on average. The result rows are ordered by the probing side, so left and anti
+ * joins hash the left side only if it has less than half the rows of the right side. If both sides are sorted by their
+ * keys, a merge join streams both sides once without hashing.
+ * @param <T> The type of elements in the matrices.
+ */
+public final class Join<T> {
+    private final Type type;
+    private final Query<T> left;
+    private final int[] leftKeys;
+    private final Query<T> right;
+    private final int[] rightKeys;
+    private final Comparator<List<T>> sortedBy;
+
+    private Join(Type type, Query<T> left, int[] leftKeys, Query<T> right, int[] rightKeys,
+                 Comparator<List<T>> sortedBy) {
+        this.type = type;
+        this.left = left;
+        this.leftKeys = leftKeys;
+        this.right = right;
+        this.rightKeys = rightKeys;
+        this.sortedBy = sortedBy;
+    }
+
+    /**
+     * Returns a hash join of the queries.
+     * @param type The join type.
+     * @param left The left query.
+     * @param leftKeys The key columns of the left matrix.
+     * @param right The right query.
+     * @param rightKeys The key columns of the right matrix, matching the left key columns respectively.
+     * @param <T> The type of elements in the matrices.
+     * @return The join.
+     * @throws IllegalArgumentException If the keys are empty or differ in number.
+     * @throws IndexOutOfBoundsException If a key column is out of bounds.
+     */
+    public static <T> Join<T> of(Type type, Query<T> left, int[] leftKeys, Query<T> right, int[] rightKeys) {
+        Objects.requireNonNull(type, "Type is null.");
+        Objects.requireNonNull(left, "Left query is null.");
+        Objects.requireNonNull(right, "Right query is null.");
+        if (leftKeys.length == 0 || leftKeys.length != rightKeys.length)
+            throw new IllegalArgumentException("Keys must be of the same non-zero number.");
+        Arrays.stream(leftKeys).forEach(left::checkColumn);
+        Arrays.stream(rightKeys).forEach(right::checkColumn);
+        return new Join<>(type, left, leftKeys.clone(), right, rightKeys.clone(), null);
+    }
+
+    /**
+     * Returns a merge join of the queries, where the rows of both queries are sorted by their key columns in order,
+     * compared by the comparator with nulls first.
+     * @param comparator The keys comparator.
+     * @return The join.
+     */
+    public Join<T> sorted(Comparator<T> comparator) {
+        Objects.requireNonNull(comparator, "Comparator is null.");
+        Comparator<List<T>> sortedBy = null;
+        for (int i = 0; i < leftKeys.length; i++) {
+            int key = i;
+            Comparator<List<T>> next = Comparator.comparing(cells -> cells.get(key), Comparator.nullsFirst(comparator));
+            sortedBy = sortedBy == null ? next : sortedBy.thenComparing(next);
+        }
+        return new Join<>(type, left, leftKeys, right, rightKeys, sortedBy);
+    }
+
+    /**
+     * Returns the result rows as a lazy stream of unmodifiable lists. A hash join reads the build side on the first
+     * access to the stream. A merge join reads both sides incrementally.
+     * @throws IllegalStateException On reading rows out of order in a merge join.
+     */
+    public Stream<List<T>> stream() {
+        if (sortedBy != null)
+            return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(new Merge(), Spliterator.ORDERED),
+                    Spliterator.ORDERED, false);
+        if (type == Type.INNER ? right.maxRows() <= left.maxRows() : left.maxRows() >= right.maxRows() / 2)
+            return defer(this::probeRight);
+        return defer(this::probeLeft);
+    }
+
+    /**
+     * Returns a new matrix of the result rows, preceded by the headers if the left query has headers: The left headers
+     * followed by the right headers if any, else by nulls.
+     * @throws IllegalStateException On reading rows out of order in a merge join.
+     */
+    public Matrix<T> toMatrix() {
+        List<List<T>> rows = new ArrayList<>();
+        var headers = left.headers();
+        if (headers != null && type != Type.ANTI) {
+            headers = new ArrayList<>(headers);
+            headers.addAll(Objects.requireNonNullElse(right.headers(), Collections.nCopies(right.width(), null)));
+        }
+        if (headers != null)
+            rows.add(headers);
+        stream().forEach(rows::add);
+        return Query.matrix(rows, left.width() + (type == Type.ANTI ? 0 : right.width()));
+    }
+
+    private static <R> Stream<R> defer(Supplier<Stream<R>> supplier) {
+        return Stream.of(supplier).flatMap(Supplier::get);
+    }
+
+    private static <T> List<T> key(List<T> row, int[] keys) {
+        List<T> key = new ArrayList<>(keys.length);
+        for (int column : keys) {
+            T cell = row.get(column);
+            if (cell == null)
+                return null;
+            key.add(cell);
+        }
+        return key;
+    }
+
+    private static <T> Map<List<T>, List<List<T>>> hash(Stream<List<T>> rows, int[] keys) {
+        Map<List<T>, List<List<T>>> table = new HashMap<>();
+        rows.forEach(row -> {
+            var key = key(row, keys);
+            if (key != null)
+                table.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+        });
+        return table;
+    }
+
+    private List<T> combine(List<T> leftRow, List<T> rightRow) {
+        var leftCells = left.project(leftRow);
+        if (type == Type.ANTI)
+            return leftCells;
+        List<T> row = new ArrayList<>(leftCells.size() + right.width());
+        row.addAll(leftCells);
+        if (rightRow != null)
+            row.addAll(right.project(rightRow));
+        else
+            row.addAll(Collections.nCopies(right.width(), null));
+        return Collections.unmodifiableList(row);
+    }
+
+    private Stream<List<T>> unmatched(List<T> leftRow) {
+        return type == Type.INNER ? Stream.empty() : Stream.of(combine(leftRow, null));
+    }
+
+    private Stream<List<T>> matched(List<T> leftRow, List<List<T>> rightRows) {
+        return type == Type.ANTI ? Stream.empty() : rightRows.stream().map(rightRow -> combine(leftRow, rightRow));
+    }
+
+    /**
+     * Builds the right side and probes it with the left rows, in the order of the left rows.
+     */
+    private Stream<List<T>> probeRight() {
+        var table = hash(right.rows(), rightKeys);
+        return left.rows().flatMap(leftRow -> {
+            var key = key(leftRow, leftKeys);
+            var matches = key != null ? table.get(key) : null;
+            return matches != null ? matched(leftRow, matches) : unmatched(leftRow);
+        });
+    }
+
+    /**
+     * Builds the left side and probes it with the right rows, in the order of the right rows, followed by the unmatched
+     * left rows in their order.
+     */
+    private Stream<List<T>> probeLeft() {
+        var leftRows = left.rows().toList();
+        var table = hash(leftRows.stream(), leftKeys);
+        Set<List<T>> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        var matches = right.rows().flatMap(rightRow -> {
+            var key = key(rightRow, rightKeys);
+            var leftMatches = key != null ? table.get(key) : null;
+            if (leftMatches == null)
+                return Stream.empty();
+            matched.addAll(leftMatches);
+            return type == Type.ANTI ? Stream.empty() : leftMatches.stream().map(leftRow -> combine(leftRow,
+                    rightRow));
+        });
+        if (type == Type.INNER)
+            return matches;
+        return Stream.concat(matches, defer(() -> leftRows.stream().filter(leftRow -> !matched.contains(leftRow))
+                .map(leftRow -> combine(leftRow, null))));
+    }
+
+    /**
+     * Merges the sorted sides, advancing the right side by groups of rows having equal keys.
+     */
+    private final class Merge implements Iterator<List<T>> {
+        private final Iterator<List<T>> leftRows = left.rows().iterator();
+        private final Iterator<List<T>> rightRows = right.rows().iterator();
+        private final Deque<List<T>> pending = new ArrayDeque<>();
+        private List<List<T>> group = List.of();
+        private List<T> groupKey;
+        private List<T> nextRight;
+        private List<T> nextRightKey;
+        private List<T> lastLeftKey;
+        private List<T> lastRightKey;
+
+        private List<T> sortKey(List<T> row, int[] keys) {
+            return Arrays.stream(keys).mapToObj(row::get).toList();
+        }
+
+        private boolean fetchRight() {
+            while (rightRows.hasNext()) {
+                nextRight = rightRows.next();
+                nextRightKey = sortKey(nextRight, rightKeys);
+                if (lastRightKey != null && sortedBy.compare(lastRightKey, nextRightKey) > 0)
+                    throw new IllegalStateException("Right rows are not sorted by the keys.");
+                lastRightKey = nextRightKey;
+                if (!nextRightKey.contains(null))
+                    return true;
+            }
+            nextRight = null;
+            return false;
+        }
+
+        private void advanceGroup(List<T> key) {
+            if (nextRight == null && groupKey == null && !fetchRight())
+                return;
+            while (groupKey == null || sortedBy.compare(groupKey, key) < 0) {
+                if (nextRight == null) {
+                    group = List.of();
+                    groupKey = null;
+                    return;
+                }
+                groupKey = nextRightKey;
+                List<List<T>> rows = new ArrayList<>();
+                do {
+                    rows.add(nextRight);
+                } while (fetchRight() && sortedBy.compare(nextRightKey, groupKey) == 0);
+                group = rows;
+            }
+        }
+
+        private void advance() {
+            while (pending.isEmpty() && leftRows.hasNext()) {
+                var leftRow = leftRows.next();
+                var key = sortKey(leftRow, leftKeys);
+                if (lastLeftKey != null && sortedBy.compare(lastLeftKey, key) > 0)
+                    throw new IllegalStateException("Left rows are not sorted by the keys.");
+                lastLeftKey = key;
+                if (!key.contains(null))
+                    advanceGroup(key);
+                var rows = !key.contains(null) && groupKey != null && sortedBy.compare(groupKey, key) == 0 ?
+                        matched(leftRow, group) : unmatched(leftRow);
+                rows.forEach(pending::add);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            advance();
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return pending.poll();
+        }
+    }
+
+    /**
+     * The type of a join.
+     */
+    public enum Type {
+        /**
+         * Returns the matching pairs of rows.
+         */
+        INNER,
+        /**
+         * Returns the matching pairs of rows, and the unmatched left rows with null right cells.
+         */
+        LEFT,
+        /**
+         * Returns the unmatched left rows.
+         */
+        ANTI
+    }
+}
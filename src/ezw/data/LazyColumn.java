@@ -0,0 +1,57 @@
+package ezw.data;
+
+import ezw.Sugar;
+import ezw.concurrent.Lazy;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+
+/**
+ * A column list of a known size, decoded on the first access to any of its elements.
+ * @param <T> The type of elements in the matrix.
+ */
+final class LazyColumn<T> extends AbstractList<T> implements RandomAccess {
+    private final int size;
+    private final Lazy<List<T>> column;
+
+    LazyColumn(int size, Callable<List<T>> decoder) {
+        this.size = size;
+        column = new Lazy<>(decoder, e -> {
+            throw Sugar.sneaky(e);
+        });
+    }
+
+    /**
+     * Returns true if the column has been decoded.
+     */
+    boolean isDecoded() {
+        return column.isCalculated();
+    }
+
+    @Override
+    public int size() {
+        return column.isCalculated() ? column.get().size() : size;
+    }
+
+    @Override
+    public T get(int index) {
+        return column.get().get(index);
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return column.get().set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        column.get().add(index, element);
+    }
+
+    @Override
+    public T remove(int index) {
+        return column.get().remove(index);
+    }
+}
@@ -0,0 +1,136 @@
+package ezw.data;
+
+import ezw.Sugar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A content storing the cells as a list of column lists.
+ * @param <T> The type of elements in the matrix.
+ */
+final class ListContent<T> extends Content<T> {
+    private final List<List<T>> columns;
+    private int rows;
+
+    ListContent(int x, int y) {
+        this(Sugar.fill(x, () -> Sugar.fill(y)), y);
+    }
+
+    ListContent(List<List<T>> columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    @Override
+    int columns() {
+        return columns.size();
+    }
+
+    @Override
+    int rows() {
+        return rows;
+    }
+
+    @Override
+    T get(int x, int y) {
+        return columns.get(x).get(y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return columns.get(x).set(y, element);
+    }
+
+    @Override
+    void insertRow(int y) {
+        columns.forEach(column -> column.add(y, null));
+        rows++;
+    }
+
+    @Override
+    void insertColumn(int x) {
+        columns.add(x, Sugar.fill(rows));
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        var row = columns.stream().map(column -> column.remove(y)).toList();
+        rows--;
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        return columns.remove(x);
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return true;
+    }
+
+    @Override
+    void clear() {
+        columns.clear();
+        rows = 0;
+    }
+
+    @Override
+    Content<T> copy() {
+        return new ListContent<>(new ArrayList<>(columns.stream().map(ArrayList::new).toList()), rows);
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        return new ListContent<>(new ArrayList<>(columns.stream().map(column ->
+                new ArrayList<>(column.stream().map(function).toList())).toList()), rows);
+    }
+
+    @Override
+    List<T> getRow(int y) {
+        return columns.stream().map(column -> column.get(y)).toList();
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return Sugar.unmodifiableCopy(columns.get(x));
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        for (int x = 0; x < columns.size(); x++) {
+            int y = columns.get(x).indexOf(element);
+            if (y >= 0)
+                return Matrix.Coordinates.pack(x, y);
+        }
+        return -1;
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        for (int x = columns.size() - 1; x >= 0; x--) {
+            int y = columns.get(x).lastIndexOf(element);
+            if (y >= 0)
+                return Matrix.Coordinates.of(x, y);
+        }
+        return null;
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        columns.set(x1, columns.set(x2, columns.get(x1)));
+    }
+
+    @Override
+    void reverseX() {
+        Collections.reverse(columns);
+    }
+
+    @Override
+    void reverseY() {
+        columns.forEach(Collections::reverse);
+    }
+}
@@ -0,0 +1,62 @@
+package ezw.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A content storing the cells in one contiguous long array.
+ */
+final class LongContent extends PrimitiveContent<Long> {
+
+    LongContent(Matrix.Order order, int x, int y) {
+        super(long[]::new, order, x, y);
+    }
+
+    private LongContent(FlatGrid grid) {
+        super(grid);
+    }
+
+    private long[] array() {
+        return (long[]) grid.array();
+    }
+
+    long getLong(int x, int y) {
+        return array()[grid.index(x, y)];
+    }
+
+    long setLong(int x, int y, long value) {
+        var array = array();
+        int index = grid.index(x, y);
+        long previous = array[index];
+        array[index] = value;
+        return previous;
+    }
+
+    @Override
+    Long get(int index) {
+        return array()[index];
+    }
+
+    @Override
+    Long set(int index, Long element) {
+        var array = array();
+        long previous = array[index];
+        array[index] = element == null ? 0L : element;
+        return previous;
+    }
+
+    @Override
+    void read(ByteBuffer buffer, int index, int count) {
+        buffer.asLongBuffer().get(array(), index, count);
+        buffer.position(buffer.position() + count * Long.BYTES);
+    }
+
+    @Override
+    boolean isZero(int index) {
+        return array()[index] == 0;
+    }
+
+    @Override
+    PrimitiveContent<Long> create(FlatGrid grid) {
+        return new LongContent(grid);
+    }
+}
@@ -0,0 +1,189 @@
+package ezw.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.stream.IntStream;
+
+/**
+ * A matrix of long cells, stored unboxed in one contiguous array. Supports all matrix operations, as well as
+ * primitive accessors, views and streams that don't box the cells. Null cells are not supported: Cells added by
+ * structural changes are zero, setting null stores zero, and packing removes trailing rows and columns of zeros.
+ */
+public class LongMatrix extends Matrix<Long> {
+
+    /**
+     * Constructs an empty matrix.
+     */
+    public LongMatrix() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a row-major matrix of the specified size.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public LongMatrix(int x, int y) {
+        this(Order.ROW_MAJOR, x, y);
+    }
+
+    /**
+     * Constructs a matrix of the specified size.
+     * @param order The cells order.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public LongMatrix(Order order, int x, int y) {
+        super(new LongContent(order, validateSize(x, y), y));
+    }
+
+    /**
+     * Constructs a row-major matrix containing the data from the provided two-dimensional array, padding shorter rows
+     * with zeros.
+     * @param data The matrix data.
+     * @throws IndexOutOfBoundsException If rows length is zero.
+     */
+    public LongMatrix(long[][] data) {
+        this(IntStream.range(0, data.length).map(y -> data[y].length).max().orElse(0), data.length);
+        for (int y = 0; y < data.length; y++) {
+            if (data[y].length == 0)
+                throw new IndexOutOfBoundsException("The matrix size can't be zero in one dimension.");
+            for (int x = 0; x < data[y].length; x++) {
+                setLong(x, y, data[y][x]);
+            }
+        }
+    }
+
+    /**
+     * Constructs a matrix containing the data from the provided matrix.
+     * @param matrix The matrix.
+     */
+    public LongMatrix(LongMatrix matrix) {
+        super(matrix);
+    }
+
+    private LongMatrix(LongContent content) {
+        super(content);
+    }
+
+    /**
+     * Reads a binary matrix file written by the <code>long</code> codec into a new column-major matrix. The file is
+     * mapped into memory, and every column block is decoded in bulk into the array, with no boxing. Unlike
+     * <code>Matrix.open</code>, all the columns are read at once, and null cells are read as zeros.
+     * @param path The file path.
+     * @return The matrix.
+     * @throws IOException If an I/O error occurred, or the file is not a supported binary matrix file.
+     * @throws IllegalArgumentException If the file was written by a codec of a different name.
+     */
+    public static LongMatrix open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path is null.");
+        return new LongMatrix(BinaryFormat.read(path, CellCodec.LONG, (x, y) ->
+                new LongContent(Order.COLUMN_MAJOR, x, y)));
+    }
+
+    /**
+     * Returns the cell at the coordinates provided.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public long getLong(int x, int y) {
+        if (content() instanceof LongContent content)
+            return content.getLong(x, y);
+        if (content() instanceof OrientedContent<Long> oriented && oriented.storage() instanceof LongContent content)
+            return content.getLong(oriented.storageX(x, y), oriented.storageY(x, y));
+        return Objects.requireNonNullElse(get(x, y), 0L);
+    }
+
+    /**
+     * Updates the cell at the coordinates provided.
+     * @return The replaced value.
+     * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
+     */
+    public long setLong(int x, int y, long value) {
+        if (content() instanceof LongContent content)
+            return content.setLong(x, y, value);
+        if (content() instanceof OrientedContent<Long> oriented && oriented.storage() instanceof LongContent content)
+            return content.setLong(oriented.storageX(x, y), oriented.storageY(x, y), value);
+        return Objects.requireNonNullElse(set(x, y, value), 0L);
+    }
+
+    /**
+     * Returns a flat stream of the matrix values. The order is column 0 from row 0 to Y, column 1 from row 0 etc.
+     */
+    public LongStream longStream() {
+        int rows = size().getY();
+        return LongStream.range(0, (long) size().getX() * rows).map(i ->
+                getLong((int) (i / rows), (int) (i % rows)));
+    }
+
+    /**
+     * Returns a live view of the row at the specified index. The view reflects the row currently at this index, and
+     * accessing it out of the matrix bounds throws <code>IndexOutOfBoundsException</code>.
+     */
+    public View getRowView(int y) {
+        return new View(true, y);
+    }
+
+    /**
+     * Returns a live view of the column at the specified index. The view reflects the column currently at this index,
+     * and accessing it out of the matrix bounds throws <code>IndexOutOfBoundsException</code>.
+     */
+    public View getColumnView(int x) {
+        return new View(false, x);
+    }
+
+    /**
+     * A live view of a matrix row or column.
+     */
+    public final class View {
+        private final boolean row;
+        private final int index;
+
+        private View(boolean row, int index) {
+            this.row = row;
+            this.index = index;
+        }
+
+        /**
+         * Returns the number of cells in the row or column.
+         */
+        public int size() {
+            return row ? LongMatrix.this.size().getX() : LongMatrix.this.size().getY();
+        }
+
+        /**
+         * Returns the cell at the position provided.
+         * @throws IndexOutOfBoundsException If the position is out of bounds.
+         */
+        public long getLong(int i) {
+            return row ? LongMatrix.this.getLong(i, index) : LongMatrix.this.getLong(index, i);
+        }
+
+        /**
+         * Updates the cell at the position provided.
+         * @return The replaced value.
+         * @throws IndexOutOfBoundsException If the position is out of bounds.
+         */
+        public long setLong(int i, long value) {
+            return row ? LongMatrix.this.setLong(i, index, value) :
+                    LongMatrix.this.setLong(index, i, value);
+        }
+
+        /**
+         * Returns a stream of the row or column values.
+         */
+        public LongStream stream() {
+            return IntStream.range(0, size()).mapToLong(this::getLong);
+        }
+
+        /**
+         * Returns the row or column values as a new array.
+         */
+        public long[] toArray() {
+            return stream().toArray();
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package ezw.data;
 
 import ezw.Sugar;
+import ezw.function.IntIntConsumer;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -15,7 +22,8 @@ import java.util.stream.Stream;
  * @param <T> The type of elements in the matrix.
  */
 public class Matrix<T> {
-    private final List<List<T>> content;
+    private Content<T> content;
+    private int parallelThreshold = 1 << 14;
 
     /**
      * Constructs an empty matrix.
@@ -40,9 +48,7 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
      */
     public Matrix(int x, int y) {
-        if (validateNegative(x) * validateNegative(y) == 0 && x != y)
-            throw new IndexOutOfBoundsException("The matrix size can't be zero in one dimension.");
-        content = Sugar.fill(x, () -> Sugar.fill(y));
+        this(new PersistentContent<>(validateSize(x, y), y));
     }
 
     /**
@@ -60,22 +66,164 @@ public class Matrix<T> {
     }
 
     /**
-     * Constructs a matrix containing the data from the provided matrix.
+     * Constructs a matrix containing the data from the provided matrix. If the provided matrix has the default storage,
+     * the copy takes constant time, sharing the cells with the provided matrix until either matrix modifies them.
      * @param matrix The matrix.
      */
     public Matrix(Matrix<T> matrix) {
-        this(new ArrayList<>(matrix.content.stream().map(ArrayList::new).toList()));
+        this(matrix.content.copy());
     }
 
-    private Matrix(List<List<T>> content) {
+    Matrix(Content<T> content) {
         this.content = content;
     }
 
+    Content<T> content() {
+        return content;
+    }
+
+    /**
+     * Returns true if the matrix is a view, reading through to the cells of another matrix.
+     */
+    boolean isView() {
+        return content.isView();
+    }
+
+    /**
+     * Constructs an empty matrix storing its cells in one contiguous array, addressed by stride. Compared to the
+     * default storage, cell access involves no list indirections, and rows (if row-major) or columns (if column-major)
+     * are copied in bulk. Inserting rows and columns at the end of the matrix is amortized by capacity growth, whereas
+     * inserting or removing them elsewhere shifts the subsequent cells.
+     * @param order The cells order.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     */
+    public static <T> Matrix<T> flat(Order order) {
+        return flat(order, 0, 0);
+    }
+
+    /**
+     * Constructs a matrix of the specified size, storing its cells in one contiguous array, addressed by stride.
+     * @param order The cells order.
+     * @param x The columns number.
+     * @param y The rows number.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IndexOutOfBoundsException If a coordinate is negative, or only one of the coordinates is zero.
+     */
+    public static <T> Matrix<T> flat(Order order, int x, int y) {
+        return new Matrix<>(new ArrayContent<>(order, validateSize(x, y), y));
+    }
+
+    /**
+     * Constructs an empty matrix storing only its non-null cells, in sorted maps per column. Suitable for matrices
+     * where most cells are null: Memory, packing, flipping and element lookup are proportional to the non-null cells,
+     * at the cost of logarithmic cell access.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     */
+    public static <T> Matrix<T> sparse() {
+        return new Matrix<>(new SparseContent<>(0, 0));
+    }
+
+    /**
+     * Constructs an empty matrix storing its cells in square tiles, of which only the most recently used are held in
+     * memory. Modified tiles evicted from memory are encoded by the codec into a temporary spill file, and decoded back
+     * on their next access. Suitable for matrices larger than the heap, accessed by locality: The stream and the bulk
+     * operations visit the cells tile by tile, rather than by columns. Inserting or removing rows and columns other
+     * than at the end shifts the subsequent cells through the tiles cache. Spill file I/O errors are thrown unchecked.
+     * @param tileSize The tile width and height.
+     * @param cachedTiles The maximal number of tiles held in memory.
+     * @param codec The cells codec.
+     * @param spillDirectory The directory of the spill file, which is created on the first eviction of a modified
+     *                       tile, and deleted once the matrix is no longer referenced.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IllegalArgumentException If the tile size or the cached tiles number is not positive.
+     */
+    public static <T> Matrix<T> tiled(int tileSize, int cachedTiles, CellCodec<T> codec, Path spillDirectory) {
+        Sugar.requireRange(tileSize, 1, null);
+        Sugar.requireRange(cachedTiles, 1, null);
+        Objects.requireNonNull(codec, "Codec is null.");
+        Objects.requireNonNull(spillDirectory, "Spill directory is null.");
+        return new Matrix<>(new TiledContent<>(tileSize, cachedTiles, codec, spillDirectory));
+    }
+
+    /**
+     * Constructs an empty tiled matrix, spilling to the default temporary-file directory. See {@link #tiled(int, int,
+     * CellCodec, Path)}.
+     * @param tileSize The tile width and height.
+     * @param cachedTiles The maximal number of tiles held in memory.
+     * @param codec The cells codec.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IllegalArgumentException If the tile size or the cached tiles number is not positive.
+     */
+    public static <T> Matrix<T> tiled(int tileSize, int cachedTiles, CellCodec<T> codec) {
+        return tiled(tileSize, cachedTiles, codec, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
     /**
-     * Returns an unmodifiable copy of the matrix.
+     * Constructs an empty matrix for editor-like workloads, inserting and removing rows and columns at any position in
+     * near-constant time. The cells are stored in physical rows and columns that are never moved, mapped to their
+     * positions by a chunked rope index per axis, at the cost of an index lookup per coordinate on cell access.
+     * Swapping and reversing rows and columns only updates the indexes as well.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     */
+    public static <T> Matrix<T> rope() {
+        return new Matrix<>(new RopeContent<>(0, 0));
+    }
+
+    /**
+     * Constructs an empty matrix storing its columns compressed. Every column stores its distinct non-null elements
+     * once in a dictionary, and its cells as int codes of the dictionary entries, with a bitmap of the null cells.
+     * Suitable for columns of few distinct elements: Lookups and frequencies translate the element into its code once
+     * per column and scan the codes. Entries no longer referenced by any cell are dropped once a column's dictionary
+     * outgrows twice its cells, so that frequently updated cells don't grow the dictionary. See
+     * {@link #compressed(Matrix)} for run-length encoding.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     */
+    public static <T> Matrix<T> compressed() {
+        return new Matrix<>(new CompressedContent<>(0, 0));
+    }
+
+    /**
+     * Constructs a matrix containing the data from the provided matrix, storing its columns compressed as described in
+     * {@link #compressed()}. Columns whose runs of equal cells (including nulls) are at most half their cells are also
+     * run-length encoded, holding only the end and code of every run, until modified. Modifying a run-length encoded
+     * column decodes it into the codes array, and may be compacted again by taking a compressed copy.
+     * @param matrix The matrix.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     */
+    public static <T> Matrix<T> compressed(Matrix<T> matrix) {
+        return new Matrix<>(CompressedContent.of(matrix.content));
+    }
+
+    /**
+     * Constructs an empty matrix switching automatically between dense and sparse storage. The cells are stored sparse
+     * once the ratio of non-null cells drops below the threshold, and dense again once it reaches twice the threshold,
+     * or halfway from the threshold to 1 if lower (e.g. 0.75 for a threshold of 0.5). Small matrices are always stored
+     * dense.
+     * @param threshold The density threshold, between 0 and 1.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IllegalArgumentException If the threshold is not between 0 and 1.
+     */
+    public static <T> Matrix<T> adaptive(double threshold) {
+        return new Matrix<>(new AdaptiveContent<>(Sugar.requireRange(threshold, 0.0, 1.0)));
+    }
+
+    /**
+     * Returns an unmodifiable copy of the matrix. If the matrix has the default storage, the copy is a snapshot taken
+     * in constant time: Cells are shared with the matrix, which copies only the chunks it modifies afterwards. The
+     * snapshot is immutable, and may be read concurrently without locking once safely published. If the matrix is
+     * indexed, the copy rebuilds the index, costing O(rows * columns).
      */
     public static <T> Matrix<T> unmodifiableCopy(Matrix<T> matrix) {
-        return new Matrix<>(matrix.content.stream().map(Sugar::unmodifiableCopy).toList());
+        return new Matrix<>(new UnmodifiableContent<>(matrix.content.copy()));
     }
 
     /**
@@ -83,15 +231,83 @@ public class Matrix<T> {
      */
     public <O> Matrix<O> map(Function<T, O> function) {
         Objects.requireNonNull(function, "Function is null.");
-        return new Matrix<>(new ArrayList<>(content.stream().map(column ->
-                new ArrayList<>(column.stream().map(function).toList())).toList()));
+        return new Matrix<>(content.map(function));
+    }
+
+    /**
+     * Returns a matrix consisting of the results of applying the given function to the elements of this matrix. If the
+     * matrix has at least the parallel threshold of cells, the function is applied in parallel chunks of cells on the
+     * common fork-join pool, and must therefore be thread safe. The result is the same as of <code>map</code>
+     * regardless of the chunks execution order.
+     */
+    public <O> Matrix<O> parallelMap(Function<T, O> function) {
+        Objects.requireNonNull(function, "Function is null.");
+        var mapped = new ListContent<O>(columns(), rows());
+        forEachCell(getBlock(), true, (x, y) -> mapped.set(x, y, function.apply(content.get(x, y))));
+        return new Matrix<>(mapped);
+    }
+
+    /**
+     * Replaces each element of this matrix with the result of applying the operator to it. If the matrix has at least
+     * the parallel threshold of cells, and its storage allows concurrent updates of different cells, the operator is
+     * applied in parallel chunks of cells on the common fork-join pool, and must therefore be thread safe.
+     */
+    public void replaceAll(UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator, "Operator is null.");
+        boolean parallel = content.isParallelWritable() && isParallel(getBlock());
+        if (parallel)
+            content.prepareParallelWrite();
+        forEachCell(getBlock(), parallel, (x, y) -> content.set(x, y, operator.apply(content.get(x, y))));
+    }
+
+    /**
+     * Performs an action for each cell in the block. If the block has at least the parallel threshold of cells, the
+     * action is performed in parallel chunks of cells on the common fork-join pool, in no particular order, and must
+     * therefore be thread safe.
+     * @param block The block of this matrix.
+     * @param action The action, accepting the cell coordinates and element.
+     * @throws IndexOutOfBoundsException If the block exceeds the matrix bounds.
+     */
+    public void parallelForEach(Block block, BiConsumer<Coordinates, T> action) {
+        Objects.requireNonNull(block, "Block is null.");
+        Objects.requireNonNull(action, "Action is null.");
+        if (block.getTo().getX() > columns() || block.getTo().getY() > rows())
+            throw new IndexOutOfBoundsException("Block " + block + " exceeds the matrix size " + size());
+        forEachCell(block, true, (x, y) -> action.accept(Coordinates.of(x, y), content.get(x, y)));
+    }
+
+    private void forEachCell(Block block, boolean parallel, IntIntConsumer action) {
+        var cells = content.cells(block);
+        if (parallel && isParallel(block))
+            cells = cells.parallel();
+        cells.forEach(packed -> action.accept(Coordinates.unpackX(packed), Coordinates.unpackY(packed)));
+    }
+
+    private boolean isParallel(Block block) {
+        return (long) block.getXRange().size() * block.getYRange().size() >= parallelThreshold;
+    }
+
+    /**
+     * Returns the minimal number of cells for which the parallel bulk operations run in parallel.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimal number of cells for which the parallel bulk operations run in parallel. Smaller matrices and
+     * blocks are processed sequentially. The default is 16384.
+     * @param parallelThreshold The number of cells.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Sugar.requireRange(parallelThreshold, 0, null);
     }
 
     /**
      * Returns true if the matrix size is [0, 0].
      */
     public boolean isEmpty() {
-        return content.isEmpty();
+        return columns() == 0;
     }
 
     /**
@@ -99,11 +315,15 @@ public class Matrix<T> {
      * nulls, are included. A zero coordinate always means the other coordinate is also zero (matrix is empty).
      */
     public Coordinates size() {
-        return new Coordinates(content.size(), rows());
+        return new Coordinates(columns(), rows());
+    }
+
+    private int columns() {
+        return content.columns();
     }
 
     private int rows() {
-        return content.isEmpty() ? 0 : Sugar.first(content).size();
+        return content.rows();
     }
 
     private static int validateNegative(int index) {
@@ -112,6 +332,12 @@ public class Matrix<T> {
         return index;
     }
 
+    static int validateSize(int x, int y) {
+        if (validateNegative(x) * validateNegative(y) == 0 && x != y)
+            throw new IndexOutOfBoundsException("The matrix size can't be zero in one dimension.");
+        return x;
+    }
+
     /**
      * Returns the cell at the coordinates provided.
      * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
@@ -125,7 +351,7 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
      */
     public T get(int x, int y) {
-        return content.get(x).get(y);
+        return content.get(x, y);
     }
 
     /**
@@ -143,7 +369,7 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If a coordinate is out of bounds.
      */
     public T set(int x, int y, T element) {
-        return content.get(x).set(y, element);
+        return content.set(x, y, element);
     }
 
     /**
@@ -153,7 +379,7 @@ public class Matrix<T> {
     public List<T> getRow(int y) {
         if (isEmpty())
             throw new IndexOutOfBoundsException("Matrix is empty, can't get row " + y);
-        return content.stream().map(column -> column.get(y)).toList();
+        return content.getRow(y);
     }
 
     /**
@@ -177,7 +403,7 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If the index is out of bounds.
      */
     public List<T> getColumn(int x) {
-        return Sugar.unmodifiableCopy(content.get(x));
+        return content.getColumn(x);
     }
 
     /**
@@ -193,14 +419,14 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If the matrix is empty.
      */
     public List<T> getLastColumn() {
-        return getColumn(content.size() - 1);
+        return getColumn(columns() - 1);
     }
 
     /**
      * Returns true if the matrix contains the element.
      */
     public boolean contains(T element) {
-        return indexOf(element) != null;
+        return content.contains(element);
     }
 
     /**
@@ -208,12 +434,16 @@ public class Matrix<T> {
      * search is done by columns (column 0 from row 0 to Y, column 1 from row 0 etc.).
      */
     public Coordinates indexOf(T element) {
-        for (int x = 0; x < content.size(); x++) {
-            int y = content.get(x).indexOf(element);
-            if (y >= 0)
-                return new Coordinates(x, y);
-        }
-        return null;
+        return content.indexOf(element);
+    }
+
+    /**
+     * Returns the coordinates of the first occurrence of the element packed into a long, or -1 if not found. The search
+     * is done by columns, as in <code>indexOf</code>. Unpack using <code>Coordinates.unpackX</code> and
+     * <code>Coordinates.unpackY</code>.
+     */
+    public long indexOfPacked(T element) {
+        return content.indexOfPacked(element);
     }
 
     /**
@@ -221,26 +451,144 @@ public class Matrix<T> {
      * search is done by columns (column X from row Y to 0, column X-1 from row Y etc.).
      */
     public Coordinates lastIndexOf(T element) {
-        for (int x = content.size() - 1; x >= 0; x--) {
-            int y = content.get(x).lastIndexOf(element);
-            if (y >= 0)
-                return new Coordinates(x, y);
-        }
-        return null;
+        return content.lastIndexOf(element);
+    }
+
+    /**
+     * Returns the coordinates of all occurrences of the element, ordered by columns (column 0 from row 0 to Y, column 1
+     * from row 0 etc.). If not found, returns an empty list.
+     */
+    public List<Coordinates> indexAllOf(T element) {
+        return content.indexAllOf(element);
+    }
+
+    /**
+     * Returns the number of occurrences of every non-null element in the column.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public Map<T, Integer> frequencies(int x) {
+        Objects.checkIndex(x, columns());
+        return content.frequencies(x);
+    }
+
+    /**
+     * Enables or disables the elements index. While enabled, the matrix maintains a hash index from each non-null
+     * element to its cells, updated incrementally by every modification, so that <code>contains</code>,
+     * <code>indexOf</code>, <code>lastIndexOf</code> and <code>indexAllOf</code> cost O(occurrences) on average rather
+     * than a scan of the cells. Lookups of null are not indexed. Inserting or removing a row or a column before the
+     * last one costs an additional O(rows) or O(columns) to shift the indexed positions along that axis. The elements
+     * must not be modified in a way that affects their <code>equals</code> and <code>hashCode</code> while in the
+     * matrix. Enabling the index costs O(rows * columns), and so does copying an indexed matrix, as the copy is
+     * indexed too: Copies and unmodifiable copies of an indexed matrix are not taken in constant time. Views can't be
+     * indexed.
+     * @param indexed True to enable the index, false to disable it.
+     * @throws UnsupportedOperationException If enabling the index of a view.
+     */
+    public void setIndexed(boolean indexed) {
+        if (indexed && isView())
+            throw new UnsupportedOperationException("Matrix views can't be indexed.");
+        var observed = content instanceof ObservedContent<T> observedContent ? observedContent : null;
+        var inner = observed != null ? observed.content() : content;
+        if (indexed && !(inner instanceof IndexedContent))
+            inner = new IndexedContent<>(inner);
+        else if (!indexed && inner instanceof IndexedContent<T> indexedContent)
+            inner = indexedContent.content();
+        if (observed != null)
+            observed.setContent(inner);
+        else
+            content = inner;
+    }
+
+    /**
+     * Returns true if the elements index is enabled.
+     */
+    public boolean isIndexed() {
+        var inner = content instanceof ObservedContent<T> observed ? observed.content() : content;
+        return inner instanceof IndexedContent;
+    }
+
+    private ObservedContent<T> observed() {
+        if (content instanceof ObservedContent<T> observed)
+            return observed;
+        var observed = new ObservedContent<>(content);
+        content = observed;
+        return observed;
+    }
+
+    private void unobserve(ObservedContent<T> observed) {
+        if (observed.isIdle())
+            content = observed.content();
+    }
+
+    /**
+     * Adds a listener notified of every change made to the matrix after it's made, including changes made through
+     * views of the matrix: Cell updates, row and column insertions, removals and swaps, reverses, flips and clearing.
+     * Higher level operations are reported as the primitive changes composing them, and orientation transforms as
+     * their basic reverses and flips. While the matrix has listeners or a batch, its cells are written sequentially.
+     * @param listener The listener.
+     */
+    public void addListener(Consumer<MatrixDelta.Change<T>> listener) {
+        observed().listeners().add(Objects.requireNonNull(listener, "Listener is null."));
+    }
+
+    /**
+     * Removes a listener added to the matrix.
+     * @param listener The listener.
+     * @return True if removed, false if not found.
+     */
+    public boolean removeListener(Consumer<MatrixDelta.Change<T>> listener) {
+        if (!(content instanceof ObservedContent<T> observed))
+            return false;
+        boolean removed = observed.listeners().remove(listener);
+        unobserve(observed);
+        return removed;
+    }
+
+    /**
+     * Begins a batch of changes, recording every change made to the matrix from now on until the batch is committed.
+     * @throws IllegalStateException If a batch has already begun.
+     */
+    public void beginBatch() {
+        var observed = observed();
+        if (observed.batch() != null)
+            throw new IllegalStateException("Batch already begun.");
+        observed.setBatch(new MatrixDelta.Recorder<>());
+    }
+
+    /**
+     * Returns true if a batch has begun and wasn't committed yet.
+     */
+    public boolean isInBatch() {
+        return content instanceof ObservedContent<T> observed && observed.batch() != null;
+    }
+
+    /**
+     * Commits the current batch, ending it.
+     * @return The delta of the changes made since the batch began, coalesced.
+     * @throws IllegalStateException If no batch has begun.
+     */
+    public MatrixDelta<T> commitBatch() {
+        if (!isInBatch())
+            throw new IllegalStateException("No batch begun.");
+        var observed = (ObservedContent<T>) content;
+        var delta = observed.batch().toDelta();
+        observed.setBatch(null);
+        unobserve(observed);
+        return delta;
     }
 
     /**
      * Returns the matrix cells as an ordered, unmodifiable list of rows.
      */
     public List<List<T>> getRows() {
-        return getRowsRange().stream().map(y -> content.stream().map(column -> column.get(y)).toList()).toList();
+        return getRowsRange().stream().map(content::getRow).toList();
     }
 
     /**
      * Returns the matrix cells as an ordered, unmodifiable list of columns.
      */
     public List<List<T>> getColumns() {
-        return content.stream().map(Sugar::unmodifiableCopy).toList();
+        return getColumnsRange().stream().map(content::getColumn).toList();
     }
 
     /**
@@ -254,7 +602,7 @@ public class Matrix<T> {
      * Returns a range of the matrix column indexes.
      */
     public Range getColumnsRange() {
-        return Range.of(0, content.size());
+        return Range.of(0, columns());
     }
 
     /**
@@ -265,10 +613,69 @@ public class Matrix<T> {
     }
 
     /**
-     * Returns a flat stream of the matrix elements. The order is column 0 from row 0 to Y, column 1 from row 0 etc.
+     * Returns a live view of the block, without copying the cells. Reads and writes go through to this matrix, and
+     * changes in this matrix are reflected in the view, as long as the block remains within its bounds. The view size
+     * is fixed: Adding or removing rows and columns of the view throws <code>UnsupportedOperationException</code>,
+     * whereas flipping, turning and reversing it only affects the view. The view can't be indexed, as it doesn't
+     * observe changes made directly in this matrix. A copy of the view is detached from this matrix.
+     * @param block The block of this matrix.
+     * @return The view.
+     * @throws IndexOutOfBoundsException If the block exceeds the matrix bounds, or is empty in only one dimension.
+     */
+    public Matrix<T> view(Block block) {
+        Objects.requireNonNull(block, "Block is null.");
+        validateSize(block.getXRange().size(), block.getYRange().size());
+        if (block.getTo().getX() > columns() || block.getTo().getY() > rows())
+            throw new IndexOutOfBoundsException("Block " + block + " exceeds the matrix size " + size());
+        return new Matrix<>(new WindowContent<>(this, block));
+    }
+
+    /**
+     * Returns a live view of the whole matrix, flipped along the diagonal. See {@link #view(Block)}.
+     */
+    public Matrix<T> transposedView() {
+        var view = view(getBlock());
+        view.flip();
+        return view;
+    }
+
+    /**
+     * Returns a live view of the rows in the range, in the range order. See {@link #view(Block)}.
+     * @param range The rows range, from (inclusive) to (exclusive). If descending, the view rows are reversed.
+     * @return The view.
+     * @throws IndexOutOfBoundsException If the range exceeds the matrix bounds, or is empty in a non-empty matrix.
+     */
+    public Matrix<T> viewRows(Range range) {
+        Objects.requireNonNull(range, "Range is null.");
+        int from = Math.min(range.getFrom(), range.getTo() + 1);
+        var view = view(Block.of(0, from, columns(), from + Math.abs(range.size())));
+        if (range.signum() == -1)
+            view.reverseY();
+        return view;
+    }
+
+    /**
+     * Returns a live view of the columns in the range, in the range order. See {@link #view(Block)}.
+     * @param range The columns range, from (inclusive) to (exclusive). If descending, the view columns are reversed.
+     * @return The view.
+     * @throws IndexOutOfBoundsException If the range exceeds the matrix bounds, or is empty in a non-empty matrix.
+     */
+    public Matrix<T> viewColumns(Range range) {
+        Objects.requireNonNull(range, "Range is null.");
+        int from = Math.min(range.getFrom(), range.getTo() + 1);
+        var view = view(Block.of(from, 0, from + Math.abs(range.size()), rows()));
+        if (range.signum() == -1)
+            view.reverseX();
+        return view;
+    }
+
+    /**
+     * Returns a flat stream of the matrix elements. The order is column 0 from row 0 to Y, column 1 from row 0 etc.,
+     * unless the matrix is tiled, in which case the tiles are streamed by columns, and the cells of each tile by
+     * columns.
      */
     public Stream<T> stream() {
-        return content.stream().flatMap(Collection::stream);
+        return content.stream();
     }
 
     /**
@@ -297,15 +704,23 @@ public class Matrix<T> {
      */
     @SafeVarargs
     public final void addRowBefore(int y, T... row) {
+        insertRow(y, row.length, x -> row[x]);
+    }
+
+    /**
+     * Adds a row before the specified row, as <code>addRowBefore</code> does, of the values provided by column index.
+     */
+    void insertRow(int y, int length, IntFunction<T> row) {
         if (validateNegative(y) > rows())
             throw new IndexOutOfBoundsException("Row " + y + " can't be added having a total of " + rows());
-        boolean wasEmpty = content.isEmpty();
-        if (wasEmpty)
-            content.add(Sugar.fill(1));
-        Sugar.repeat(Math.max(row.length - content.size(), 0), this::addColumn);
-        getColumnsRange().forEach(x -> content.get(x).add(y, x < row.length ? row[x] : null));
-        if (wasEmpty)
-            removeRow(y + 1);
+        int columns = Math.max(Math.max(length, columns()), 1);
+        while (columns() < columns) {
+            content.insertColumn(columns());
+        }
+        content.insertRow(y);
+        for (int x = 0; x < length; x++) {
+            content.set(x, y, row.apply(x));
+        }
     }
 
     /**
@@ -333,7 +748,7 @@ public class Matrix<T> {
      */
     @SafeVarargs
     public final void addColumn(T... column) {
-        addColumnBefore(content.size(), column);
+        addColumnBefore(columns(), column);
     }
 
     /**
@@ -350,17 +765,24 @@ public class Matrix<T> {
      */
     @SafeVarargs
     public final void addColumnBefore(int x, T... column) {
-        if (validateNegative(x) > content.size())
-            throw new IndexOutOfBoundsException("Column " + x + " can't be added having a total of " + content.size());
-        boolean wasEmpty = content.isEmpty();
-        Sugar.repeat(Math.max(column.length - rows(), 0), this::addRow);
-        List<T> columnContent = Sugar.fill(Math.max(rows(), 1));
-        for (int y = 0; y < rows() && y < column.length; y++) {
-            columnContent.set(y, column[y]);
+        insertColumn(x, column.length, y -> column[y]);
+    }
+
+    /**
+     * Adds a column before the specified column, as <code>addColumnBefore</code> does, of the values provided by row
+     * index.
+     */
+    void insertColumn(int x, int length, IntFunction<T> column) {
+        if (validateNegative(x) > columns())
+            throw new IndexOutOfBoundsException("Column " + x + " can't be added having a total of " + columns());
+        int rows = Math.max(Math.max(length, rows()), 1);
+        while (rows() < rows) {
+            content.insertRow(rows());
+        }
+        content.insertColumn(x);
+        for (int y = 0; y < length; y++) {
+            content.set(x, y, column.apply(y));
         }
-        content.add(x, columnContent);
-        if (wasEmpty && column.length > 0)
-            removeColumn(x + 1);
     }
 
     /**
@@ -387,7 +809,7 @@ public class Matrix<T> {
     public List<T> removeRow(int y) {
         if (validateNegative(y) >= rows())
             throw new IndexOutOfBoundsException("Row " + y + " doesn't exist in a total of " + rows());
-        var row = content.stream().map(column -> column.remove(y)).toList();
+        var row = content.removeRow(y);
         if (rows() == 0)
             clear();
         return row;
@@ -418,9 +840,12 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If the index is out of bounds.
      */
     public List<T> removeColumn(int x) {
-        if (validateNegative(x) >= content.size())
-            throw new IndexOutOfBoundsException("Column " + x + " doesn't exist in a total of " + content.size());
-        return content.remove(x);
+        if (validateNegative(x) >= columns())
+            throw new IndexOutOfBoundsException("Column " + x + " doesn't exist in a total of " + columns());
+        var column = content.removeColumn(x);
+        if (columns() == 0)
+            clear();
+        return column;
     }
 
     /**
@@ -438,7 +863,7 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If the matrix is empty.
      */
     public List<T> removeLastColumn() {
-        return removeColumn(content.size() - 1);
+        return removeColumn(columns() - 1);
     }
 
     /**
@@ -454,7 +879,7 @@ public class Matrix<T> {
     public final List<T> setRow(int y, T... row) {
         var previous = removeRow(y);
         addRowBefore(y, row);
-        Sugar.repeat(Math.max(previous.size() - content.size(), 0), this::addColumn);
+        Sugar.repeat(Math.max(previous.size() - columns(), 0), this::addColumn);
         return previous;
     }
 
@@ -487,25 +912,19 @@ public class Matrix<T> {
      * Removes trailing rows where all cells are null.
      */
     public void packRows() {
-        pack(this::getLastRow, this::removeLastRow);
+        int rows = content.lastNonNullRow() + 1;
+        while (!isEmpty() && rows() > rows) {
+            removeLastRow();
+        }
     }
 
     /**
      * Removes trailing columns where all cells are null.
      */
     public void packColumns() {
-        pack(this::getLastColumn, this::removeLastColumn);
-    }
-
-    private void pack(Supplier<List<T>> getLast, Runnable removeLast) {
-        if (isEmpty())
-            return;
-        var last = getLast.get();
-        while (last.stream().allMatch(Objects::isNull)) {
-            removeLast.run();
-            if (isEmpty())
-                return;
-            last = getLast.get();
+        int columns = content.lastNonNullColumn() + 1;
+        while (!isEmpty() && columns() > columns) {
+            removeLastColumn();
         }
     }
 
@@ -539,7 +958,7 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If an index is out of bounds.
      */
     public void swapRows(int y1, int y2) {
-        getColumnsRange().forEach(x -> swap(x, y1, x, y2));
+        content.swapRows(y1, y2);
     }
 
     /**
@@ -547,32 +966,39 @@ public class Matrix<T> {
      * @throws IndexOutOfBoundsException If an index is out of bounds.
      */
     public void swapColumns(int x1, int x2) {
-        var temp = content.get(x1);
-        content.set(x1, content.get(x2));
-        content.set(x2, temp);
+        content.swapColumns(x1, x2);
     }
 
     /**
-     * Reverses the order of the columns.
+     * Reverses the order of the columns. The cells are not moved: The transform is applied lazily on access, in O(1).
      */
     public void reverseX() {
-        Collections.reverse(content);
+        content = content.oriented();
+        content.reverseX();
     }
 
     /**
-     * Reverses the order of the rows.
+     * Reverses the order of the rows. The cells are not moved: The transform is applied lazily on access, in O(1).
      */
     public void reverseY() {
-        content.forEach(Collections::reverse);
+        content = content.oriented();
+        content.reverseY();
     }
 
     /**
      * Changes the matrix rows into columns, effectively flipping it along the diagonal. Affects the size accordingly.
+     * The cells are not moved: The transform is applied lazily on access, in O(1).
      */
     public void flip() {
-        var rows = getRows();
-        clear();
-        rows.stream().map(ArrayList::new).forEach(content::add);
+        content = content.oriented().flip();
+    }
+
+    /**
+     * Moves the cells according to the pending flip, turn and reverse transforms, so that subsequent access involves no
+     * coordinates mapping. Costs O(rows * columns) if any transform is pending, and nothing otherwise.
+     */
+    public void materialize() {
+        content = content.materialize();
     }
 
     /**
@@ -598,7 +1024,13 @@ public class Matrix<T> {
         if (o == null || getClass() != o.getClass())
             return false;
         Matrix<?> that = (Matrix<?>) o;
-        return size().equals(that.size()) && content.equals(that.content);
+        if (!size().equals(that.size()))
+            return false;
+        return content.cells(getBlock()).allMatch(packed -> {
+            int x = Coordinates.unpackX(packed);
+            int y = Coordinates.unpackY(packed);
+            return Objects.equals(content.get(x, y), that.content.get(x, y));
+        });
     }
 
     @Override
@@ -616,38 +1048,178 @@ public class Matrix<T> {
      * @return The string representation of the matrix.
      */
     public String toString(String cellsDelimiter, String rowsDelimiter, String nullDefault, boolean tabFiller) {
+        var builder = new StringBuilder();
+        Sugar.sneaky(() -> writeTo(builder, cellsDelimiter, rowsDelimiter, nullDefault, tabFiller));
+        return builder.toString();
+    }
+
+    /**
+     * Writes the custom string representation of the matrix using the provided parameters, as returned by
+     * <code>toString</code>, row by row, without building the whole string in memory.
+     * @param appendable The target, such as a <code>Writer</code>.
+     * @param cellsDelimiter The delimiter between cells in a row.
+     * @param rowsDelimiter The delimiter between rows.
+     * @param nullDefault The representation of null cells.
+     * @param tabFiller True if tab-like spacing in cells is required. Requires an additional pass over the cells.
+     * @throws IOException If an I/O error occurred.
+     */
+    public void writeTo(Appendable appendable, String cellsDelimiter, String rowsDelimiter, String nullDefault,
+                        boolean tabFiller) throws IOException {
+        Objects.requireNonNull(appendable, "Appendable is null.");
         Sugar.requireNoneNull(List.of(cellsDelimiter, rowsDelimiter, nullDefault));
-        Matrix<String> strings = new Matrix<>(size());
-        int[] maxLength = new int[content.size()];
-        getBlock().forEach((x, y) -> {
-            String string = Objects.toString(get(x, y), nullDefault);
-            strings.set(x, y, string);
-            if (tabFiller)
-                maxLength[x] = Math.max(maxLength[x], string.length());
-        });
-        if (tabFiller) {
-            getBlock().forEach((x, y) -> {
-                String string = strings.get(x, y);
-                strings.set(x, y, string + " ".repeat(maxLength[x] - string.length()));
-            });
+        DelimitedText.write(this, appendable, cellsDelimiter, rowsDelimiter, nullDefault, tabFiller);
+    }
+
+    /**
+     * Reads delimited text, such as CSV or TSV, adding its rows to this matrix. The text is parsed incrementally, and
+     * each row is added as soon as it is complete. Cells equal to the null default are null, other cells are passed to
+     * the parser as is. Cells can't contain the delimiters, as there is no quoting.
+     * @param reader The reader. Not closed by this method.
+     * @param cellsDelimiter The delimiter between cells in a row.
+     * @param rowsDelimiter The delimiter between rows.
+     * @param nullDefault The representation of null cells.
+     * @param parser The cells parser.
+     * @throws IOException If an I/O error occurred.
+     * @throws IllegalArgumentException If a delimiter is empty, or starts with the other delimiter.
+     */
+    public void readFrom(Reader reader, String cellsDelimiter, String rowsDelimiter, String nullDefault,
+                         Function<String, T> parser) throws IOException {
+        Objects.requireNonNull(reader, "Reader is null.");
+        Sugar.requireNoneNull(List.of(cellsDelimiter, rowsDelimiter, nullDefault, parser));
+        if (cellsDelimiter.isEmpty() || rowsDelimiter.isEmpty() || cellsDelimiter.startsWith(rowsDelimiter) ||
+                rowsDelimiter.startsWith(cellsDelimiter))
+            throw new IllegalArgumentException("The delimiters must be non-empty, and neither can start the other.");
+        DelimitedText.read(this, reader, cellsDelimiter, rowsDelimiter, nullDefault, parser);
+    }
+
+    /**
+     * Reads delimited text, such as CSV or TSV, into a new matrix. See {@link #readFrom(Reader, String, String, String,
+     * Function)}.
+     * @param reader The reader. Not closed by this method.
+     * @param cellsDelimiter The delimiter between cells in a row.
+     * @param rowsDelimiter The delimiter between rows.
+     * @param nullDefault The representation of null cells.
+     * @param parser The cells parser.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IOException If an I/O error occurred.
+     */
+    public static <T> Matrix<T> read(Reader reader, String cellsDelimiter, String rowsDelimiter, String nullDefault,
+                                     Function<String, T> parser) throws IOException {
+        Matrix<T> matrix = new Matrix<>();
+        matrix.readFrom(reader, cellsDelimiter, rowsDelimiter, nullDefault, parser);
+        return matrix;
+    }
+
+    /**
+     * Reads a UTF-8 delimited text file, such as CSV or TSV, into a new matrix. See {@link #readFrom(Reader, String,
+     * String, String, Function)}.
+     * @param path The file path.
+     * @param cellsDelimiter The delimiter between cells in a row.
+     * @param rowsDelimiter The delimiter between rows.
+     * @param nullDefault The representation of null cells.
+     * @param parser The cells parser.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IOException If an I/O error occurred.
+     */
+    public static <T> Matrix<T> read(Path path, String cellsDelimiter, String rowsDelimiter, String nullDefault,
+                                     Function<String, T> parser) throws IOException {
+        try (var reader = Files.newBufferedReader(path)) {
+            return read(reader, cellsDelimiter, rowsDelimiter, nullDefault, parser);
         }
-        return strings.getRows().stream().map(row -> String.join(cellsDelimiter, row).stripTrailing())
-                .collect(Collectors.joining(rowsDelimiter)).stripTrailing();
     }
 
     /**
-     * X and Y coordinates.
+     * Writes the matrix in the versioned binary format: A header, followed by column-major blocks, each holding a null
+     * bitmap and the non-null cells encoded by the codec. See {@link #open(Path, CellCodec)}.
+     * @param outputStream The output stream. Not closed by this method.
+     * @param codec The cells codec.
+     * @param compress True if each column block should be GZIP-compressed.
+     * @throws IOException If an I/O error occurred.
+     */
+    public void writeTo(OutputStream outputStream, CellCodec<T> codec, boolean compress) throws IOException {
+        Objects.requireNonNull(outputStream, "Output stream is null.");
+        Objects.requireNonNull(codec, "Codec is null.");
+        BinaryFormat.write(this, outputStream, codec, compress);
+    }
+
+    /**
+     * Writes the matrix in the versioned binary format into a file. See {@link #writeTo(OutputStream, CellCodec,
+     * boolean)}.
+     * @param path The file path.
+     * @param codec The cells codec.
+     * @param compress True if each column block should be GZIP-compressed.
+     * @throws IOException If an I/O error occurred.
+     */
+    public void writeTo(Path path, CellCodec<T> codec, boolean compress) throws IOException {
+        try (var outputStream = Files.newOutputStream(path)) {
+            writeTo(outputStream, codec, compress);
+        }
+    }
+
+    /**
+     * Opens a binary matrix file lazily. The file is mapped into memory, and every column is decoded on its first
+     * access only. Structural changes of rows decode all the columns. The matrix is modifiable, and independent of the
+     * file once its columns are decoded. Files of primitive cells may be read unboxed by <code>IntMatrix.open</code>,
+     * <code>LongMatrix.open</code> and <code>DoubleMatrix.open</code>.
+     * @param path The file path.
+     * @param codec The cells codec, of the same name as the codec that wrote the file.
+     * @param <T> The type of elements in the matrix.
+     * @return The matrix.
+     * @throws IOException If an I/O error occurred, or the file is not a supported binary matrix file.
+     * @throws IllegalArgumentException If the file was written by a codec of a different name.
+     */
+    public static <T> Matrix<T> open(Path path, CellCodec<T> codec) throws IOException {
+        Objects.requireNonNull(path, "Path is null.");
+        Objects.requireNonNull(codec, "Codec is null.");
+        return new Matrix<>(BinaryFormat.map(path, codec));
+    }
+
+    /**
+     * The order of cells in a flat array storage.
+     */
+    public enum Order {
+        /**
+         * Rows are contiguous in the array.
+         */
+        ROW_MAJOR,
+        /**
+         * Columns are contiguous in the array.
+         */
+        COLUMN_MAJOR
+    }
+
+    /**
+     * X and Y coordinates. Coordinates smaller than 128 on both axes are cached, so that obtaining them does not
+     * allocate. Where no object is needed, the coordinates can be passed as a long using <code>pack</code>.
      */
     public static final class Coordinates extends Couple<Integer> {
+        private static final int cacheSize = 128;
+        private static final Coordinates[] cache = new Coordinates[cacheSize * cacheSize];
 
         private Coordinates(int x, int y) {
             super(x, y);
         }
 
         public static Coordinates of(int x, int y) {
+            if (x >= 0 && x < cacheSize && y >= 0 && y < cacheSize) {
+                int index = x * cacheSize + y;
+                var coordinates = cache[index];
+                if (coordinates == null)
+                    cache[index] = coordinates = new Coordinates(x, y);
+                return coordinates;
+            }
             return new Coordinates(validateNegative(x), validateNegative(y));
         }
 
+        /**
+         * Returns the coordinates of packed coordinates.
+         */
+        public static Coordinates unpack(long packed) {
+            return of(unpackX(packed), unpackY(packed));
+        }
+
         public int getX() {
             return getFirst();
         }
@@ -655,6 +1227,35 @@ public class Matrix<T> {
         public int getY() {
             return getSecond();
         }
+
+        /**
+         * Returns these coordinates packed into a long.
+         */
+        public long packed() {
+            return pack(getX(), getY());
+        }
+
+        /**
+         * Returns the coordinates packed into a long: X in the high 32 bits and Y in the low 32 bits. Packed
+         * coordinates compare in the same order as the coordinates by columns.
+         */
+        public static long pack(int x, int y) {
+            return (long) x << 32 | (y & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Returns the X coordinate of packed coordinates.
+         */
+        public static int unpackX(long packed) {
+            return (int) (packed >>> 32);
+        }
+
+        /**
+         * Returns the Y coordinate of packed coordinates.
+         */
+        public static int unpackY(long packed) {
+            return (int) packed;
+        }
     }
 
     /**
@@ -711,20 +1312,94 @@ public class Matrix<T> {
 
         /**
          * Returns a stream of the block coordinates, from <code>from</code> (inclusive) to <code>to</code> (exclusive).
-         * If either X or Y range is empty, returns an empty stream.
+         * If either X or Y range is empty, returns an empty stream. The stream is sized and splits evenly by cell.
          */
         public Stream<Coordinates> stream() {
-            var yRange = getYRange();
-            return getXRange().stream().flatMap(x -> yRange.stream().map(y -> Coordinates.of(x, y)));
+            return packedStream().mapToObj(Coordinates::unpack);
+        }
+
+        /**
+         * Returns a stream of the block coordinates packed into longs, in the order of <code>stream()</code>. Unpack
+         * using <code>Coordinates.unpackX</code> and <code>Coordinates.unpackY</code>. The stream is sized and splits
+         * evenly by cell.
+         */
+        public LongStream packedStream() {
+            int fromX = getFrom().getX();
+            int fromY = getFrom().getY();
+            int height = getYRange().size();
+            return LongStream.range(0, (long) getXRange().size() * height).map(i ->
+                    Coordinates.pack(fromX + (int) (i / height), fromY + (int) (i % height)));
+        }
+
+        /**
+         * Returns a stream of the block coordinates in tile order: The block is divided into tiles of the size
+         * provided, starting at <code>from</code>, where the last tiles of each axis may be smaller. The tiles are
+         * visited by columns, and the cells of each tile by columns. The stream is sized and splits evenly by cell.
+         * @param tileWidth The tile columns number.
+         * @param tileHeight The tile rows number.
+         * @return The coordinates stream.
+         * @throws IllegalArgumentException If a tile dimension is not positive.
+         */
+        public Stream<Coordinates> stream(int tileWidth, int tileHeight) {
+            return packedStream(tileWidth, tileHeight).mapToObj(Coordinates::unpack);
+        }
+
+        /**
+         * Returns a stream of the block coordinates packed into longs, in the tile order of <code>stream(tileWidth,
+         * tileHeight)</code>. The stream is sized and splits evenly by cell.
+         * @param tileWidth The tile columns number.
+         * @param tileHeight The tile rows number.
+         * @return The packed coordinates stream.
+         * @throws IllegalArgumentException If a tile dimension is not positive.
+         */
+        public LongStream packedStream(int tileWidth, int tileHeight) {
+            Sugar.requireRange(tileWidth, 1, null);
+            Sugar.requireRange(tileHeight, 1, null);
+            int fromX = getFrom().getX();
+            int fromY = getFrom().getY();
+            int width = getXRange().size();
+            int height = getYRange().size();
+            long tileColumnCells = (long) tileWidth * height;
+            return LongStream.range(0, (long) width * height).map(i -> {
+                int tileX = (int) (i / tileColumnCells);
+                int tileWidthAt = Math.min(tileWidth, width - tileX * tileWidth);
+                long offset = i % tileColumnCells;
+                long tileCells = (long) tileWidthAt * tileHeight;
+                int tileY = (int) (offset / tileCells);
+                int tileHeightAt = Math.min(tileHeight, height - tileY * tileHeight);
+                int cell = (int) (offset % tileCells);
+                return Coordinates.pack(fromX + tileX * tileWidth + cell / tileHeightAt,
+                        fromY + tileY * tileHeight + cell % tileHeightAt);
+            });
+        }
+
+        /**
+         * Performs an action for each cell in the block, from <code>from</code> (inclusive) to <code>to</code>
+         * (exclusive), passing the X and Y coordinates unboxed. If either X or Y range is empty, does nothing. The
+         * iteration itself allocates nothing.
+         */
+        public void forEach(IntIntConsumer action) {
+            Objects.requireNonNull(action, "Action is null.");
+            int fromX = getFrom().getX();
+            int fromY = getFrom().getY();
+            int toX = getTo().getX();
+            int toY = getTo().getY();
+            for (int x = fromX; x < toX; x++) {
+                for (int y = fromY; y < toY; y++) {
+                    action.accept(x, y);
+                }
+            }
         }
 
         /**
          * Performs an action for each cell in the block, from <code>from</code> (inclusive) to <code>to</code>
          * (exclusive). If either X or Y range is empty, does nothing.
+         * @deprecated Boxes the coordinates of every cell. Use <code>forEach(IntIntConsumer)</code> instead.
          */
+        @Deprecated
         public void forEach(BiConsumer<Integer, Integer> action) {
             Objects.requireNonNull(action, "Action is null.");
-            forEach(coordinates -> action.accept(coordinates.getX(), coordinates.getY()));
+            forEach((IntIntConsumer) action::accept);
         }
 
         /**
@@ -736,7 +1411,7 @@ public class Matrix<T> {
          */
         public void forEach(Consumer<Coordinates> action) {
             Objects.requireNonNull(action, "Action is null.");
-            stream().forEach(action);
+            forEach((x, y) -> action.accept(Coordinates.of(x, y)));
         }
     }
 }
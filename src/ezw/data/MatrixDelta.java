@@ -0,0 +1,195 @@
+package ezw.data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A compact sequence of changes made to a matrix during a batch, applicable to another matrix in order to replicate
+ * them incrementally. Within the batch, repeated updates of a cell between structural changes are coalesced into the
+ * last one, consecutive identical reverses and flips cancel each other, and clearing the matrix discards the changes
+ * preceding it. The delta is serializable if its elements are.
+ * @param <T> The type of elements in the matrix.
+ */
+public final class MatrixDelta<T> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final List<Change<T>> changes;
+
+    MatrixDelta(List<Change<T>> changes) {
+        this.changes = List.copyOf(changes);
+    }
+
+    /**
+     * Returns the changes, in order, as an unmodifiable list.
+     */
+    public List<Change<T>> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns true if the delta contains no changes.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Applies the changes to the matrix in order. The matrix is expected to be equal to the source matrix as it was
+     * when the batch began, in which case it becomes equal to the source matrix as it was when the batch was committed.
+     * @param matrix The matrix.
+     * @throws IndexOutOfBoundsException If a change doesn't fit the matrix.
+     */
+    public void applyTo(Matrix<T> matrix) {
+        Objects.requireNonNull(matrix, "Matrix is null.");
+        changes.forEach(change -> change.applyTo(matrix));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof MatrixDelta<?> that && changes.equals(that.changes);
+    }
+
+    @Override
+    public int hashCode() {
+        return changes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return changes.toString();
+    }
+
+    /**
+     * The type of a matrix change.
+     */
+    public enum Type {
+        /**
+         * A cell was updated: The first index is the column, the second is the row, and the element is the new one.
+         */
+        SET,
+        /**
+         * A row of nulls was inserted before the row of the first index.
+         */
+        INSERT_ROW,
+        /**
+         * A column of nulls was inserted before the column of the first index.
+         */
+        INSERT_COLUMN,
+        /**
+         * The row of the first index was removed.
+         */
+        REMOVE_ROW,
+        /**
+         * The column of the first index was removed.
+         */
+        REMOVE_COLUMN,
+        /**
+         * The rows of the first and the second indexes were swapped.
+         */
+        SWAP_ROWS,
+        /**
+         * The columns of the first and the second indexes were swapped.
+         */
+        SWAP_COLUMNS,
+        /**
+         * The order of the columns was reversed.
+         */
+        REVERSE_X,
+        /**
+         * The order of the rows was reversed.
+         */
+        REVERSE_Y,
+        /**
+         * The matrix was flipped along the diagonal.
+         */
+        FLIP,
+        /**
+         * The matrix was cleared.
+         */
+        CLEAR
+    }
+
+    /**
+     * A single change made to a matrix. Indexes irrelevant to the change type are 0, and the element is null unless the
+     * type is <code>SET</code>.
+     * @param type The change type.
+     * @param first The first index.
+     * @param second The second index.
+     * @param element The new element.
+     * @param <T> The type of elements in the matrix.
+     */
+    public record Change<T>(Type type, int first, int second, T element) implements Serializable {
+
+        public Change {
+            Objects.requireNonNull(type, "Type is null.");
+        }
+
+        static <T> Change<T> of(Type type, int first) {
+            return new Change<>(type, first, 0, null);
+        }
+
+        static <T> Change<T> of(Type type, int first, int second) {
+            return new Change<>(type, first, second, null);
+        }
+
+        static <T> Change<T> of(Type type) {
+            return new Change<>(type, 0, 0, null);
+        }
+
+        private void applyTo(Matrix<T> matrix) {
+            switch (type) {
+                case SET -> matrix.set(first, second, element);
+                case INSERT_ROW -> matrix.content().insertRow(Objects.checkIndex(first, matrix.content().rows() + 1));
+                case INSERT_COLUMN -> matrix.content().insertColumn(Objects.checkIndex(first,
+                        matrix.content().columns() + 1));
+                case REMOVE_ROW -> matrix.content().removeRow(Objects.checkIndex(first, matrix.content().rows()));
+                case REMOVE_COLUMN -> matrix.content().removeColumn(Objects.checkIndex(first,
+                        matrix.content().columns()));
+                case SWAP_ROWS -> matrix.swapRows(first, second);
+                case SWAP_COLUMNS -> matrix.swapColumns(first, second);
+                case REVERSE_X -> matrix.reverseX();
+                case REVERSE_Y -> matrix.reverseY();
+                case FLIP -> matrix.flip();
+                case CLEAR -> matrix.clear();
+            }
+        }
+    }
+
+    /**
+     * Records the changes of a batch, coalescing them as they are recorded.
+     * @param <T> The type of elements in the matrix.
+     */
+    static final class Recorder<T> {
+        private final List<Change<T>> changes = new ArrayList<>();
+        private final Map<Long, Integer> sets = new HashMap<>();
+
+        void record(Change<T> change) {
+            switch (change.type) {
+                case SET -> {
+                    var index = sets.putIfAbsent(Matrix.Coordinates.pack(change.first, change.second), changes.size());
+                    if (index != null)
+                        changes.set(index, change);
+                    else
+                        changes.add(change);
+                    return;
+                }
+                case REVERSE_X, REVERSE_Y, FLIP -> {
+                    sets.clear();
+                    if (!changes.isEmpty() && changes.get(changes.size() - 1).type == change.type) {
+                        changes.remove(changes.size() - 1);
+                        return;
+                    }
+                }
+                case CLEAR -> changes.clear();
+            }
+            sets.clear();
+            changes.add(change);
+        }
+
+        MatrixDelta<T> toDelta() {
+            return new MatrixDelta<>(changes);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package ezw.data;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Numeric operations on double matrices. The operands are copied into dense row-major arrays (in bulk if stored
+ * row-major with no pending transforms), processed by plain loops over contiguous arrays that the JIT compiler can
+ * vectorize, and the results are returned as new row-major matrices. Operations on at least the parallel threshold of
+ * the first operand's cells are split into tiles processed in parallel on the common fork-join pool. Only double
+ * matrices are supported: The cells of int and long matrices must be copied into a double matrix first, and are exact
+ * up to 2<sup>53</sup> in magnitude.
+ */
+public abstract class MatrixMath {
+    private static final int tileSize = 64;
+    private static final int chunkSize = 1 << 12;
+
+    private MatrixMath() {}
+
+    /**
+     * Returns the element-wise sum of the matrices.
+     * @throws IllegalArgumentException If the matrices differ in size.
+     */
+    public static DoubleMatrix add(DoubleMatrix a, DoubleMatrix b) {
+        requireSameSize(a, b);
+        var left = values(a);
+        var right = values(b);
+        var result = new double[left.length];
+        forEachChunk(result.length, isParallel(a, result.length), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = left[i] + right[i];
+            }
+        });
+        return matrix(result, a.size());
+    }
+
+    /**
+     * Returns the element-wise difference of the matrices.
+     * @throws IllegalArgumentException If the matrices differ in size.
+     */
+    public static DoubleMatrix subtract(DoubleMatrix a, DoubleMatrix b) {
+        requireSameSize(a, b);
+        var left = values(a);
+        var right = values(b);
+        var result = new double[left.length];
+        forEachChunk(result.length, isParallel(a, result.length), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = left[i] - right[i];
+            }
+        });
+        return matrix(result, a.size());
+    }
+
+    /**
+     * Returns the element-wise (Hadamard) product of the matrices.
+     * @throws IllegalArgumentException If the matrices differ in size.
+     */
+    public static DoubleMatrix multiplyElements(DoubleMatrix a, DoubleMatrix b) {
+        requireSameSize(a, b);
+        var left = values(a);
+        var right = values(b);
+        var result = new double[left.length];
+        forEachChunk(result.length, isParallel(a, result.length), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = left[i] * right[i];
+            }
+        });
+        return matrix(result, a.size());
+    }
+
+    /**
+     * Returns the matrix multiplied by the scalar.
+     */
+    public static DoubleMatrix scale(DoubleMatrix a, double factor) {
+        var result = values(a);
+        forEachChunk(result.length, isParallel(a, result.length), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] *= factor;
+            }
+        });
+        return matrix(result, a.size());
+    }
+
+    /**
+     * Returns the dot product of the rows or columns.
+     * @throws IllegalArgumentException If the rows or columns differ in size.
+     */
+    public static double dot(DoubleMatrix.View a, DoubleMatrix.View b) {
+        if (a.size() != b.size())
+            throw new IllegalArgumentException("Sizes " + a.size() + " and " + b.size() + " differ.");
+        return dot(a.toArray(), b.toArray());
+    }
+
+    /**
+     * Returns the dot product of the arrays, summed in four independent lanes.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static double dot(double[] a, double[] b) {
+        if (a.length != b.length)
+            throw new IllegalArgumentException("Lengths " + a.length + " and " + b.length + " differ.");
+        double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int i = 0;
+        for (; i <= a.length - 4; i += 4) {
+            sum0 += a[i] * b[i];
+            sum1 += a[i + 1] * b[i + 1];
+            sum2 += a[i + 2] * b[i + 2];
+            sum3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            sum0 += a[i] * b[i];
+        }
+        return sum0 + sum1 + sum2 + sum3;
+    }
+
+    /**
+     * Returns the matrix product of the matrices, where the columns number of the first equals the rows number of the
+     * second. The product is calculated in cache-sized tiles, and in parallel by bands of rows if the product has at
+     * least the parallel threshold of cells.
+     * @throws IllegalArgumentException If the columns number of the first matrix differs from the rows number of the
+     * second.
+     * @throws ArithmeticException If the product has more than <code>Integer.MAX_VALUE</code> cells.
+     */
+    public static DoubleMatrix multiply(DoubleMatrix a, DoubleMatrix b) {
+        int rows = a.size().getY();
+        int inner = a.size().getX();
+        int columns = b.size().getX();
+        if (inner != b.size().getY())
+            throw new IllegalArgumentException("Can't multiply " + a.size() + " by " + b.size() + ".");
+        var result = new double[Math.multiplyExact(rows, columns)];
+        var task = new MultiplyTask(values(a), values(b), result, inner, columns, 0, rows);
+        if (isParallel(a, result.length))
+            ForkJoinPool.commonPool().invoke(task);
+        else
+            task.compute();
+        return matrix(result, Matrix.Coordinates.of(columns, rows));
+    }
+
+    /**
+     * Returns a new matrix of the matrix rows as columns. Unlike <code>flip</code>, the cells are moved, in tiles, so
+     * that subsequent access involves no coordinates mapping.
+     */
+    public static DoubleMatrix transpose(DoubleMatrix a) {
+        int columns = a.size().getX();
+        int rows = a.size().getY();
+        var values = values(a);
+        var result = new double[values.length];
+        var tiles = IntStream.range(0, (rows + tileSize - 1) / tileSize);
+        if (isParallel(a, values.length))
+            tiles = tiles.parallel();
+        tiles.forEach(tile -> {
+            int toY = Math.min(rows, (tile + 1) * tileSize);
+            for (int fromX = 0; fromX < columns; fromX += tileSize) {
+                int toX = Math.min(columns, fromX + tileSize);
+                for (int y = tile * tileSize; y < toY; y++) {
+                    for (int x = fromX; x < toX; x++) {
+                        result[x * rows + y] = values[y * columns + x];
+                    }
+                }
+            }
+        });
+        return matrix(result, Matrix.Coordinates.of(rows, columns));
+    }
+
+    /**
+     * Returns a new matrix containing the cells of the block of the matrix, for operating on blocks.
+     * @throws IndexOutOfBoundsException If the block exceeds the matrix bounds.
+     */
+    public static DoubleMatrix copyOf(DoubleMatrix a, Matrix.Block block) {
+        Objects.requireNonNull(block, "Block is null.");
+        int fromX = block.getFrom().getX();
+        int fromY = block.getFrom().getY();
+        int columns = block.getXRange().size();
+        int rows = block.getYRange().size();
+        var result = new double[Math.multiplyExact(columns, rows)];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                result[y * columns + x] = a.getDouble(fromX + x, fromY + y);
+            }
+        }
+        return matrix(result, Matrix.Coordinates.of(columns, rows));
+    }
+
+    private static void requireSameSize(DoubleMatrix a, DoubleMatrix b) {
+        if (!a.size().equals(b.size()))
+            throw new IllegalArgumentException("Sizes " + a.size() + " and " + b.size() + " differ.");
+    }
+
+    private static boolean isParallel(DoubleMatrix a, int cells) {
+        return cells >= a.getParallelThreshold();
+    }
+
+    private static void forEachChunk(int length, boolean parallel, ChunkAction action) {
+        var chunks = IntStream.range(0, (length + chunkSize - 1) / chunkSize);
+        if (parallel)
+            chunks = chunks.parallel();
+        chunks.forEach(chunk -> action.accept(chunk * chunkSize, Math.min(length, (chunk + 1) * chunkSize)));
+    }
+
+    /**
+     * Returns the matrix cells as a new dense row-major array.
+     */
+    private static double[] values(DoubleMatrix matrix) {
+        int columns = matrix.size().getX();
+        int rows = matrix.size().getY();
+        var values = new double[Math.multiplyExact(columns, rows)];
+        if (matrix.content() instanceof DoubleContent content && content.grid.isRowMajor()) {
+            var array = (double[]) content.grid.array();
+            for (int y = 0; y < rows; y++) {
+                System.arraycopy(array, content.grid.index(0, y), values, y * columns, columns);
+            }
+        } else {
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < columns; x++) {
+                    values[y * columns + x] = matrix.getDouble(x, y);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns a new row-major matrix of the dense row-major array.
+     */
+    private static DoubleMatrix matrix(double[] values, Matrix.Coordinates size) {
+        int columns = size.getX();
+        int rows = size.getY();
+        var matrix = new DoubleMatrix(columns, rows);
+        var grid = ((DoubleContent) matrix.content()).grid;
+        for (int y = 0; y < rows; y++) {
+            System.arraycopy(values, y * columns, grid.array(), grid.index(0, y), columns);
+        }
+        return matrix;
+    }
+
+    private interface ChunkAction {
+
+        void accept(int from, int to);
+    }
+
+    /**
+     * Multiplies a band of rows of the first matrix, splitting it in halves down to one tile of rows.
+     */
+    @SuppressWarnings("serial")
+    private static final class MultiplyTask extends RecursiveAction {
+        private final double[] a;
+        private final double[] b;
+        private final double[] result;
+        private final int inner;
+        private final int columns;
+        private final int fromY;
+        private final int toY;
+
+        private MultiplyTask(double[] a, double[] b, double[] result, int inner, int columns, int fromY, int toY) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.inner = inner;
+            this.columns = columns;
+            this.fromY = fromY;
+            this.toY = toY;
+        }
+
+        @Override
+        protected void compute() {
+            if (toY - fromY > tileSize && getPool() != null) {
+                int middle = (fromY + toY) >>> 1;
+                invokeAll(new MultiplyTask(a, b, result, inner, columns, fromY, middle),
+                        new MultiplyTask(a, b, result, inner, columns, middle, toY));
+                return;
+            }
+            for (int tileY = fromY; tileY < toY; tileY += tileSize) {
+                int tileToY = Math.min(toY, tileY + tileSize);
+                for (int tileK = 0; tileK < inner; tileK += tileSize) {
+                    int tileToK = Math.min(inner, tileK + tileSize);
+                    for (int tileX = 0; tileX < columns; tileX += tileSize) {
+                        int tileToX = Math.min(columns, tileX + tileSize);
+                        for (int y = tileY; y < tileToY; y++) {
+                            int row = y * columns;
+                            for (int k = tileK; k < tileToK; k++) {
+                                double factor = a[y * inner + k];
+                                int bRow = k * columns;
+                                for (int x = tileX; x < tileToX; x++) {
+                                    result[row + x] += factor * b[bRow + x];
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A decorator of a content, reporting every change made through it to the listeners, and recording it in the current
+ * batch if any. Changes are reported after they're made. Cells are never written in parallel while observed, so that
+ * the changes are reported sequentially.
+ * @param <T> The type of elements in the matrix.
+ */
+final class ObservedContent<T> extends Content<T> {
+    private final List<Consumer<MatrixDelta.Change<T>>> listeners = new ArrayList<>();
+    private Content<T> content;
+    private MatrixDelta.Recorder<T> batch;
+
+    ObservedContent(Content<T> content) {
+        this.content = content;
+    }
+
+    Content<T> content() {
+        return content;
+    }
+
+    void setContent(Content<T> content) {
+        this.content = content;
+    }
+
+    List<Consumer<MatrixDelta.Change<T>>> listeners() {
+        return listeners;
+    }
+
+    MatrixDelta.Recorder<T> batch() {
+        return batch;
+    }
+
+    void setBatch(MatrixDelta.Recorder<T> batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Returns true if there are no listeners and no batch, so that the decorator can be removed.
+     */
+    boolean isIdle() {
+        return listeners.isEmpty() && batch == null;
+    }
+
+    private void report(MatrixDelta.Change<T> change) {
+        if (batch != null)
+            batch.record(change);
+        for (var listener : List.copyOf(listeners)) {
+            listener.accept(change);
+        }
+    }
+
+    @Override
+    int columns() {
+        return content.columns();
+    }
+
+    @Override
+    int rows() {
+        return content.rows();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return content.get(x, y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        T previous = content.set(x, y, element);
+        report(new MatrixDelta.Change<>(MatrixDelta.Type.SET, x, y, element));
+        return previous;
+    }
+
+    @Override
+    void insertRow(int y) {
+        content.insertRow(y);
+        report(MatrixDelta.Change.of(MatrixDelta.Type.INSERT_ROW, y));
+    }
+
+    @Override
+    void insertColumn(int x) {
+        content.insertColumn(x);
+        report(MatrixDelta.Change.of(MatrixDelta.Type.INSERT_COLUMN, x));
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        var row = content.removeRow(y);
+        report(MatrixDelta.Change.of(MatrixDelta.Type.REMOVE_ROW, y));
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        var column = content.removeColumn(x);
+        report(MatrixDelta.Change.of(MatrixDelta.Type.REMOVE_COLUMN, x));
+        return column;
+    }
+
+    @Override
+    void clear() {
+        content.clear();
+        report(MatrixDelta.Change.of(MatrixDelta.Type.CLEAR));
+    }
+
+    @Override
+    Content<T> copy() {
+        return content.copy();
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        return content.map(function);
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return content.isNull(x, y);
+    }
+
+    @Override
+    int lastNonNullRow() {
+        return content.lastNonNullRow();
+    }
+
+    @Override
+    int lastNonNullColumn() {
+        return content.lastNonNullColumn();
+    }
+
+    @Override
+    List<T> getRow(int y) {
+        return content.getRow(y);
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return content.getColumn(x);
+    }
+
+    @Override
+    Stream<T> stream() {
+        return content.stream();
+    }
+
+    @Override
+    LongStream cells(Matrix.Block block) {
+        return content.cells(block);
+    }
+
+    @Override
+    boolean isView() {
+        return content.isView();
+    }
+
+    @Override
+    boolean contains(T element) {
+        return content.contains(element);
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        return content.indexOfPacked(element);
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        return content.lastIndexOf(element);
+    }
+
+    @Override
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        return content.indexAllOf(element);
+    }
+
+    @Override
+    Map<T, Integer> frequencies(int x) {
+        return content.frequencies(x);
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        content.swapRows(y1, y2);
+        report(MatrixDelta.Change.of(MatrixDelta.Type.SWAP_ROWS, y1, y2));
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        content.swapColumns(x1, x2);
+        report(MatrixDelta.Change.of(MatrixDelta.Type.SWAP_COLUMNS, x1, x2));
+    }
+
+    @Override
+    void reverseX() {
+        content.reverseX();
+        report(MatrixDelta.Change.of(MatrixDelta.Type.REVERSE_X));
+    }
+
+    @Override
+    void reverseY() {
+        content.reverseY();
+        report(MatrixDelta.Change.of(MatrixDelta.Type.REVERSE_Y));
+    }
+
+    @Override
+    Content<T> flip() {
+        content = content.flip();
+        report(MatrixDelta.Change.of(MatrixDelta.Type.FLIP));
+        return this;
+    }
+
+    @Override
+    Content<T> oriented() {
+        content = content.oriented();
+        return this;
+    }
+
+    @Override
+    Content<T> materialize() {
+        content = content.materialize();
+        return this;
+    }
+}
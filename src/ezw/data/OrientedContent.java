@@ -0,0 +1,275 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A content applying orientation transforms lazily over a storage content. Flipping and reversing only toggle flags,
+ * costing O(1) regardless of the size, while every access maps the coordinates to the storage. The transforms are
+ * applied to the storage only when materialized.
+ * @param <T> The type of elements in the matrix.
+ */
+final class OrientedContent<T> extends Content<T> {
+    private final Content<T> storage;
+    private boolean transposed;
+    private boolean reversedX;
+    private boolean reversedY;
+
+    OrientedContent(Content<T> storage) {
+        this(storage, false, false, false);
+    }
+
+    private OrientedContent(Content<T> storage, boolean transposed, boolean reversedX, boolean reversedY) {
+        this.storage = storage;
+        this.transposed = transposed;
+        this.reversedX = reversedX;
+        this.reversedY = reversedY;
+    }
+
+    /**
+     * Returns the storage content.
+     */
+    Content<T> storage() {
+        return storage;
+    }
+
+    private boolean isIdentity() {
+        return !transposed && !reversedX && !reversedY;
+    }
+
+    private int mapX(int x) {
+        return reversedX ? columns() - 1 - x : x;
+    }
+
+    private int mapY(int y) {
+        return reversedY ? rows() - 1 - y : y;
+    }
+
+    /**
+     * Returns the storage X coordinate of the cell. Coordinates out of bounds are mapped out of the storage bounds.
+     */
+    int storageX(int x, int y) {
+        return transposed ? mapY(y) : mapX(x);
+    }
+
+    /**
+     * Returns the storage Y coordinate of the cell. Coordinates out of bounds are mapped out of the storage bounds.
+     */
+    int storageY(int x, int y) {
+        return transposed ? mapX(x) : mapY(y);
+    }
+
+    private static <T> List<T> reversed(List<T> list, boolean reverse) {
+        if (!reverse)
+            return list;
+        var reversed = new ArrayList<>(list);
+        Collections.reverse(reversed);
+        return Collections.unmodifiableList(reversed);
+    }
+
+    @Override
+    int columns() {
+        return transposed ? storage.rows() : storage.columns();
+    }
+
+    @Override
+    int rows() {
+        return transposed ? storage.columns() : storage.rows();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return storage.get(storageX(x, y), storageY(x, y));
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return storage.set(storageX(x, y), storageY(x, y), element);
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return storage.isNull(storageX(x, y), storageY(x, y));
+    }
+
+    @Override
+    void insertRow(int y) {
+        Objects.checkIndex(y, rows() + 1);
+        int index = reversedY ? rows() - y : y;
+        if (transposed)
+            storage.insertColumn(index);
+        else
+            storage.insertRow(index);
+    }
+
+    @Override
+    void insertColumn(int x) {
+        Objects.checkIndex(x, columns() + 1);
+        int index = reversedX ? columns() - x : x;
+        if (transposed)
+            storage.insertRow(index);
+        else
+            storage.insertColumn(index);
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        int index = mapY(Objects.checkIndex(y, rows()));
+        return reversed(transposed ? storage.removeColumn(index) : storage.removeRow(index), reversedX);
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        int index = mapX(Objects.checkIndex(x, columns()));
+        return reversed(transposed ? storage.removeRow(index) : storage.removeColumn(index), reversedY);
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return storage.isParallelWritable();
+    }
+
+    @Override
+    void prepareParallelWrite() {
+        storage.prepareParallelWrite();
+    }
+
+    @Override
+    void clear() {
+        storage.clear();
+        transposed = false;
+        reversedX = false;
+        reversedY = false;
+    }
+
+    @Override
+    Content<T> copy() {
+        return new OrientedContent<>(storage.copy(), transposed, reversedX, reversedY);
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        return new OrientedContent<>(storage.map(function), transposed, reversedX, reversedY);
+    }
+
+    @Override
+    Content<T> oriented() {
+        return this;
+    }
+
+    /**
+     * Applies the transforms to the storage. A window's cells are owned by its parent matrix, so the transforms over a
+     * window are kept lazy.
+     */
+    @Override
+    Content<T> materialize() {
+        if (storage instanceof WindowContent)
+            return this;
+        var content = transposed ? storage.flip() : storage;
+        if (reversedX)
+            content.reverseX();
+        if (reversedY)
+            content.reverseY();
+        return content;
+    }
+
+    @Override
+    int lastNonNullRow() {
+        if (reversedY)
+            return super.lastNonNullRow();
+        return transposed ? storage.lastNonNullColumn() : storage.lastNonNullRow();
+    }
+
+    @Override
+    int lastNonNullColumn() {
+        if (reversedX)
+            return super.lastNonNullColumn();
+        return transposed ? storage.lastNonNullRow() : storage.lastNonNullColumn();
+    }
+
+    @Override
+    List<T> getRow(int y) {
+        int index = mapY(Objects.checkIndex(y, rows()));
+        return reversed(transposed ? storage.getColumn(index) : storage.getRow(index), reversedX);
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        int index = mapX(Objects.checkIndex(x, columns()));
+        return reversed(transposed ? storage.getRow(index) : storage.getColumn(index), reversedY);
+    }
+
+    @Override
+    Stream<T> stream() {
+        return isIdentity() ? storage.stream() : super.stream();
+    }
+
+    @Override
+    LongStream cells(Matrix.Block block) {
+        return isIdentity() ? storage.cells(block) : super.cells(block);
+    }
+
+    @Override
+    boolean isView() {
+        return storage.isView();
+    }
+
+    @Override
+    boolean contains(T element) {
+        return storage.contains(element);
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        return isIdentity() ? storage.indexOfPacked(element) : super.indexOfPacked(element);
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        return isIdentity() ? storage.lastIndexOf(element) : super.lastIndexOf(element);
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        int index1 = mapY(Objects.checkIndex(y1, rows()));
+        int index2 = mapY(Objects.checkIndex(y2, rows()));
+        if (transposed)
+            storage.swapColumns(index1, index2);
+        else
+            storage.swapRows(index1, index2);
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        int index1 = mapX(Objects.checkIndex(x1, columns()));
+        int index2 = mapX(Objects.checkIndex(x2, columns()));
+        if (transposed)
+            storage.swapRows(index1, index2);
+        else
+            storage.swapColumns(index1, index2);
+    }
+
+    @Override
+    void reverseX() {
+        reversedX = !reversedX;
+    }
+
+    @Override
+    void reverseY() {
+        reversedY = !reversedY;
+    }
+
+    @Override
+    Content<T> flip() {
+        transposed = !transposed;
+        boolean reversed = reversedX;
+        reversedX = reversedY;
+        reversedY = reversed;
+        return this;
+    }
+}
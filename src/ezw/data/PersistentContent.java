@@ -0,0 +1,152 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A content storing the cells as a persistent chunked list of persistent chunked column lists. Copying the content is
+ * constant time: Both contents continue to share all the lists and chunks, which are then copied on their first
+ * modification by either content, so that a writer only pays for the chunks it touches, and a copy is never affected by
+ * later changes of the original.
+ * @param <T> The type of elements in the matrix.
+ */
+final class PersistentContent<T> extends Content<T> {
+    private Object owner = new Object();
+    private ChunkedList<ChunkedList<T>> columns;
+    private int rows;
+
+    PersistentContent(int x, int y) {
+        columns = new ChunkedList<>(owner, 0);
+        for (int i = 0; i < x; i++) {
+            columns.add(i, new ChunkedList<>(owner, y));
+        }
+        rows = y;
+    }
+
+    private PersistentContent(ChunkedList<ChunkedList<T>> columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    private ChunkedList<T> editableColumn(int x) {
+        var column = columns.get(x);
+        if (!column.isOwnedBy(owner)) {
+            column = column.editable(owner);
+            columns = columns.editable(owner);
+            columns.set(x, column);
+        }
+        return column;
+    }
+
+    @Override
+    int columns() {
+        return columns.size();
+    }
+
+    @Override
+    int rows() {
+        return rows;
+    }
+
+    @Override
+    T get(int x, int y) {
+        return columns.get(x).get(y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return editableColumn(x).set(y, element);
+    }
+
+    @Override
+    void insertRow(int y) {
+        for (int x = 0; x < columns(); x++) {
+            editableColumn(x).add(y, null);
+        }
+        rows++;
+    }
+
+    @Override
+    void insertColumn(int x) {
+        columns = columns.editable(owner);
+        columns.add(x, new ChunkedList<>(owner, rows));
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        List<T> row = new ArrayList<>(columns());
+        for (int x = 0; x < columns(); x++) {
+            row.add(editableColumn(x).remove(y));
+        }
+        rows--;
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        columns = columns.editable(owner);
+        return columns.remove(x).toList();
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return true;
+    }
+
+    /**
+     * Takes ownership of all the lists and chunks, so that different cells may be set concurrently without path
+     * copying.
+     */
+    @Override
+    void prepareParallelWrite() {
+        for (int x = 0; x < columns(); x++) {
+            editableColumn(x).own();
+        }
+    }
+
+    @Override
+    void clear() {
+        columns = new ChunkedList<>(owner, 0);
+        rows = 0;
+    }
+
+    /**
+     * Returns a copy sharing all the lists and chunks with this content, in constant time. Both contents give up the
+     * ownership of the shared lists and chunks, copying them on their first modification.
+     */
+    @Override
+    Content<T> copy() {
+        owner = new Object();
+        return new PersistentContent<>(columns, rows);
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        var mapped = new PersistentContent<O>(columns(), rows);
+        forEach((x, y) -> mapped.set(x, y, function.apply(get(x, y))));
+        return mapped;
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return Collections.unmodifiableList(columns.get(x).toList());
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        Objects.checkIndex(x1, columns());
+        Objects.checkIndex(x2, columns());
+        columns = columns.editable(owner);
+        columns.set(x1, columns.set(x2, columns.get(x1)));
+    }
+
+    @Override
+    Content<T> flip() {
+        var flipped = new PersistentContent<T>(rows, columns());
+        forEach((x, y) -> flipped.set(y, x, get(x, y)));
+        return flipped;
+    }
+}
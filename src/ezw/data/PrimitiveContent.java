@@ -0,0 +1,132 @@
+package ezw.data;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A content storing the cells in one contiguous primitive array. Null cells are not supported: Cells added by
+ * structural changes are zero, setting null stores zero, and zero cells are considered null for packing purposes.
+ * @param <T> The boxed type of elements in the matrix.
+ */
+abstract class PrimitiveContent<T> extends Content<T> {
+    FlatGrid grid;
+
+    PrimitiveContent(IntFunction<Object> allocator, Matrix.Order order, int x, int y) {
+        this(new FlatGrid(allocator, Objects.requireNonNull(order, "Order is null.") == Matrix.Order.ROW_MAJOR, x, y));
+    }
+
+    PrimitiveContent(FlatGrid grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Returns the boxed cell at the array index.
+     */
+    abstract T get(int index);
+
+    /**
+     * Updates the cell at the array index, storing zero if the element is null.
+     * @return The replaced element.
+     */
+    abstract T set(int index, T element);
+
+    /**
+     * Reads the cells from the array index on, big-endian, in bulk from the buffer, advancing its position.
+     */
+    abstract void read(ByteBuffer buffer, int index, int count);
+
+    /**
+     * Returns true if the cell at the array index is zero.
+     */
+    abstract boolean isZero(int index);
+
+    /**
+     * Returns a new content of the same type over the grid.
+     */
+    abstract PrimitiveContent<T> create(FlatGrid grid);
+
+    @Override
+    int columns() {
+        return grid.columns();
+    }
+
+    @Override
+    int rows() {
+        return grid.rows();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return get(grid.index(x, y));
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return set(grid.index(x, y), element);
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return isZero(grid.index(x, y));
+    }
+
+    @Override
+    void insertRow(int y) {
+        grid.insertRow(y);
+    }
+
+    @Override
+    void insertColumn(int x) {
+        grid.insertColumn(x);
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        var row = getRow(y);
+        grid.removeRow(y);
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        var column = new ArrayList<>(getColumn(x));
+        grid.removeColumn(x);
+        return column;
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return true;
+    }
+
+    @Override
+    void clear() {
+        grid.clear();
+    }
+
+    @Override
+    Content<T> copy() {
+        return create(grid.copy());
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        grid.swapRows(y1, y2);
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        grid.swapColumns(x1, x2);
+    }
+
+    @Override
+    Content<T> flip() {
+        var flipped = grid.create(rows(), columns());
+        forEach((x, y) -> grid.copyCell(x, y, flipped, y, x));
+        grid = flipped;
+        return this;
+    }
+}
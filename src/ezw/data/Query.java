@@ -0,0 +1,516 @@
+package ezw.data;
+
+import ezw.function.Reducer;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A query over the rows of a matrix, optionally treating the first row as headers. Queries are immutable: Every
+ * condition, projection and ordering returns a new query, and the rows are read only by the terminal operations.
+ * Columns are always referred to by their index in the matrix, also after projection, and may be resolved by header.
+ * Filtering and projection are lazy, reading row by row; Ordering collects the matching rows and sorts them in
+ * parallel. Hash and sorted indexes may be created on columns, letting equality and range conditions skip the full
+ * scan. The indexes are shared by the queries derived from the same query, and are kept up to date by a matrix listener
+ * until they are dropped: Cell updates and row swaps update the indexes of the affected columns in O(log n), while
+ * other structural changes make the affected indexes rebuild lazily on their next lookup.
+ * @param <T> The type of elements in the matrix.
+ */
+public final class Query<T> {
+    private final Source<T> source;
+    private final List<Condition<T>> conditions;
+    private final int[] columns;
+    private final Comparator<List<T>> order;
+
+    private Query(Source<T> source, List<Condition<T>> conditions, int[] columns, Comparator<List<T>> order) {
+        this.source = source;
+        this.conditions = conditions;
+        this.columns = columns;
+        this.order = order;
+    }
+
+    /**
+     * Returns a query of all the rows of the matrix.
+     * @param matrix The matrix.
+     * @param headers True if the first row of the matrix contains the column headers, false if all rows are data.
+     * @param <T> The type of elements in the matrix.
+     * @return The query.
+     */
+    public static <T> Query<T> of(Matrix<T> matrix, boolean headers) {
+        var source = new Source<>(Objects.requireNonNull(matrix, "Matrix is null."), headers);
+        return new Query<>(source, List.of(), null, null);
+    }
+
+    /**
+     * Returns the matrix.
+     */
+    public Matrix<T> getMatrix() {
+        return source.matrix;
+    }
+
+    /**
+     * Returns the index of the column having the header.
+     * @throws IllegalStateException If the query has no headers.
+     * @throws IllegalArgumentException If no column has the header.
+     */
+    public int column(T header) {
+        if (!source.headers)
+            throw new IllegalStateException("Query has no headers.");
+        int x = source.matrix.isEmpty() ? -1 : source.matrix.getRow(0).indexOf(header);
+        if (x < 0)
+            throw new IllegalArgumentException("No column has the header " + header + ".");
+        return x;
+    }
+
+    /**
+     * Returns the indexes of the columns having the headers.
+     * @throws IllegalStateException If the query has no headers.
+     * @throws IllegalArgumentException If no column has one of the headers.
+     */
+    @SafeVarargs
+    public final int[] columns(T... headers) {
+        int[] columns = new int[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            columns[i] = column(headers[i]);
+        }
+        return columns;
+    }
+
+    /**
+     * Returns a query of the rows of this query whose cell in the column matches the condition.
+     * @throws IndexOutOfBoundsException If the column is out of bounds.
+     */
+    public Query<T> where(int column, Predicate<T> condition) {
+        Objects.requireNonNull(condition, "Condition is null.");
+        return where(new Condition<>(checkColumn(column), condition, null));
+    }
+
+    /**
+     * Returns a query of the rows of this query whose cell in the column equals the value. Served by a hash or sorted
+     * index of the column if exists.
+     * @throws IndexOutOfBoundsException If the column is out of bounds.
+     */
+    public Query<T> whereEquals(int column, T value) {
+        return where(new Condition<>(checkColumn(column), cell -> Objects.equals(cell, value),
+                index -> value == null ? null : index.equal(value)));
+    }
+
+    /**
+     * Returns a query of the rows of this query whose cell in the column is non-null, and is from the first value
+     * inclusive to the second exclusive by the comparator. Served by a sorted index of the column by an equal
+     * comparator if exists.
+     * @throws IndexOutOfBoundsException If the column is out of bounds.
+     */
+    public Query<T> whereBetween(int column, T from, T to, Comparator<T> comparator) {
+        Objects.requireNonNull(from, "From is null.");
+        Objects.requireNonNull(to, "To is null.");
+        Objects.requireNonNull(comparator, "Comparator is null.");
+        return where(new Condition<>(checkColumn(column), cell -> cell != null &&
+                comparator.compare(from, cell) <= 0 && comparator.compare(cell, to) < 0,
+                index -> index.between(from, to, comparator)));
+    }
+
+    private Query<T> where(Condition<T> condition) {
+        List<Condition<T>> conditions = new ArrayList<>(this.conditions);
+        conditions.add(condition);
+        return new Query<>(source, List.copyOf(conditions), columns, order);
+    }
+
+    /**
+     * Returns a query of the specified columns of the rows of this query, in the specified order.
+     * @throws IndexOutOfBoundsException If a column is out of bounds.
+     * @throws IllegalArgumentException If no columns are specified.
+     */
+    public Query<T> select(int... columns) {
+        if (columns.length == 0)
+            throw new IllegalArgumentException("No columns selected.");
+        Arrays.stream(columns).forEach(this::checkColumn);
+        return new Query<>(source, conditions, columns.clone(), order);
+    }
+
+    /**
+     * Returns a query of the rows of this query ordered by the columns, compared by the comparator one after the other.
+     * Nulls are ordered first. Replaces the previous order if any. The sort is stable.
+     * @throws IndexOutOfBoundsException If a column is out of bounds.
+     * @throws IllegalArgumentException If no columns are specified.
+     */
+    public Query<T> orderBy(Comparator<T> comparator, int... columns) {
+        Objects.requireNonNull(comparator, "Comparator is null.");
+        if (columns.length == 0)
+            throw new IllegalArgumentException("No columns to order by.");
+        Comparator<List<T>> order = null;
+        for (int column : columns) {
+            checkColumn(column);
+            Comparator<List<T>> next = Comparator.comparing(row -> row.get(column), Comparator.nullsFirst(comparator));
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return new Query<>(source, conditions, this.columns, order);
+    }
+
+    /**
+     * Creates a hash index of the column if not indexed yet, serving equality conditions. Views are not indexable, as
+     * changes made directly in their parent matrix are not observed.
+     * @return This query.
+     * @throws IndexOutOfBoundsException If the column is out of bounds.
+     * @throws UnsupportedOperationException If the matrix is a view.
+     */
+    public Query<T> hashIndex(int column) {
+        source.index(checkColumn(column), null);
+        return this;
+    }
+
+    /**
+     * Creates a sorted index of the column by the comparator if not indexed yet, serving equality conditions, and range
+     * conditions by an equal comparator. Views are not indexable, as changes made directly in their parent matrix are
+     * not observed.
+     * @return This query.
+     * @throws IndexOutOfBoundsException If the column is out of bounds.
+     * @throws UnsupportedOperationException If the matrix is a view.
+     */
+    public Query<T> sortedIndex(int column, Comparator<T> comparator) {
+        source.index(checkColumn(column), Objects.requireNonNull(comparator, "Comparator is null."));
+        return this;
+    }
+
+    /**
+     * Drops the indexes of the matrix, shared by all queries derived from the same query, and stops observing the
+     * matrix for changes.
+     */
+    public void dropIndexes() {
+        source.dropIndexes();
+    }
+
+    /**
+     * Returns the rows of the query, projected, as a stream of unmodifiable lists. The stream is lazy unless ordered.
+     */
+    public Stream<List<T>> stream() {
+        return rows().map(this::project);
+    }
+
+    /**
+     * Returns the rows of the query, not projected.
+     */
+    Stream<List<T>> rows() {
+        var rows = rowIndexes().mapToObj(y -> source.matrix.getRow(y));
+        for (var condition : conditions) {
+            rows = rows.filter(row -> condition.predicate.test(row.get(condition.column)));
+        }
+        if (order != null) {
+            @SuppressWarnings("unchecked")
+            List<T>[] sorted = rows.toArray(List[]::new);
+            Arrays.parallelSort(sorted, order);
+            rows = Arrays.stream(sorted);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the rows of the query, projected, as a list of unmodifiable lists.
+     */
+    public List<List<T>> toList() {
+        return stream().toList();
+    }
+
+    /**
+     * Returns the number of rows of the query.
+     */
+    public long count() {
+        return new Query<>(source, conditions, columns, null).stream().count();
+    }
+
+    /**
+     * Returns a new matrix of the rows of the query, projected, preceded by the projected headers if the query has
+     * headers.
+     */
+    public Matrix<T> toMatrix() {
+        List<List<T>> rows = new ArrayList<>();
+        var headers = headers();
+        if (headers != null)
+            rows.add(headers);
+        stream().forEach(rows::add);
+        return matrix(rows, width());
+    }
+
+    /**
+     * Returns the projected headers, or null if the query has no headers.
+     */
+    List<T> headers() {
+        return source.headers && !source.matrix.isEmpty() ? project(source.matrix.getRow(0)) : null;
+    }
+
+    /**
+     * Returns the number of projected columns.
+     */
+    int width() {
+        return columns == null ? source.matrix.size().getX() : columns.length;
+    }
+
+    /**
+     * Returns the number of rows of the matrix, excluding the headers, as an upper bound of the rows of the query.
+     */
+    int maxRows() {
+        return Math.max(0, source.matrix.size().getY() - (source.headers ? 1 : 0));
+    }
+
+    /**
+     * Groups the rows of the query by the key columns, and aggregates the cells of each group in the aggregate columns
+     * by the reducers. Returns a query of a new matrix having a row per group, in the order of first occurrence,
+     * containing the key cells followed by the aggregates. If this query has headers, so does the new one: The headers
+     * of the key and aggregate columns.
+     * @param keys The key columns.
+     * @param aggregates The aggregates.
+     * @return The query of the groups.
+     * @throws IndexOutOfBoundsException If a column is out of bounds.
+     */
+    @SafeVarargs
+    public final Query<T> groupBy(int[] keys, Aggregate<T>... aggregates) {
+        List<Aggregate<T>> list = new ArrayList<>(aggregates.length);
+        for (var aggregate : aggregates) {
+            list.add(aggregate);
+        }
+        return groupBy(keys, list);
+    }
+
+    private Query<T> groupBy(int[] keys, List<Aggregate<T>> aggregates) {
+        Arrays.stream(keys).forEach(this::checkColumn);
+        aggregates.forEach(aggregate -> checkColumn(aggregate.column));
+        Map<List<T>, List<List<T>>> groups = new LinkedHashMap<>();
+        rows().forEach(row -> groups.computeIfAbsent(Arrays.stream(keys).mapToObj(row::get).toList(),
+                k -> new ArrayList<>()).add(row));
+        List<List<T>> rows = new ArrayList<>();
+        if (source.headers && !source.matrix.isEmpty()) {
+            var headers = source.matrix.getRow(0);
+            rows.add(Stream.concat(Arrays.stream(keys).mapToObj(headers::get),
+                    aggregates.stream().map(aggregate -> headers.get(aggregate.column))).toList());
+        }
+        groups.forEach((key, group) -> {
+            List<T> row = new ArrayList<>(key);
+            for (var aggregate : aggregates) {
+                List<T> cells = new ArrayList<>(group.size());
+                group.forEach(member -> cells.add(member.get(aggregate.column)));
+                row.add(aggregate.reducer.apply(cells));
+            }
+            rows.add(row);
+        });
+        return of(matrix(rows, keys.length + aggregates.size()), source.headers);
+    }
+
+    int checkColumn(int column) {
+        return Objects.checkIndex(column, source.matrix.size().getX());
+    }
+
+    private IntStream rowIndexes() {
+        int first = source.headers ? 1 : 0;
+        for (var condition : conditions) {
+            if (condition.lookup == null)
+                continue;
+            var rows = source.lookup(condition);
+            if (rows != null)
+                return Arrays.stream(rows);
+        }
+        return IntStream.range(Math.min(first, source.matrix.size().getY()), source.matrix.size().getY());
+    }
+
+    List<T> project(List<T> row) {
+        if (columns == null)
+            return row;
+        List<T> projected = new ArrayList<>(columns.length);
+        for (int column : columns) {
+            projected.add(row.get(column));
+        }
+        return Collections.unmodifiableList(projected);
+    }
+
+    static <T> Matrix<T> matrix(List<List<T>> rows, int columns) {
+        if (rows.isEmpty() || columns == 0)
+            return new Matrix<>();
+        var matrix = new Matrix<T>(columns, rows.size());
+        for (int y = 0; y < rows.size(); y++) {
+            for (int x = 0; x < columns; x++) {
+                matrix.set(x, y, rows.get(y).get(x));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * An aggregate of the cells of a column in a group of rows.
+     * @param column The column.
+     * @param reducer The reducer of the group's cells in the column.
+     * @param <T> The type of elements in the matrix.
+     */
+    public record Aggregate<T>(int column, Reducer<T> reducer) {
+
+        public Aggregate {
+            Objects.requireNonNull(reducer, "Reducer is null.");
+        }
+
+        /**
+         * Returns an aggregate of the column by the reducer.
+         */
+        public static <T> Aggregate<T> of(int column, Reducer<T> reducer) {
+            return new Aggregate<>(column, reducer);
+        }
+    }
+
+    /**
+     * A condition on the cells of a column, optionally served by an index: The lookup returns the ascending indexes of
+     * the rows that may match, or null if the index can't serve the condition.
+     */
+    private record Condition<T>(int column, Predicate<T> predicate, Lookup<T> lookup) {}
+
+    private interface Lookup<T> {
+
+        int[] apply(Index<T> index);
+    }
+
+    /**
+     * The matrix of a query and the queries derived from it, and the indexes of its columns.
+     */
+    private static final class Source<T> {
+        private final Matrix<T> matrix;
+        private final boolean headers;
+        private final Map<Integer, Index<T>> indexes = new HashMap<>();
+        private final Consumer<MatrixDelta.Change<T>> listener = this::update;
+
+        private Source(Matrix<T> matrix, boolean headers) {
+            this.matrix = matrix;
+            this.headers = headers;
+        }
+
+        private synchronized void index(int column, Comparator<T> comparator) {
+            if (matrix.isView())
+                throw new UnsupportedOperationException("Matrix views can't be indexed.");
+            if (indexes.isEmpty())
+                matrix.addListener(listener);
+            indexes.putIfAbsent(column, new Index<>(column, comparator));
+        }
+
+        private synchronized void update(MatrixDelta.Change<T> change) {
+            int first = headers ? 1 : 0;
+            switch (change.type()) {
+                case SET -> {
+                    var index = indexes.get(change.first());
+                    if (index != null && index.rows != null && change.second() >= first)
+                        index.set(change.second(), change.element());
+                }
+                case SWAP_ROWS -> {
+                    boolean data = Math.min(change.first(), change.second()) >= first;
+                    indexes.values().stream().filter(index -> index.rows != null).forEach(index -> {
+                        if (data)
+                            index.swap(change.first(), change.second());
+                        else
+                            index.rows = null;
+                    });
+                }
+                case SWAP_COLUMNS -> {
+                    invalidate(change.first());
+                    invalidate(change.second());
+                }
+                default -> indexes.values().forEach(index -> index.rows = null);
+            }
+        }
+
+        private void invalidate(int column) {
+            var index = indexes.get(column);
+            if (index != null)
+                index.rows = null;
+        }
+
+        private synchronized void dropIndexes() {
+            indexes.clear();
+            matrix.removeListener(listener);
+        }
+
+        private synchronized int[] lookup(Condition<T> condition) {
+            var index = indexes.get(condition.column);
+            if (index == null)
+                return null;
+            if (index.rows == null)
+                index.build(matrix, headers ? 1 : 0);
+            return condition.lookup.apply(index);
+        }
+    }
+
+    /**
+     * An index of the non-null cells of a column to the ascending indexes of their rows, hashed if no comparator, else
+     * sorted. Holds a copy of the indexed cells, so that an updated cell is found under its previous value.
+     */
+    private static final class Index<T> {
+        private final int column;
+        private final Comparator<T> comparator;
+        private int first;
+        private List<T> cells;
+        private Map<T, List<Integer>> rows;
+
+        private Index(int column, Comparator<T> comparator) {
+            this.column = column;
+            this.comparator = comparator;
+        }
+
+        private void build(Matrix<T> matrix, int first) {
+            this.first = first;
+            cells = new ArrayList<>();
+            rows = comparator == null ? new HashMap<>() : new TreeMap<>(comparator);
+            if (column >= matrix.size().getX())
+                return;
+            for (int y = first; y < matrix.size().getY(); y++) {
+                T cell = matrix.get(column, y);
+                cells.add(cell);
+                if (cell != null)
+                    rows.computeIfAbsent(cell, k -> new ArrayList<>()).add(y);
+            }
+        }
+
+        private void set(int y, T cell) {
+            if (y - first >= cells.size()) {
+                rows = null;
+                return;
+            }
+            remove(cells.set(y - first, cell), y);
+            add(cell, y);
+        }
+
+        private void swap(int y1, int y2) {
+            if (Math.max(y1, y2) - first >= cells.size()) {
+                rows = null;
+                return;
+            }
+            T cell1 = cells.get(y1 - first);
+            set(y1, cells.get(y2 - first));
+            set(y2, cell1);
+        }
+
+        private void add(T cell, int y) {
+            if (cell == null)
+                return;
+            var list = rows.computeIfAbsent(cell, k -> new ArrayList<>());
+            list.add(-Collections.binarySearch(list, y) - 1, y);
+        }
+
+        private void remove(T cell, int y) {
+            if (cell == null)
+                return;
+            var list = rows.get(cell);
+            list.remove(Collections.binarySearch(list, y));
+            if (list.isEmpty())
+                rows.remove(cell);
+        }
+
+        private int[] equal(T value) {
+            return rows.getOrDefault(value, List.of()).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int[] between(T from, T to, Comparator<T> comparator) {
+            if (!comparator.equals(this.comparator))
+                return null;
+            if (comparator.compare(from, to) >= 0)
+                return new int[0];
+            return ((TreeMap<T, List<Integer>>) rows).subMap(from, to).values().stream().flatMap(List::stream)
+                    .mapToInt(Integer::intValue).sorted().toArray();
+        }
+    }
+}
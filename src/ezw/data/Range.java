@@ -1,7 +1,15 @@
 package ezw.data;
 
+import ezw.Sugar;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -62,7 +70,18 @@ public final class Range extends Couple<Integer> {
      * range is empty, returns an empty stream.
      */
     public Stream<Integer> stream() {
-        return Stream.iterate(getFrom(), i -> i != getTo(), i -> i + signum());
+        return intStream().boxed();
+    }
+
+    /**
+     * Returns an unboxed stream of the range values, from <code>from</code> (inclusive) to <code>to</code> (exclusive).
+     * If the range is empty, returns an empty stream. The stream is sized and splits evenly, in both directions.
+     */
+    public IntStream intStream() {
+        int from = getFrom();
+        if (signum() == -1)
+            return IntStream.range(0, -size()).map(i -> from - i);
+        return IntStream.range(from, getTo());
     }
 
     /**
@@ -76,4 +95,107 @@ public final class Range extends Couple<Integer> {
         Objects.requireNonNull(action, "Action is null.");
         stream().forEach(action);
     }
+
+    /**
+     * Splits the range into consecutive sub-ranges of the same direction, differing in size by at most 1, the larger
+     * first. If the range has fewer values than the parts, returns a sub-range per value. If the range is empty,
+     * returns an empty list.
+     * @param parts The maximal number of sub-ranges.
+     * @return The sub-ranges in order.
+     * @throws IllegalArgumentException If the parts number is not positive.
+     */
+    public List<Range> split(int parts) {
+        Sugar.requireRange(parts, 1, null);
+        int size = Math.abs(size());
+        int count = Math.min(parts, size);
+        List<Range> split = new ArrayList<>(count);
+        for (int i = 0, from = getFrom(); i < count; i++) {
+            int partSize = size / count + (i < size % count ? 1 : 0);
+            split.add(Range.of(from, from += signum() * partSize));
+        }
+        return split;
+    }
+
+    /**
+     * Splits the range into consecutive sub-ranges of the same direction and of the size provided, where the last may
+     * be smaller. If the range is empty, returns an empty list.
+     * @param size The sub-ranges size.
+     * @return The sub-ranges in order.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public List<Range> chunks(int size) {
+        Sugar.requireRange(size, 1, null);
+        int values = Math.abs(size());
+        List<Range> chunks = new ArrayList<>(values / size + 1);
+        for (int offset = 0; offset < values; offset += size) {
+            int from = getFrom() + signum() * offset;
+            chunks.add(Range.of(from, from + signum() * Math.min(size, values - offset)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Performs an action for each value in this range in parallel on the common fork-join pool, returning when all
+     * values are processed. Equivalent to:
+     * <pre>
+     * parallelForEach(action, ForkJoinPool.commonPool())
+     * </pre>
+     */
+    public void parallelForEach(IntConsumer action) {
+        parallelForEach(action, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs an action for each value in this range in parallel on the pool provided, returning when all values are
+     * processed. The range is split in halves while the pool has few queued tasks, down to a grain of a fraction of
+     * the range per pool thread, so that idle threads steal the large chunks and busy pools stop splitting early. The
+     * values are processed in no particular order.
+     * @param action The action to perform on each value.
+     * @param pool The fork-join pool.
+     * @throws RuntimeException If the action throws a runtime exception.
+     */
+    public void parallelForEach(IntConsumer action, ForkJoinPool pool) {
+        Objects.requireNonNull(action, "Action is null.");
+        Objects.requireNonNull(pool, "Pool is null.");
+        int size = Math.abs(size());
+        if (size == 0)
+            return;
+        int grain = Math.max(1, size / (pool.getParallelism() * 8));
+        pool.invoke(new ForEachTask(action, getFrom(), signum(), 0, size, grain));
+    }
+
+    /**
+     * Performs the action for the values at the offsets of a chunk, splitting it in halves while large and needed.
+     */
+    @SuppressWarnings("serial")
+    private static final class ForEachTask extends RecursiveAction {
+        private final IntConsumer action;
+        private final int from;
+        private final int step;
+        private final int fromOffset;
+        private final int toOffset;
+        private final int grain;
+
+        private ForEachTask(IntConsumer action, int from, int step, int fromOffset, int toOffset, int grain) {
+            this.action = action;
+            this.from = from;
+            this.step = step;
+            this.fromOffset = fromOffset;
+            this.toOffset = toOffset;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (toOffset - fromOffset > grain && getSurplusQueuedTaskCount() <= 3) {
+                int middle = (fromOffset + toOffset) >>> 1;
+                invokeAll(new ForEachTask(action, from, step, fromOffset, middle, grain),
+                        new ForEachTask(action, from, step, middle, toOffset, grain));
+                return;
+            }
+            for (int offset = fromOffset; offset < toOffset; offset++) {
+                action.accept(from + step * offset);
+            }
+        }
+    }
 }
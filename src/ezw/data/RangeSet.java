@@ -0,0 +1,331 @@
+package ezw.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * A set of integers held as disjoint ranges, coalesced so that no two ranges overlap or touch. The ranges are kept in
+ * sorted arrays of their bounds: Point and overlap queries are binary searches costing O(log n) in the number of
+ * ranges, adding or removing a range costs O(log n) plus shifting the ranges after it, and the set operations merge
+ * both sets in O(n + m). Not thread safe.
+ */
+public final class RangeSet {
+    private int[] froms;
+    private int[] tos;
+    private int count;
+
+    /**
+     * Constructs an empty set.
+     */
+    public RangeSet() {
+        this(new int[8], new int[8], 0);
+    }
+
+    private RangeSet(int[] froms, int[] tos, int count) {
+        this.froms = froms;
+        this.tos = tos;
+        this.count = count;
+    }
+
+    /**
+     * Returns a new set of the values of the ranges.
+     */
+    public static RangeSet of(IntRange... ranges) {
+        var set = new RangeSet();
+        for (var range : ranges) {
+            set.add(range);
+        }
+        return set;
+    }
+
+    /**
+     * Returns an independent copy of this set.
+     */
+    public RangeSet copy() {
+        return new RangeSet(Arrays.copyOf(froms, Math.max(count, 8)), Arrays.copyOf(tos, Math.max(count, 8)), count);
+    }
+
+    /**
+     * Returns the number of disjoint ranges in the set.
+     */
+    public int rangeCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of values in the set.
+     */
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < count; i++) {
+            size += (long) tos[i] - froms[i];
+        }
+        return size;
+    }
+
+    /**
+     * Returns true if the set has no values.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Returns the index of the first range ending after the value, or the count if none.
+     */
+    private int endingAfter(int value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (tos[middle] > value)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first range starting after the value, or the count if none.
+     */
+    private int startingAfter(int value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (froms[middle] > value)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Replaces the ranges from index i (inclusive) to j (exclusive) by the ranges provided as bound pairs.
+     */
+    private void replace(int i, int j, int... bounds) {
+        int added = bounds.length / 2;
+        int newCount = count - (j - i) + added;
+        if (newCount > froms.length) {
+            int capacity = Math.max(newCount, froms.length + (froms.length >> 1));
+            froms = Arrays.copyOf(froms, capacity);
+            tos = Arrays.copyOf(tos, capacity);
+        }
+        System.arraycopy(froms, j, froms, i + added, count - j);
+        System.arraycopy(tos, j, tos, i + added, count - j);
+        for (int k = 0; k < added; k++) {
+            froms[i + k] = bounds[2 * k];
+            tos[i + k] = bounds[2 * k + 1];
+        }
+        count = newCount;
+    }
+
+    /**
+     * Adds the values of the range, coalescing it with the ranges it overlaps or touches.
+     */
+    public void add(IntRange range) {
+        Objects.requireNonNull(range, "Range is null.");
+        if (range.isEmpty())
+            return;
+        int i = range.getFrom() == Integer.MIN_VALUE ? 0 : endingAfter(range.getFrom() - 1);
+        int j = startingAfter(range.getTo());
+        if (i == j) {
+            replace(i, i, range.getFrom(), range.getTo());
+            return;
+        }
+        replace(i, j, Math.min(range.getFrom(), froms[i]), Math.max(range.getTo(), tos[j - 1]));
+    }
+
+    /**
+     * Removes the values of the range, trimming or splitting the ranges it overlaps.
+     */
+    public void remove(IntRange range) {
+        Objects.requireNonNull(range, "Range is null.");
+        if (range.isEmpty())
+            return;
+        int i = endingAfter(range.getFrom());
+        int j = startingAfter(range.getTo() - 1);
+        if (i >= j)
+            return;
+        boolean left = froms[i] < range.getFrom();
+        boolean right = tos[j - 1] > range.getTo();
+        if (left && right)
+            replace(i, j, froms[i], range.getFrom(), range.getTo(), tos[j - 1]);
+        else if (left)
+            replace(i, j, froms[i], range.getFrom());
+        else if (right)
+            replace(i, j, range.getTo(), tos[j - 1]);
+        else
+            replace(i, j);
+    }
+
+    /**
+     * Returns true if the set contains the value. Costs O(log n).
+     */
+    public boolean contains(int value) {
+        int i = endingAfter(value);
+        return i < count && froms[i] <= value;
+    }
+
+    /**
+     * Returns true if the set contains all values of the range. Costs O(log n).
+     */
+    public boolean contains(IntRange range) {
+        if (range.isEmpty())
+            return true;
+        int i = endingAfter(range.getFrom());
+        return i < count && froms[i] <= range.getFrom() && tos[i] >= range.getTo();
+    }
+
+    /**
+     * Returns true if the set contains any value of the range. Costs O(log n).
+     */
+    public boolean overlaps(IntRange range) {
+        if (range.isEmpty())
+            return false;
+        int i = endingAfter(range.getFrom());
+        return i < count && froms[i] < range.getTo();
+    }
+
+    /**
+     * Returns the range of the set containing the value, or null if not found. Costs O(log n).
+     */
+    public IntRange rangeOf(int value) {
+        int i = endingAfter(value);
+        return i < count && froms[i] <= value ? range(i) : null;
+    }
+
+    /**
+     * Returns the ranges of the set overlapping the range, in ascending order. Costs O(log n + k) in the number of
+     * overlapping ranges.
+     */
+    public List<IntRange> overlapping(IntRange range) {
+        if (range.isEmpty())
+            return List.of();
+        List<IntRange> overlapping = new ArrayList<>();
+        for (int i = endingAfter(range.getFrom()); i < count && froms[i] < range.getTo(); i++) {
+            overlapping.add(range(i));
+        }
+        return overlapping;
+    }
+
+    private IntRange range(int i) {
+        return IntRange.of(froms[i], tos[i]);
+    }
+
+    /**
+     * Returns the disjoint ranges of the set in ascending order.
+     */
+    public List<IntRange> ranges() {
+        return IntStream.range(0, count).mapToObj(this::range).toList();
+    }
+
+    /**
+     * Returns a stream of the values of the set in ascending order.
+     */
+    public IntStream intStream() {
+        return IntStream.range(0, count).flatMap(i -> IntStream.range(froms[i], tos[i]));
+    }
+
+    /**
+     * Returns a new set of the values in this set or in the other.
+     */
+    public RangeSet union(RangeSet other) {
+        Objects.requireNonNull(other, "Other set is null.");
+        var union = new RangeSet(new int[Math.max(count + other.count, 8)], new int[Math.max(count + other.count, 8)],
+                0);
+        for (int i = 0, j = 0; i < count || j < other.count; ) {
+            boolean mine = j == other.count || (i < count && froms[i] <= other.froms[j]);
+            int from = mine ? froms[i] : other.froms[j];
+            int to = mine ? tos[i++] : other.tos[j++];
+            if (union.count > 0 && from <= union.tos[union.count - 1])
+                union.tos[union.count - 1] = Math.max(union.tos[union.count - 1], to);
+            else
+                union.append(from, to);
+        }
+        return union;
+    }
+
+    /**
+     * Returns a new set of the values in both this set and the other.
+     */
+    public RangeSet intersection(RangeSet other) {
+        Objects.requireNonNull(other, "Other set is null.");
+        var intersection = new RangeSet();
+        for (int i = 0, j = 0; i < count && j < other.count; ) {
+            int from = Math.max(froms[i], other.froms[j]);
+            int to = Math.min(tos[i], other.tos[j]);
+            if (from < to)
+                intersection.append(from, to);
+            if (tos[i] < other.tos[j])
+                i++;
+            else
+                j++;
+        }
+        return intersection;
+    }
+
+    /**
+     * Returns a new set of the values in this set that are not in the other.
+     */
+    public RangeSet subtract(RangeSet other) {
+        Objects.requireNonNull(other, "Other set is null.");
+        var difference = new RangeSet();
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            int from = froms[i];
+            while (j < other.count && other.tos[j] <= from) {
+                j++;
+            }
+            for (int k = j; k < other.count && other.froms[k] < tos[i]; k++) {
+                if (other.froms[k] > from)
+                    difference.append(from, other.froms[k]);
+                from = Math.max(from, other.tos[k]);
+            }
+            if (from < tos[i])
+                difference.append(from, tos[i]);
+        }
+        return difference;
+    }
+
+    private void append(int from, int to) {
+        replace(count, count, from, to);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        RangeSet set = (RangeSet) o;
+        return count == set.count && Arrays.equals(froms, 0, count, set.froms, 0, count) &&
+                Arrays.equals(tos, 0, count, set.tos, 0, count);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < count; i++) {
+            hash = 31 * (31 * hash + froms[i]) + tos[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return ranges().toString();
+    }
+}
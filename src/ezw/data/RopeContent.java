@@ -0,0 +1,144 @@
+package ezw.data;
+
+import ezw.Sugar;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A content storing the cells in physical columns of physical rows, which are never moved. The positions of the rows
+ * and the columns are mapped to the physical ones by an axis index each, so that inserting, removing, swapping and
+ * reversing rows and columns only updates the axis index, and reuses the physical slots of the removed ones.
+ * @param <T> The type of elements in the matrix.
+ */
+final class RopeContent<T> extends Content<T> {
+    private final AxisIndex columnIndex = new AxisIndex();
+    private final AxisIndex rowIndex = new AxisIndex();
+    private final List<List<T>> physicalColumns = new ArrayList<>();
+    private final Deque<Integer> freeColumns = new ArrayDeque<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private int physicalRows;
+
+    RopeContent(int x, int y) {
+        Sugar.repeat(y, () -> insertRow(rows()));
+        Sugar.repeat(x, () -> insertColumn(columns()));
+    }
+
+    @Override
+    int columns() {
+        return columnIndex.size();
+    }
+
+    @Override
+    int rows() {
+        return rowIndex.size();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return physicalColumns.get(columnIndex.get(x)).get(rowIndex.get(y));
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return physicalColumns.get(columnIndex.get(x)).set(rowIndex.get(y), element);
+    }
+
+    @Override
+    void insertRow(int y) {
+        if (freeRows.isEmpty()) {
+            physicalColumns.forEach(column -> column.add(null));
+            freeRows.push(physicalRows++);
+        }
+        rowIndex.add(y, freeRows.pop());
+    }
+
+    @Override
+    void insertColumn(int x) {
+        if (freeColumns.isEmpty()) {
+            physicalColumns.add(Sugar.fill(physicalRows));
+            freeColumns.push(physicalColumns.size() - 1);
+        }
+        columnIndex.add(x, freeColumns.pop());
+    }
+
+    /**
+     * Removes the row, clearing its physical row for reuse.
+     */
+    @Override
+    List<T> removeRow(int y) {
+        int id = rowIndex.remove(y);
+        List<T> row = new ArrayList<>(columns());
+        for (int x = 0; x < columns(); x++) {
+            row.add(physicalColumns.get(columnIndex.get(x)).set(id, null));
+        }
+        freeRows.push(id);
+        return row;
+    }
+
+    /**
+     * Removes the column, clearing its physical column for reuse.
+     */
+    @Override
+    List<T> removeColumn(int x) {
+        int id = columnIndex.remove(x);
+        var physicalColumn = physicalColumns.get(id);
+        List<T> column = new ArrayList<>(rows());
+        for (int y = 0; y < rows(); y++) {
+            column.add(physicalColumn.set(rowIndex.get(y), null));
+        }
+        freeColumns.push(id);
+        return column;
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return true;
+    }
+
+    @Override
+    void clear() {
+        columnIndex.clear();
+        rowIndex.clear();
+        physicalColumns.clear();
+        freeColumns.clear();
+        freeRows.clear();
+        physicalRows = 0;
+    }
+
+    @Override
+    Content<T> copy() {
+        var copy = new RopeContent<T>(columns(), rows());
+        forEach((x, y) -> copy.set(x, y, get(x, y)));
+        return copy;
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        rowIndex.swap(y1, y2);
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        columnIndex.swap(x1, x2);
+    }
+
+    @Override
+    void reverseX() {
+        columnIndex.reverse();
+    }
+
+    @Override
+    void reverseY() {
+        rowIndex.reverse();
+    }
+
+    @Override
+    Content<T> flip() {
+        var flipped = new RopeContent<T>(rows(), columns());
+        forEach((x, y) -> flipped.set(y, x, get(x, y)));
+        return flipped;
+    }
+}
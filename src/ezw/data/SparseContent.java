@@ -0,0 +1,306 @@
+package ezw.data;
+
+import ezw.function.IntIntConsumer;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A content storing only the non-null cells, as a list of sorted column maps from row index to element. Lookups,
+ * mapping, packing and flipping cost O(non-null cells) rather than O(rows * columns), and streaming reads the columns
+ * without looking up each cell.
+ * @param <T> The type of elements in the matrix.
+ */
+final class SparseContent<T> extends Content<T> {
+    private final List<TreeMap<Integer, T>> columns;
+    private int rows;
+
+    SparseContent(int x, int y) {
+        this(new ArrayList<>(x), y);
+        for (int i = 0; i < x; i++) {
+            columns.add(new TreeMap<>());
+        }
+    }
+
+    private SparseContent(List<TreeMap<Integer, T>> columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns a sparse copy of the content.
+     */
+    static <T> SparseContent<T> of(Content<T> content) {
+        var sparse = new SparseContent<T>(content.columns(), content.rows());
+        content.forEach((x, y) -> {
+            T element = content.get(x, y);
+            if (element != null)
+                sparse.columns.get(x).put(y, element);
+        });
+        return sparse;
+    }
+
+    /**
+     * Returns a dense copy of this content.
+     */
+    Content<T> toDense() {
+        var dense = new ListContent<T>(columns(), rows);
+        forEachNonNull((x, y) -> dense.set(x, y, get(x, y)));
+        return dense;
+    }
+
+    /**
+     * Returns the number of non-null cells.
+     */
+    long nonNullCount() {
+        return columns.stream().mapToLong(TreeMap::size).sum();
+    }
+
+    private void forEachNonNull(IntIntConsumer action) {
+        for (int x = 0; x < columns.size(); x++) {
+            for (int y : columns.get(x).keySet()) {
+                action.accept(x, y);
+            }
+        }
+    }
+
+    @Override
+    int columns() {
+        return columns.size();
+    }
+
+    @Override
+    int rows() {
+        return rows;
+    }
+
+    @Override
+    T get(int x, int y) {
+        var column = columns.get(x);
+        return column.get(Objects.checkIndex(y, rows));
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        var column = columns.get(x);
+        Objects.checkIndex(y, rows);
+        return element == null ? column.remove(y) : column.put(y, element);
+    }
+
+    @Override
+    void insertRow(int y) {
+        Objects.checkIndex(y, rows + 1);
+        columns.forEach(column -> shift(column, y, 1));
+        rows++;
+    }
+
+    @Override
+    void insertColumn(int x) {
+        columns.add(x, new TreeMap<>());
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        Objects.checkIndex(y, rows);
+        var row = columns.stream().map(column -> column.remove(y)).toList();
+        columns.forEach(column -> shift(column, y + 1, -1));
+        rows--;
+        return row;
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        var column = columns.remove(x);
+        List<T> removed = new ArrayList<>(rows);
+        for (int y = 0; y < rows; y++) {
+            removed.add(column.get(y));
+        }
+        return removed;
+    }
+
+    private static <T> void shift(TreeMap<Integer, T> column, int from, int delta) {
+        var tail = column.tailMap(from, true);
+        if (tail.isEmpty())
+            return;
+        var shifted = new TreeMap<Integer, T>();
+        tail.forEach((y, element) -> shifted.put(y + delta, element));
+        tail.clear();
+        column.putAll(shifted);
+    }
+
+    @Override
+    void clear() {
+        columns.clear();
+        rows = 0;
+    }
+
+    @Override
+    Content<T> copy() {
+        return new SparseContent<>(new ArrayList<>(columns.stream().map(TreeMap::new).toList()), rows);
+    }
+
+    /**
+     * Applies the function on the non-null cells, and once on null if there are any null cells. The function is
+     * therefore assumed to be stateless.
+     */
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        boolean hasNulls = nonNullCount() < (long) columns() * rows;
+        O nullMapping = hasNulls ? function.apply(null) : null;
+        Content<O> mapped = nullMapping == null ? new SparseContent<>(columns(), rows) :
+                new ListContent<>(columns(), rows);
+        if (nullMapping != null)
+            mapped.forEach((x, y) -> mapped.set(x, y, nullMapping));
+        forEachNonNull((x, y) -> mapped.set(x, y, function.apply(get(x, y))));
+        return mapped;
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        for (int x = 0; x < columns.size(); x++) {
+            var column = columns.get(x);
+            if (element == null) {
+                int y = 0;
+                for (int key : column.keySet()) {
+                    if (key != y)
+                        break;
+                    y++;
+                }
+                if (y < rows)
+                    return Matrix.Coordinates.pack(x, y);
+            } else {
+                for (var entry : column.entrySet()) {
+                    if (element.equals(entry.getValue()))
+                        return Matrix.Coordinates.pack(x, entry.getKey());
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        for (int x = columns.size() - 1; x >= 0; x--) {
+            var column = columns.get(x);
+            if (element == null) {
+                int y = rows - 1;
+                for (int key : column.descendingKeySet()) {
+                    if (key != y)
+                        break;
+                    y--;
+                }
+                if (y >= 0)
+                    return Matrix.Coordinates.of(x, y);
+            } else {
+                for (var entry : column.descendingMap().entrySet()) {
+                    if (element.equals(entry.getValue()))
+                        return Matrix.Coordinates.of(x, entry.getKey());
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        List<Matrix.Coordinates> coordinates = new ArrayList<>();
+        for (int x = 0; x < columns.size(); x++) {
+            var column = columns.get(x);
+            if (element == null) {
+                int y = 0;
+                for (int key : column.keySet()) {
+                    while (y < key) {
+                        coordinates.add(Matrix.Coordinates.of(x, y++));
+                    }
+                    y++;
+                }
+                while (y < rows) {
+                    coordinates.add(Matrix.Coordinates.of(x, y++));
+                }
+            } else {
+                for (var entry : column.entrySet()) {
+                    if (element.equals(entry.getValue()))
+                        coordinates.add(Matrix.Coordinates.of(x, entry.getKey()));
+                }
+            }
+        }
+        return coordinates;
+    }
+
+    @Override
+    Map<T, Integer> frequencies(int x) {
+        Map<T, Integer> frequencies = new HashMap<>();
+        for (T element : columns.get(x).values()) {
+            frequencies.merge(element, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        @SuppressWarnings("unchecked")
+        T[] column = (T[]) new Object[rows];
+        columns.get(x).forEach((y, element) -> column[y] = element);
+        return Collections.unmodifiableList(Arrays.asList(column));
+    }
+
+    /**
+     * Returns a flat stream of the cells by columns, filling each column from its non-null cells. The stream is not
+     * sized.
+     */
+    @Override
+    Stream<T> stream() {
+        return IntStream.range(0, columns.size()).mapToObj(this::getColumn).flatMap(List::stream);
+    }
+
+    @Override
+    int lastNonNullRow() {
+        return columns.stream().filter(column -> !column.isEmpty()).mapToInt(TreeMap::lastKey).max().orElse(-1);
+    }
+
+    @Override
+    int lastNonNullColumn() {
+        for (int x = columns.size() - 1; x >= 0; x--) {
+            if (!columns.get(x).isEmpty())
+                return x;
+        }
+        return -1;
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        Objects.checkIndex(y1, rows);
+        Objects.checkIndex(y2, rows);
+        for (int x = 0; x < columns.size(); x++) {
+            swap(x, y1, x, y2);
+        }
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        columns.set(x1, columns.set(x2, columns.get(x1)));
+    }
+
+    @Override
+    void reverseX() {
+        Collections.reverse(columns);
+    }
+
+    @Override
+    void reverseY() {
+        for (int x = 0; x < columns.size(); x++) {
+            var reversed = new TreeMap<Integer, T>();
+            columns.get(x).forEach((y, element) -> reversed.put(rows - 1 - y, element));
+            columns.set(x, reversed);
+        }
+    }
+
+    @Override
+    Content<T> flip() {
+        var flipped = new SparseContent<T>(rows, columns());
+        forEachNonNull((x, y) -> flipped.columns.get(y).put(x, get(x, y)));
+        return flipped;
+    }
+}
@@ -0,0 +1,321 @@
+package ezw.data;
+
+import ezw.Sugar;
+import ezw.function.IntIntConsumer;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A content storing the cells in square tiles, of which only a bounded number of the most recently used are held in
+ * memory. Evicted tiles are written to a spill file if modified, and read back on their next access, so that the
+ * content may be larger than the heap. The cells are streamed in tile order. Appending rows and columns is free, as the
+ * cells beyond the size are kept null, while inserting or removing them elsewhere shifts the subsequent cells through
+ * the cache. As even reads update the cache, every cell access and structural change is synchronized on the content,
+ * so that the cells may be read in parallel. Bulk reads are not atomic.
+ * @param <T> The type of elements in the matrix.
+ */
+final class TiledContent<T> extends Content<T> {
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final int tileSize;
+    private final int cacheSize;
+    private final CellCodec<T> codec;
+    private final Spill spill;
+    private final Map<Long, Tile<T>> cache;
+    private int columns;
+    private int rows;
+
+    TiledContent(int tileSize, int cacheSize, CellCodec<T> codec, Path directory) {
+        this.tileSize = tileSize;
+        this.cacheSize = cacheSize;
+        this.codec = codec;
+        spill = new Spill(directory);
+        cleaner.register(this, spill);
+        cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Tile<T>> eldest) {
+                if (size() <= TiledContent.this.cacheSize)
+                    return false;
+                evict(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of tiles currently held in memory.
+     */
+    synchronized int cachedTiles() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the number of tiles written to the spill file.
+     */
+    synchronized int spilledTiles() {
+        return spill.slots.size();
+    }
+
+    private Tile<T> tile(long key) {
+        var tile = cache.get(key);
+        if (tile == null) {
+            byte[] bytes = Sugar.toSupplier(() -> spill.read(key)).get();
+            tile = new Tile<>(bytes == null ? Sugar.fill(tileSize * tileSize) :
+                    Sugar.toSupplier(() -> BinaryFormat.decode(bytes, tileSize * tileSize, codec)).get());
+            cache.put(key, tile);
+        }
+        return tile;
+    }
+
+    private void evict(long key, Tile<T> tile) {
+        if (tile.dirty)
+            Sugar.sneaky(() -> spill.write(key, BinaryFormat.encode(tile.cells::get, tile.cells.size(), codec)));
+    }
+
+    private long key(int x, int y) {
+        return Matrix.Coordinates.pack(x / tileSize, y / tileSize);
+    }
+
+    private int index(int x, int y) {
+        return x % tileSize * tileSize + y % tileSize;
+    }
+
+    @Override
+    synchronized int columns() {
+        return columns;
+    }
+
+    @Override
+    synchronized int rows() {
+        return rows;
+    }
+
+    @Override
+    synchronized T get(int x, int y) {
+        Objects.checkIndex(x, columns);
+        Objects.checkIndex(y, rows);
+        return tile(key(x, y)).cells.get(index(x, y));
+    }
+
+    @Override
+    synchronized T set(int x, int y, T element) {
+        Objects.checkIndex(x, columns);
+        Objects.checkIndex(y, rows);
+        long key = key(x, y);
+        if (element == null && !cache.containsKey(key) && !spill.slots.containsKey(key))
+            return null;
+        var tile = tile(key);
+        tile.dirty = true;
+        return tile.cells.set(index(x, y), element);
+    }
+
+    @Override
+    synchronized void insertRow(int y) {
+        if (++rows - 1 == y)
+            return;
+        for (int x = 0; x < columns; x++) {
+            for (int r = rows - 1; r > y; r--) {
+                set(x, r, get(x, r - 1));
+            }
+            set(x, y, null);
+        }
+    }
+
+    @Override
+    synchronized void insertColumn(int x) {
+        if (++columns - 1 == x)
+            return;
+        for (int c = columns - 1; c > x; c--) {
+            for (int y = 0; y < rows; y++) {
+                set(c, y, get(c - 1, y));
+            }
+        }
+        for (int y = 0; y < rows; y++) {
+            set(x, y, null);
+        }
+    }
+
+    @Override
+    synchronized List<T> removeRow(int y) {
+        var row = getRow(y);
+        for (int x = 0; x < columns; x++) {
+            for (int r = y; r < rows - 1; r++) {
+                set(x, r, get(x, r + 1));
+            }
+            set(x, rows - 1, null);
+        }
+        rows--;
+        return row;
+    }
+
+    @Override
+    synchronized List<T> removeColumn(int x) {
+        var column = getColumn(x);
+        for (int c = x; c < columns - 1; c++) {
+            for (int y = 0; y < rows; y++) {
+                set(c, y, get(c + 1, y));
+            }
+        }
+        for (int y = 0; y < rows; y++) {
+            set(columns - 1, y, null);
+        }
+        columns--;
+        return column;
+    }
+
+    @Override
+    synchronized void clear() {
+        cache.clear();
+        Sugar.sneaky(spill::clear);
+        columns = 0;
+        rows = 0;
+    }
+
+    @Override
+    synchronized Content<T> copy() {
+        var copy = new TiledContent<>(tileSize, cacheSize, codec, spill.directory);
+        copy.columns = columns;
+        copy.rows = rows;
+        forEach((x, y) -> copy.set(x, y, get(x, y)));
+        return copy;
+    }
+
+    @Override
+    synchronized Content<T> flip() {
+        var flipped = new TiledContent<>(tileSize, cacheSize, codec, spill.directory);
+        flipped.columns = rows;
+        flipped.rows = columns;
+        forEach((x, y) -> flipped.set(y, x, get(x, y)));
+        return flipped;
+    }
+
+    @Override
+    synchronized void swapRows(int y1, int y2) {
+        super.swapRows(y1, y2);
+    }
+
+    @Override
+    synchronized void swapColumns(int x1, int x2) {
+        super.swapColumns(x1, x2);
+    }
+
+    @Override
+    synchronized void reverseX() {
+        super.reverseX();
+    }
+
+    @Override
+    synchronized void reverseY() {
+        super.reverseY();
+    }
+
+    @Override
+    LongStream cells(Matrix.Block block) {
+        return block.packedStream(tileSize, tileSize);
+    }
+
+    /**
+     * Returns a flat stream of the cells in tile order: Tiles by columns, and the cells of each tile by columns.
+     */
+    @Override
+    Stream<T> stream() {
+        return cells(Matrix.Block.of(0, 0, columns(), rows())).mapToObj(packed ->
+                get(Matrix.Coordinates.unpackX(packed), Matrix.Coordinates.unpackY(packed)));
+    }
+
+    @Override
+    void forEach(IntIntConsumer action) {
+        cells(Matrix.Block.of(0, 0, columns(), rows())).forEach(packed -> action.accept(
+                Matrix.Coordinates.unpackX(packed), Matrix.Coordinates.unpackY(packed)));
+    }
+
+    private static final class Tile<T> {
+        private final List<T> cells;
+        private boolean dirty;
+
+        private Tile(List<T> cells) {
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * The spill file, created on the first eviction of a modified tile, and deleted once closed. Every tile is written
+     * to a slot of its own, which is reused as long as the encoded tile fits in it. Closes the file when run.
+     */
+    private static final class Spill implements Runnable {
+        private final Path directory;
+        private final Map<Long, Slot> slots = new HashMap<>();
+        private FileChannel channel;
+        private long end;
+
+        private Spill(Path directory) {
+            this.directory = directory;
+        }
+
+        private void write(long key, byte[] bytes) throws IOException {
+            if (channel == null)
+                channel = FileChannel.open(Files.createTempFile(directory, "matrix", ".spill"),
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            var slot = slots.get(key);
+            if (slot == null || slot.capacity < bytes.length) {
+                slot = new Slot(end, bytes.length);
+                slots.put(key, slot);
+                end += bytes.length;
+            }
+            slot.length = bytes.length;
+            var buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, slot.offset + buffer.position());
+            }
+        }
+
+        private byte[] read(long key) throws IOException {
+            var slot = slots.get(key);
+            if (slot == null)
+                return null;
+            var buffer = ByteBuffer.allocate(slot.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, slot.offset + buffer.position()) < 0)
+                    throw new IOException("Spill file is truncated.");
+            }
+            return buffer.array();
+        }
+
+        private void clear() throws IOException {
+            slots.clear();
+            end = 0;
+            if (channel != null)
+                channel.truncate(0);
+        }
+
+        @Override
+        public void run() {
+            if (channel != null)
+                Sugar.sneaky(channel::close);
+        }
+    }
+
+    private static final class Slot {
+        private final long offset;
+        private final int capacity;
+        private int length;
+
+        private Slot(long offset, int capacity) {
+            this.offset = offset;
+            this.capacity = capacity;
+        }
+    }
+}
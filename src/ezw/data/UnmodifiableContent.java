@@ -0,0 +1,173 @@
+package ezw.data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A read-only decorator of a content, throwing <code>UnsupportedOperationException</code> on any modification.
+ * @param <T> The type of elements in the matrix.
+ */
+final class UnmodifiableContent<T> extends Content<T> {
+    private final Content<T> content;
+
+    UnmodifiableContent(Content<T> content) {
+        this.content = content;
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Matrix is unmodifiable.");
+    }
+
+    @Override
+    int columns() {
+        return content.columns();
+    }
+
+    @Override
+    int rows() {
+        return content.rows();
+    }
+
+    @Override
+    T get(int x, int y) {
+        return content.get(x, y);
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        throw unsupported();
+    }
+
+    @Override
+    void insertRow(int y) {
+        throw unsupported();
+    }
+
+    @Override
+    void insertColumn(int x) {
+        throw unsupported();
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        throw unsupported();
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        throw unsupported();
+    }
+
+    @Override
+    void clear() {
+        throw unsupported();
+    }
+
+    @Override
+    Content<T> copy() {
+        return content.copy();
+    }
+
+    @Override
+    <O> Content<O> map(Function<T, O> function) {
+        return content.map(function);
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return content.isNull(x, y);
+    }
+
+    @Override
+    int lastNonNullRow() {
+        return content.lastNonNullRow();
+    }
+
+    @Override
+    int lastNonNullColumn() {
+        return content.lastNonNullColumn();
+    }
+
+    @Override
+    List<T> getRow(int y) {
+        return content.getRow(y);
+    }
+
+    @Override
+    List<T> getColumn(int x) {
+        return content.getColumn(x);
+    }
+
+    @Override
+    Stream<T> stream() {
+        return content.stream();
+    }
+
+    @Override
+    LongStream cells(Matrix.Block block) {
+        return content.cells(block);
+    }
+
+    @Override
+    boolean isView() {
+        return content.isView();
+    }
+
+    @Override
+    boolean contains(T element) {
+        return content.contains(element);
+    }
+
+    @Override
+    long indexOfPacked(T element) {
+        return content.indexOfPacked(element);
+    }
+
+    @Override
+    Matrix.Coordinates lastIndexOf(T element) {
+        return content.lastIndexOf(element);
+    }
+
+    @Override
+    List<Matrix.Coordinates> indexAllOf(T element) {
+        return content.indexAllOf(element);
+    }
+
+    @Override
+    Map<T, Integer> frequencies(int x) {
+        return content.frequencies(x);
+    }
+
+    @Override
+    void swapRows(int y1, int y2) {
+        throw unsupported();
+    }
+
+    @Override
+    void swapColumns(int x1, int x2) {
+        throw unsupported();
+    }
+
+    @Override
+    void reverseX() {
+        throw unsupported();
+    }
+
+    @Override
+    void reverseY() {
+        throw unsupported();
+    }
+
+    @Override
+    Content<T> flip() {
+        throw unsupported();
+    }
+
+    @Override
+    Content<T> oriented() {
+        throw unsupported();
+    }
+}
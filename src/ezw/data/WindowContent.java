@@ -0,0 +1,105 @@
+package ezw.data;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A fixed-size window over a block of a parent matrix. Cells are read from and written to the parent's current content
+ * without copying, so that the window reflects any change in the parent and vice versa. Structural changes of the
+ * window are not supported.
+ * @param <T> The type of elements in the matrix.
+ */
+final class WindowContent<T> extends Content<T> {
+    private final Matrix<T> parent;
+    private final int fromX;
+    private final int fromY;
+    private final int columns;
+    private final int rows;
+
+    WindowContent(Matrix<T> parent, Matrix.Block block) {
+        this.parent = parent;
+        fromX = block.getFrom().getX();
+        fromY = block.getFrom().getY();
+        columns = block.getXRange().size();
+        rows = block.getYRange().size();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Matrix view size is fixed.");
+    }
+
+    @Override
+    int columns() {
+        return columns;
+    }
+
+    @Override
+    int rows() {
+        return rows;
+    }
+
+    @Override
+    T get(int x, int y) {
+        return parent.content().get(fromX + Objects.checkIndex(x, columns), fromY + Objects.checkIndex(y, rows));
+    }
+
+    @Override
+    T set(int x, int y, T element) {
+        return parent.content().set(fromX + Objects.checkIndex(x, columns), fromY + Objects.checkIndex(y, rows),
+                element);
+    }
+
+    @Override
+    boolean isView() {
+        return true;
+    }
+
+    @Override
+    boolean isNull(int x, int y) {
+        return parent.content().isNull(fromX + Objects.checkIndex(x, columns), fromY + Objects.checkIndex(y, rows));
+    }
+
+    @Override
+    void insertRow(int y) {
+        throw unsupported();
+    }
+
+    @Override
+    void insertColumn(int x) {
+        throw unsupported();
+    }
+
+    @Override
+    List<T> removeRow(int y) {
+        throw unsupported();
+    }
+
+    @Override
+    List<T> removeColumn(int x) {
+        throw unsupported();
+    }
+
+    @Override
+    boolean isParallelWritable() {
+        return parent.content().isParallelWritable();
+    }
+
+    @Override
+    void prepareParallelWrite() {
+        parent.content().prepareParallelWrite();
+    }
+
+    @Override
+    void clear() {
+        throw unsupported();
+    }
+
+    /**
+     * Returns a modifiable copy of the window cells, detached from the parent.
+     */
+    @Override
+    Content<T> copy() {
+        return map(Function.identity());
+    }
+}
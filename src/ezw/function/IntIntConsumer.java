@@ -0,0 +1,18 @@
+package ezw.function;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A consumer of two int values, such as X and Y coordinates, accepting them without boxing. Usable as a
+ * <code>BiConsumer</code> of boxed values, which it unboxes.
+ */
+@FunctionalInterface
+public interface IntIntConsumer extends BiConsumer<Integer, Integer> {
+
+    void accept(int first, int second);
+
+    @Override
+    default void accept(Integer first, Integer second) {
+        accept(first.intValue(), second.intValue());
+    }
+}
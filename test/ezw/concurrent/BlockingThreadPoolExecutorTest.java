@@ -0,0 +1,40 @@
+package ezw.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BlockingThreadPoolExecutorTest {
+
+    @Test
+    void offer() throws InterruptedException {
+        var executor = new BlockingThreadPoolExecutor(2);
+        var release = new CountDownLatch(1);
+        var ran = new AtomicInteger();
+        Runnable task = () -> {
+            Interruptible.run(release::await);
+            ran.incrementAndGet();
+        };
+        try {
+            Assertions.assertTrue(executor.offer(task));
+            Assertions.assertTrue(executor.offer(task, 0, TimeUnit.MILLISECONDS));
+            Assertions.assertFalse(executor.offer(task));
+            Assertions.assertFalse(executor.offer(task, 50, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(0, executor.getBlocked());
+            var thread = new Thread(() -> {
+                Interruptible.sleep(50);
+                release.countDown();
+            });
+            thread.start();
+            Assertions.assertTrue(executor.offer(ran::incrementAndGet, 10, TimeUnit.SECONDS));
+            thread.join();
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, ran.get());
+    }
+}
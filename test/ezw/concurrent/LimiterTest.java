@@ -0,0 +1,225 @@
+package ezw.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LimiterTest {
+
+    private static void awaitBlocked(Limiter limiter, int blocked) throws InterruptedException {
+        for (int i = 0; i < 5000 && limiter.getBlocked() != blocked; i++) {
+            Thread.sleep(1);
+        }
+        Assertions.assertEquals(blocked, limiter.getBlocked());
+    }
+
+    private static Thread start(Runnable runnable) {
+        var thread = new Thread(runnable);
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    void limit() throws InterruptedException {
+        var limiter = new Limiter(2);
+        limiter.begin();
+        limiter.begin();
+        Assertions.assertEquals(2, limiter.getExecuting());
+        Assertions.assertEquals(0, limiter.getBlocked());
+        var began = new CountDownLatch(1);
+        var thread = start(() -> {
+            Interruptible.begin(limiter);
+            began.countDown();
+        });
+        awaitBlocked(limiter, 1);
+        Assertions.assertEquals(1, began.getCount());
+        limiter.end();
+        began.await();
+        thread.join();
+        Assertions.assertEquals(2, limiter.getExecuting());
+        Assertions.assertEquals(0, limiter.getBlocked());
+        limiter.end();
+        limiter.end();
+        Assertions.assertEquals(0, limiter.getExecuting());
+        Assertions.assertThrows(IllegalStateException.class, limiter::end);
+        Assertions.assertEquals(0, limiter.getExecuting());
+    }
+
+    @Test
+    void fifo() throws InterruptedException {
+        var limiter = new Limiter(1);
+        limiter.begin();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            threads.add(start(() -> {
+                Interruptible.begin(limiter);
+                order.add(index);
+                limiter.end();
+            }));
+            awaitBlocked(limiter, i + 1);
+        }
+        limiter.end();
+        for (var thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4), order);
+        Assertions.assertEquals(0, limiter.getExecuting());
+    }
+
+    @Test
+    void interrupted() throws InterruptedException {
+        var limiter = new Limiter(1);
+        limiter.begin();
+        var interrupted = new AtomicInteger();
+        var thread = start(() -> {
+            try {
+                limiter.begin();
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+        });
+        awaitBlocked(limiter, 1);
+        thread.interrupt();
+        thread.join();
+        Assertions.assertEquals(1, interrupted.get());
+        Assertions.assertEquals(0, limiter.getBlocked());
+        Assertions.assertEquals(1, limiter.getExecuting());
+        Thread.currentThread().interrupt();
+        Assertions.assertThrows(InterruptedException.class, limiter::begin);
+        Assertions.assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void tryBegin() throws InterruptedException {
+        var limiter = new Limiter(2);
+        Assertions.assertTrue(limiter.tryBegin());
+        Assertions.assertTrue(limiter.tryBegin(1, 0, TimeUnit.MILLISECONDS));
+        Assertions.assertFalse(limiter.tryBegin());
+        long start = System.nanoTime();
+        Assertions.assertFalse(limiter.tryBegin(50, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assertions.assertEquals(0, limiter.getBlocked());
+        var thread = start(() -> {
+            Interruptible.sleep(50);
+            limiter.end();
+        });
+        Assertions.assertTrue(limiter.tryBegin(10, TimeUnit.SECONDS));
+        thread.join();
+        Assertions.assertEquals(2, limiter.getExecuting());
+        limiter.end(2);
+        Assertions.assertEquals(0, limiter.getExecuting());
+    }
+
+    @Test
+    void weighted() throws InterruptedException {
+        var limiter = new Limiter(4);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limiter.begin(5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limiter.tryBegin(0));
+        limiter.begin(3);
+        Assertions.assertFalse(limiter.tryBegin(2));
+        var heavy = start(() -> Interruptible.run(() -> limiter.begin(2)));
+        awaitBlocked(limiter, 1);
+        Assertions.assertFalse(limiter.tryBegin());
+        limiter.end(2);
+        heavy.join();
+        Assertions.assertEquals(3, limiter.getExecuting());
+        Assertions.assertThrows(IllegalStateException.class, () -> limiter.end(4));
+        Assertions.assertEquals(3, limiter.getExecuting());
+        limiter.end(3);
+    }
+
+    @Test
+    void ticket() throws InterruptedException {
+        var limiter = new Limiter(3);
+        var ticket = limiter.ticket(2);
+        Assertions.assertEquals(2, ticket.getOperations());
+        Assertions.assertEquals(2, limiter.getExecuting());
+        ticket.close();
+        Assertions.assertEquals(0, limiter.getExecuting());
+        ticket.close();
+        Assertions.assertEquals(0, limiter.getExecuting());
+        try (var single = limiter.ticket()) {
+            Assertions.assertEquals(1, single.getOperations());
+            Assertions.assertEquals(1, limiter.getExecuting());
+            throw new IllegalStateException();
+        } catch (IllegalStateException e) {
+            Assertions.assertEquals(0, limiter.getExecuting());
+        }
+    }
+
+    /**
+     * The former implementation, synchronizing on the count and notifying all waiting threads on every end.
+     */
+    private static final class MonitorLimiter {
+        private final int limit;
+        private final AtomicInteger executing = new AtomicInteger();
+
+        private MonitorLimiter(int limit) {
+            this.limit = limit;
+        }
+
+        private void begin() throws InterruptedException {
+            synchronized (executing) {
+                while (executing.get() == limit) {
+                    executing.wait();
+                }
+                executing.incrementAndGet();
+            }
+        }
+
+        private void end() {
+            synchronized (executing) {
+                executing.decrementAndGet();
+                executing.notifyAll();
+            }
+        }
+    }
+
+    private static long contend(int threads, int iterations, Interruptible.Runnable begin,
+                                Runnable end) throws InterruptedException {
+        var ready = new CountDownLatch(threads);
+        var go = new CountDownLatch(1);
+        List<Thread> list = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            list.add(start(() -> {
+                ready.countDown();
+                Interruptible.run(go::await);
+                for (int j = 0; j < iterations; j++) {
+                    Interruptible.run(begin);
+                    end.run();
+                }
+            }));
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (var thread : list) {
+            thread.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    void contention() throws InterruptedException {
+        int threads = 64;
+        int iterations = 2000;
+        var limiter = new Limiter(4);
+        var monitorLimiter = new MonitorLimiter(4);
+        contend(threads, iterations / 10, limiter::begin, limiter::end);
+        contend(threads, iterations / 10, monitorLimiter::begin, monitorLimiter::end);
+        long nanos = contend(threads, iterations, limiter::begin, limiter::end);
+        long monitorNanos = contend(threads, iterations, monitorLimiter::begin, monitorLimiter::end);
+        System.out.printf("%d threads x %d operations limited to 4 in %d ms, synchronized with notifyAll in %d ms%n",
+                threads, iterations, nanos / 1000000, monitorNanos / 1000000);
+        Assertions.assertEquals(0, limiter.getExecuting());
+        Assertions.assertEquals(0, limiter.getBlocked());
+    }
+}
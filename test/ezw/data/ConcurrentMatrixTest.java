@@ -0,0 +1,70 @@
+package ezw.data;
+
+import ezw.concurrent.Concurrent;
+import ezw.function.Reducer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class ConcurrentMatrixTest {
+    private static final int threads = 8;
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        Concurrent.run(Reducer.first(), IntStream.range(0, threads).mapToObj(i -> task).toArray(Runnable[]::new));
+    }
+
+    @Test
+    void compute() throws Exception {
+        var matrix = new ConcurrentMatrix<>(new Matrix<>(new Integer[][] {{0, 0}, {0, 0}}));
+        runConcurrently(() -> {
+            for (int i = 0; i < 10000; i++) {
+                matrix.compute(i % 2, i / 2 % 2, n -> n + 1);
+            }
+        });
+        Assertions.assertEquals("20000,20000|20000,20000", matrix.snapshot().toString(",", "|", "", false));
+    }
+
+    @Test
+    void compareAndSet() throws Exception {
+        var matrix = new ConcurrentMatrix<Integer>(2);
+        matrix.addRow(0);
+        runConcurrently(() -> {
+            for (int i = 0; i < 10000; i++) {
+                Integer value;
+                do {
+                    value = matrix.get(0, 0);
+                } while (!matrix.compareAndSet(0, 0, value, value + 1));
+            }
+        });
+        Assertions.assertEquals(threads * 10000, matrix.get(0, 0));
+        Assertions.assertFalse(matrix.compareAndSet(0, 0, 0, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> matrix.compareAndSet(1, 0, null, 1));
+    }
+
+    @Test
+    void structuralWithCellWrites() throws Exception {
+        var matrix = new ConcurrentMatrix<Integer>();
+        matrix.addRow(0, 0, 0, 0);
+        runConcurrently(() -> {
+            for (int i = 0; i < 1000; i++) {
+                matrix.addRowBefore(1, i, i, i, i);
+                matrix.compute(0, 0, n -> n + 1);
+                matrix.swapColumns(1, 2);
+                var size = matrix.size();
+                Assertions.assertEquals(4, size.getX());
+                Assertions.assertNotNull(matrix.get(3, size.getY() - 1));
+            }
+        });
+        var snapshot = matrix.snapshot();
+        Assertions.assertEquals(Matrix.Coordinates.of(4, threads * 1000 + 1), snapshot.size());
+        Assertions.assertEquals(threads * 1000, snapshot.get(0, 0));
+        Assertions.assertEquals(List.of(0, 0, 0), matrix.removeRow(0).subList(1, 4));
+        matrix.removeColumn(0);
+        Assertions.assertEquals(Matrix.Coordinates.of(3, threads * 1000), matrix.size());
+        matrix.clear();
+        Assertions.assertEquals(Matrix.Coordinates.of(0, 0), matrix.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentMatrix<>(0));
+    }
+}
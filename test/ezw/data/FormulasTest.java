@@ -0,0 +1,97 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class FormulasTest {
+
+    private static Matrix.Block cell(int x, int y) {
+        return Matrix.Block.of(x, y, x + 1, y + 1);
+    }
+
+    private static Function<Matrix<Integer>, Integer> sum(Matrix.Block block, Map<Matrix.Block, AtomicInteger> calls) {
+        return matrix -> {
+            calls.computeIfAbsent(block, b -> new AtomicInteger()).incrementAndGet();
+            return block.stream().map(matrix::get).filter(Objects::nonNull).mapToInt(Integer::intValue).sum();
+        };
+    }
+
+    @Test
+    void incremental() {
+        var matrix = new Matrix<Integer>(4, 4);
+        var formulas = new Formulas<>(matrix);
+        Map<Matrix.Block, AtomicInteger> calls = new ConcurrentHashMap<>();
+        var column0 = Matrix.Block.of(0, 0, 1, 3);
+        var column1 = Matrix.Block.of(1, 0, 2, 3);
+        var totals = Matrix.Block.of(0, 3, 2, 4);
+        formulas.define(Matrix.Coordinates.of(0, 3), List.of(column0), sum(column0, calls));
+        formulas.define(Matrix.Coordinates.of(1, 3), List.of(column1), sum(column1, calls));
+        formulas.define(Matrix.Coordinates.of(3, 3), List.of(totals), sum(totals, calls));
+        Assertions.assertEquals(0, matrix.get(3, 3));
+        calls.clear();
+        formulas.set(0, 0, 5);
+        formulas.set(0, 1, 2);
+        Assertions.assertEquals(7, matrix.get(0, 3));
+        Assertions.assertEquals(0, matrix.get(1, 3));
+        Assertions.assertEquals(7, matrix.get(3, 3));
+        Assertions.assertEquals(2, calls.get(column0).get());
+        Assertions.assertNull(calls.get(column1));
+        Assertions.assertEquals(2, calls.get(totals).get());
+        formulas.set(2, 2, 100);
+        Assertions.assertEquals(2, calls.get(totals).get());
+        formulas.set(1, 3, 10);
+        Assertions.assertFalse(formulas.isFormula(Matrix.Coordinates.of(1, 3)));
+        Assertions.assertEquals(17, matrix.get(3, 3));
+        Assertions.assertTrue(formulas.undefine(Matrix.Coordinates.of(0, 3)));
+        formulas.set(0, 0, 1);
+        Assertions.assertEquals(7, matrix.get(0, 3));
+        Assertions.assertEquals(17, matrix.get(3, 3));
+    }
+
+    @Test
+    void diamondOrder() {
+        var matrix = new Matrix<Integer>(5, 1);
+        matrix.setParallelThreshold(2);
+        var formulas = new Formulas<>(matrix);
+        Map<Matrix.Block, AtomicInteger> calls = new ConcurrentHashMap<>();
+        formulas.define(Matrix.Coordinates.of(1, 0), List.of(cell(0, 0)), sum(cell(0, 0), calls));
+        formulas.define(Matrix.Coordinates.of(2, 0), List.of(cell(0, 0)), sum(cell(0, 0), calls));
+        var middle = Matrix.Block.of(1, 0, 3, 1);
+        formulas.define(Matrix.Coordinates.of(3, 0), List.of(middle), sum(middle, calls));
+        formulas.define(Matrix.Coordinates.of(4, 0), List.of(cell(3, 0), cell(0, 0)),
+                m -> m.get(3, 0) * 10 + Objects.requireNonNullElse(m.get(0, 0), 0));
+        calls.clear();
+        formulas.set(0, 0, 3);
+        Assertions.assertEquals("3,3,3,6,63", matrix.toString(",", "|", "", false));
+        Assertions.assertEquals(2, calls.get(cell(0, 0)).get());
+        Assertions.assertEquals(1, calls.get(middle).get());
+        matrix.set(0, 0, 1);
+        formulas.recalculate();
+        Assertions.assertEquals("1,1,1,2,21", matrix.toString(",", "|", "", false));
+    }
+
+    @Test
+    void cycles() {
+        var matrix = new Matrix<Integer>(3, 1);
+        var formulas = new Formulas<>(matrix);
+        formulas.define(Matrix.Coordinates.of(1, 0), List.of(cell(0, 0)), m -> 1);
+        formulas.define(Matrix.Coordinates.of(2, 0), List.of(cell(1, 0)), m -> 2);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> formulas.define(Matrix.Coordinates.of(0, 0),
+                List.of(cell(2, 0)), m -> 0));
+        Assertions.assertFalse(formulas.isFormula(Matrix.Coordinates.of(0, 0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> formulas.define(Matrix.Coordinates.of(1, 0),
+                List.of(Matrix.Block.of(0, 0, 3, 1)), m -> 0));
+        Assertions.assertTrue(formulas.isFormula(Matrix.Coordinates.of(1, 0)));
+        formulas.set(0, 0, 5);
+        Assertions.assertEquals("5,1,2", matrix.toString(",", "|", "", false));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> formulas.define(Matrix.Coordinates.of(3, 0),
+                List.of(), m -> 0));
+    }
+}
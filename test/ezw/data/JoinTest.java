@@ -0,0 +1,93 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JoinTest {
+
+    private static final Matrix<String> people = new Matrix<>(new String[][] {
+            {"name", "city"},
+            {"dan", "haifa"},
+            {"eve", "eilat"},
+            {"bob", "haifa"},
+            {"amy", null},
+            {"cat", "paris"}});
+    private static final Matrix<String> cities = new Matrix<>(new String[][] {
+            {"city", "country"},
+            {"haifa", "il"},
+            {"eilat", "il"},
+            {"paris", "fr"},
+            {"paris", "us"}});
+
+    private static String string(Matrix<?> matrix) {
+        return matrix.toString(",", "|", "null", false);
+    }
+
+    @Test
+    void hashJoin() {
+        var left = Query.of(people, true);
+        var right = Query.of(cities, true);
+        var keys = new int[] {1};
+        var keys0 = new int[] {0};
+        Assertions.assertEquals("name,city,city,country|dan,haifa,haifa,il|eve,eilat,eilat,il|bob,haifa,haifa,il|" +
+                "cat,paris,paris,fr|cat,paris,paris,us", string(Join.of(Join.Type.INNER, left, keys, right, keys0)
+                .toMatrix()));
+        Assertions.assertEquals("name,country|dan,il|eve,il|bob,il|amy,null|cat,fr|cat,us", string(Join.of(
+                Join.Type.LEFT, left.select(0), keys, right.select(1), keys0).toMatrix()));
+        Assertions.assertEquals("name,city|amy,null", string(Join.of(Join.Type.ANTI, left, keys, right, keys0)
+                .toMatrix()));
+        var israel = right.whereEquals(1, "il").where(0, city -> !city.equals("eilat"));
+        Assertions.assertEquals(List.of(List.of("eve", "eilat"), List.of("cat", "paris")), Join.of(Join.Type.ANTI,
+                left, keys, israel, keys0).stream().filter(row -> row.get(1) != null).toList());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Join.of(Join.Type.INNER, left, keys, right,
+                new int[0]));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Join.of(Join.Type.INNER, left, keys, right,
+                new int[] {2}));
+    }
+
+    @Test
+    void buildSide() {
+        var large = new Matrix<Integer>(2, 1000);
+        large.getBlock().forEach((x, y) -> large.set(x, y, x == 0 ? y % 10 : y));
+        var small = new Matrix<>(new Integer[][] {{3, -3}, {20, -20}, {5, -5}});
+        var reads = new AtomicInteger();
+        var counted = Query.of(large, false).where(1, n -> reads.incrementAndGet() > 0);
+        var inner = Join.of(Join.Type.INNER, counted, new int[] {0}, Query.of(small, false), new int[] {0});
+        var first = inner.stream().findFirst().orElseThrow();
+        Assertions.assertEquals(List.of(3, 3, 3, -3), first);
+        Assertions.assertEquals(4, reads.get());
+        Assertions.assertEquals(200, inner.stream().count());
+        var smallFirst = Join.of(Join.Type.LEFT, Query.of(small, false), new int[] {0}, counted, new int[] {0});
+        Assertions.assertEquals(201, smallFirst.stream().count());
+        Assertions.assertEquals(Arrays.asList(20, -20, null, null), smallFirst.stream().skip(200).findFirst()
+                .orElseThrow());
+        Assertions.assertEquals(List.of(List.of(20, -20)), Join.of(Join.Type.ANTI, Query.of(small, false),
+                new int[] {0}, counted, new int[] {0}).stream().toList());
+    }
+
+    @Test
+    void mergeJoin() {
+        var left = new Matrix<>(new Integer[][] {{null, 0}, {1, 1}, {2, 2}, {2, 3}, {4, 4}, {6, 5}});
+        var right = new Matrix<>(new Integer[][] {{null, 10}, {2, 20}, {2, 21}, {3, 30}, {4, 40}, {5, 50}});
+        var leftQuery = Query.of(left, false);
+        var rightQuery = Query.of(right, false);
+        for (var type : Join.Type.values()) {
+            var hash = Join.of(type, leftQuery, new int[] {0}, rightQuery, new int[] {0});
+            var merge = hash.sorted(Comparator.naturalOrder());
+            Assertions.assertEquals(hash.toMatrix(), merge.toMatrix(), type.name());
+        }
+        Assertions.assertEquals("2,2,2,20|2,2,2,21|2,3,2,20|2,3,2,21|4,4,4,40", string(Join.of(Join.Type.INNER,
+                leftQuery, new int[] {0}, rightQuery, new int[] {0}).sorted(Comparator.naturalOrder()).toMatrix()));
+        var unsorted = Join.of(Join.Type.INNER, leftQuery.orderBy(Comparator.reverseOrder(), 0), new int[] {0},
+                rightQuery, new int[] {0}).sorted(Comparator.naturalOrder());
+        Assertions.assertThrows(IllegalStateException.class, unsorted::toMatrix);
+        var descending = Join.of(Join.Type.LEFT, leftQuery.orderBy(Comparator.reverseOrder(), 0), new int[] {0},
+                rightQuery.orderBy(Comparator.reverseOrder(), 0), new int[] {0}).sorted(Comparator.reverseOrder());
+        Assertions.assertEquals(8, descending.stream().count());
+    }
+}
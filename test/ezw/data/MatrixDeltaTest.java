@@ -0,0 +1,126 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class MatrixDeltaTest {
+
+    private static String string(Matrix<?> matrix) {
+        return matrix.toString(",", "|", "", false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MatrixDelta<T> serialize(MatrixDelta<T> delta) throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(delta);
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (MatrixDelta<T>) in.readObject();
+        }
+    }
+
+    @Test
+    void events() {
+        var matrix = new Matrix<>(new Integer[][] {{1, 2}, {3, 4}});
+        List<MatrixDelta.Change<Integer>> changes = new ArrayList<>();
+        Consumer<MatrixDelta.Change<Integer>> listener = changes::add;
+        matrix.addListener(listener);
+        matrix.set(1, 1, 5);
+        matrix.addRowBefore(1, 7, 8);
+        matrix.swapColumns(0, 1);
+        matrix.turnClockwise();
+        matrix.view(Matrix.Block.of(0, 0, 1, 1)).set(0, 0, 9);
+        Assertions.assertEquals(List.of(new MatrixDelta.Change<>(MatrixDelta.Type.SET, 1, 1, 5),
+                MatrixDelta.Change.of(MatrixDelta.Type.INSERT_ROW, 1),
+                new MatrixDelta.Change<>(MatrixDelta.Type.SET, 0, 1, 7),
+                new MatrixDelta.Change<>(MatrixDelta.Type.SET, 1, 1, 8),
+                MatrixDelta.Change.of(MatrixDelta.Type.SWAP_COLUMNS, 0, 1),
+                MatrixDelta.Change.of(MatrixDelta.Type.FLIP),
+                MatrixDelta.Change.of(MatrixDelta.Type.REVERSE_X),
+                new MatrixDelta.Change<>(MatrixDelta.Type.SET, 0, 0, 9)), changes);
+        Assertions.assertTrue(matrix.removeListener(listener));
+        Assertions.assertFalse(matrix.removeListener(listener));
+        matrix.set(0, 0, 0);
+        Assertions.assertEquals(8, changes.size());
+    }
+
+    @Test
+    void batchCoalescing() {
+        var matrix = new Matrix<Integer>(3, 3);
+        matrix.beginBatch();
+        Assertions.assertTrue(matrix.isInBatch());
+        Assertions.assertThrows(IllegalStateException.class, matrix::beginBatch);
+        for (int i = 0; i < 100; i++) {
+            matrix.set(i % 3, 0, i);
+        }
+        matrix.reverseY();
+        matrix.reverseY();
+        matrix.set(0, 0, -1);
+        var delta = matrix.commitBatch();
+        Assertions.assertFalse(matrix.isInBatch());
+        Assertions.assertThrows(IllegalStateException.class, matrix::commitBatch);
+        Assertions.assertEquals(List.of(new MatrixDelta.Change<>(MatrixDelta.Type.SET, 0, 0, 99),
+                new MatrixDelta.Change<>(MatrixDelta.Type.SET, 1, 0, 97),
+                new MatrixDelta.Change<>(MatrixDelta.Type.SET, 2, 0, 98),
+                new MatrixDelta.Change<>(MatrixDelta.Type.SET, 0, 0, -1)), delta.getChanges());
+        matrix.beginBatch();
+        matrix.set(1, 1, 1);
+        matrix.clear();
+        matrix.addRow(1, 2);
+        Assertions.assertEquals(MatrixDelta.Type.CLEAR, matrix.commitBatch().getChanges().get(0).type());
+        matrix.beginBatch();
+        Assertions.assertTrue(matrix.commitBatch().isEmpty());
+    }
+
+    @Test
+    void replicate() throws Exception {
+        var source = new Matrix<>(new String[][] {{"a", "b", "c"}, {"d", "e", "f"}});
+        var replica = new Matrix<>(source);
+        source.setIndexed(true);
+        source.beginBatch();
+        Assertions.assertTrue(source.isIndexed());
+        source.addColumn("g", "h");
+        source.removeRow(0);
+        source.flip();
+        source.addRowBefore(0, "x");
+        source.swapRows(0, 2);
+        source.reverseX();
+        source.set(0, 1, "y");
+        source.replaceAll(String::toUpperCase);
+        var delta = serialize(source.commitBatch());
+        Assertions.assertTrue(source.isIndexed());
+        Assertions.assertEquals(Matrix.Coordinates.of(0, 1), source.indexOf("Y"));
+        delta.applyTo(replica);
+        Assertions.assertEquals(source, replica);
+        Assertions.assertEquals("E|Y|X|F|H", string(replica));
+        source.setIndexed(false);
+        Assertions.assertFalse(source.isIndexed());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> delta.applyTo(new Matrix<>()));
+        var unmodifiable = Matrix.unmodifiableCopy(new Matrix<String>(3, 2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> delta.applyTo(unmodifiable));
+    }
+
+    @Test
+    void chainedReplicas() {
+        var source = new Matrix<Integer>(2, 2);
+        var middle = new Matrix<Integer>(2, 2);
+        var target = new Matrix<Integer>(2, 2);
+        source.addListener(change -> new MatrixDelta<>(List.of(change)).applyTo(middle));
+        middle.beginBatch();
+        source.set(0, 0, 1);
+        source.addColumnBefore(0, 2, 3);
+        source.removeRow(1);
+        source.removeRow(0);
+        source.addRow(4);
+        middle.commitBatch().applyTo(target);
+        Assertions.assertEquals("4", string(source));
+        Assertions.assertEquals(source, middle);
+        Assertions.assertEquals(source, target);
+    }
+}
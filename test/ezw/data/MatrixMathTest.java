@@ -0,0 +1,94 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class MatrixMathTest {
+
+    private static DoubleMatrix random(Random random, int x, int y) {
+        var matrix = new DoubleMatrix(x, y);
+        matrix.getBlock().forEach((i, j) -> matrix.setDouble(i, j, random.nextInt(100) - 50));
+        return matrix;
+    }
+
+    private static DoubleMatrix naiveMultiply(DoubleMatrix a, DoubleMatrix b) {
+        var result = new DoubleMatrix(b.size().getX(), a.size().getY());
+        for (int y = 0; y < a.size().getY(); y++) {
+            for (int x = 0; x < b.size().getX(); x++) {
+                double sum = 0;
+                for (int k = 0; k < a.size().getX(); k++) {
+                    sum += a.getDouble(k, y) * b.getDouble(x, k);
+                }
+                result.setDouble(x, y, sum);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void elementWise() {
+        var a = new DoubleMatrix(new double[][] {{1, 2}, {3, 4}});
+        var b = new DoubleMatrix(Matrix.Order.COLUMN_MAJOR, 2, 2);
+        b.getBlock().forEach((x, y) -> b.setDouble(x, y, 10 * (x + 1)));
+        Assertions.assertEquals(new DoubleMatrix(new double[][] {{11, 22}, {13, 24}}), MatrixMath.add(a, b));
+        Assertions.assertEquals(new DoubleMatrix(new double[][] {{-9, -18}, {-7, -16}}), MatrixMath.subtract(a, b));
+        Assertions.assertEquals(new DoubleMatrix(new double[][] {{10, 40}, {30, 80}}),
+                MatrixMath.multiplyElements(a, b));
+        Assertions.assertEquals(new DoubleMatrix(new double[][] {{0.5, 1}, {1.5, 2}}), MatrixMath.scale(a, 0.5));
+        Assertions.assertEquals(10, MatrixMath.dot(a.getRowView(0), a.getColumnView(1)));
+        Assertions.assertEquals(55, MatrixMath.dot(new double[] {1, 2, 3, 4, 5}, new double[] {1, 2, 3, 4, 5}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MatrixMath.add(a, new DoubleMatrix(2, 3)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MatrixMath.dot(a.getRowView(0),
+                new DoubleMatrix(3, 1).getRowView(0)));
+        a.flip();
+        Assertions.assertEquals(new DoubleMatrix(new double[][] {{2, 6}, {4, 8}}), MatrixMath.add(a, a));
+        Assertions.assertEquals(new DoubleMatrix(), MatrixMath.add(new DoubleMatrix(), new DoubleMatrix()));
+    }
+
+    @Test
+    void multiplyAndTranspose() {
+        var random = new Random(3);
+        var a = random(random, 150, 70);
+        var b = random(random, 90, 150);
+        var expected = naiveMultiply(a, b);
+        Assertions.assertEquals(expected, MatrixMath.multiply(a, b));
+        a.setParallelThreshold(1);
+        Assertions.assertEquals(expected, MatrixMath.multiply(a, b));
+        Assertions.assertEquals(new DoubleMatrix(), MatrixMath.multiply(new DoubleMatrix(), new DoubleMatrix()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MatrixMath.multiply(a, a));
+        Assertions.assertThrows(ArithmeticException.class, () -> MatrixMath.multiply(new DoubleMatrix(1, 50000),
+                new DoubleMatrix(50000, 1)));
+        var transposed = MatrixMath.transpose(a);
+        Assertions.assertEquals(Matrix.Coordinates.of(70, 150), transposed.size());
+        var flipped = new DoubleMatrix(a);
+        flipped.flip();
+        Assertions.assertEquals(flipped, transposed);
+        var block = MatrixMath.copyOf(a, Matrix.Block.of(10, 20, 13, 22));
+        Assertions.assertEquals(Matrix.Coordinates.of(3, 2), block.size());
+        Assertions.assertEquals(a.getDouble(12, 21), block.getDouble(2, 1));
+        Assertions.assertEquals(MatrixMath.transpose(MatrixMath.multiply(a, b)),
+                MatrixMath.multiply(MatrixMath.transpose(b), transposed));
+    }
+
+    @Test
+    void multiplyBenchmark() {
+        var random = new Random(5);
+        var a = random(random, 300, 300);
+        var b = random(random, 300, 300);
+        for (int i = 0; i < 3; i++) {
+            MatrixMath.multiply(a, b);
+            naiveMultiply(a, b);
+        }
+        long start = System.nanoTime();
+        var naive = naiveMultiply(a, b);
+        long naiveNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        var product = MatrixMath.multiply(a, b);
+        long nanos = System.nanoTime() - start;
+        Assertions.assertEquals(naive, product);
+        System.out.printf("300x300 multiplied in %d ms, naive triple loop in %d ms%n", nanos / 1000000,
+                naiveNanos / 1000000);
+    }
+}
@@ -1,8 +1,30 @@
 package ezw.data;
 
+import ezw.Sugar;
+import ezw.function.IntIntConsumer;
 import org.junit.jupiter.api.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class MatrixTest {
@@ -308,6 +330,55 @@ public class MatrixTest {
         Assertions.assertTrue(matrix.lastIndexOf('b').equals(1, 0));
     }
 
+    @Test
+    void packedCoordinates() {
+        Assertions.assertSame(Matrix.Coordinates.of(3, 127), Matrix.Coordinates.of(3, 127));
+        Assertions.assertNotSame(Matrix.Coordinates.of(3, 128), Matrix.Coordinates.of(3, 128));
+        Assertions.assertEquals(Matrix.Coordinates.of(3, 128), Matrix.Coordinates.of(3, 128));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Matrix.Coordinates.of(-1, 0));
+        Assertions.assertEquals(Matrix.Coordinates.of(500, 7), Matrix.Coordinates.unpack(Matrix.Coordinates.of(500, 7)
+                .packed()));
+        List<Supplier<Matrix<Integer>>> suppliers = List.of(Matrix::new, Matrix::sparse, Matrix::compressed, () -> {
+            var indexed = new Matrix<Integer>();
+            indexed.setIndexed(true);
+            return indexed;
+        });
+        for (var supplier : suppliers) {
+            var matrix = supplier.get();
+            matrix.addRow(1, 2, 3);
+            matrix.addRow(4, null, 2);
+            Assertions.assertEquals(Matrix.Coordinates.pack(1, 0), matrix.indexOfPacked(2));
+            Assertions.assertEquals(Matrix.Coordinates.pack(1, 1), matrix.indexOfPacked(null));
+            Assertions.assertEquals(-1, matrix.indexOfPacked(5));
+            Assertions.assertEquals(Matrix.Coordinates.of(1, 0), matrix.indexOf(2));
+            Assertions.assertNull(matrix.indexOf(5));
+        }
+        var block = Matrix.Block.of(0, 0, 1000, 1000);
+        long[] sum = new long[1];
+        IntIntConsumer action = (x, y) -> sum[0] += x + y;
+        block.forEach(action);
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            threads.getCurrentThreadAllocatedBytes();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            block.forEach(action);
+            Assertions.assertTrue(threads.getCurrentThreadAllocatedBytes() - before < 1024);
+        }
+        Assertions.assertEquals(2 * 999_000_000L, sum[0]);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void boxedBlockForEach() {
+        var block = Matrix.Block.of(1, 2, 3, 5);
+        List<Matrix.Coordinates> cells = new ArrayList<>();
+        BiConsumer<Integer, Integer> action = (x, y) -> cells.add(Matrix.Coordinates.of(x, y));
+        block.forEach(action);
+        block.forEach((Integer x, Integer y) -> cells.add(Matrix.Coordinates.of(x, y)));
+        Assertions.assertEquals(12, cells.size());
+        Assertions.assertEquals(block.stream().toList(), cells.subList(0, 6));
+        Assertions.assertEquals(block.stream().toList(), cells.subList(6, 12));
+    }
+
     @Test
     void getRows() {
         var matrix = new Matrix<Character>();
@@ -1334,6 +1405,640 @@ public class MatrixTest {
         assertData("b,d|a,c", matrix);
     }
 
+    @Test
+    void lazyTransforms() {
+        List<Consumer<Matrix<Character>>> steps = List.of(m -> m.addRow('a', 'b', 'c'), m -> m.addRow('d', 'e'),
+                Matrix::turnClockwise, m -> m.addRowBefore(1, 'f'), m -> m.addColumnBefore(0, 'g', 'h'),
+                Matrix::reverseX, m -> m.set(1, 2, 'i'), Matrix::flip, m -> m.swapRows(0, 2),
+                m -> m.swapColumns(1, 3), Matrix::turnCounterClockwise, m -> m.removeRow(1), m -> m.removeColumn(0),
+                Matrix::reverseY, m -> m.addColumnAfter(1, 'j', 'k', 'l', 'm'), Matrix::turnClockwise, Matrix::pack,
+                m -> m.setRow(0, 'n', 'o'), Matrix::flip, m -> m.removeRow(0));
+        List<Supplier<Matrix<Character>>> suppliers = List.of(Matrix::new, () -> Matrix.flat(Matrix.Order.ROW_MAJOR),
+                () -> Matrix.flat(Matrix.Order.COLUMN_MAJOR), Matrix::sparse);
+        for (var supplier : suppliers) {
+            var lazy = supplier.get();
+            var materialized = supplier.get();
+            for (var step : steps) {
+                step.accept(lazy);
+                step.accept(materialized);
+                materialized.materialize();
+                Assertions.assertFalse(materialized.content() instanceof OrientedContent);
+                Assertions.assertEquals(materialized, lazy);
+                Assertions.assertEquals(materialized.getRows(), lazy.getRows());
+                Assertions.assertEquals(materialized.getColumns(), lazy.getColumns());
+                Assertions.assertEquals(materialized.indexOf(null), lazy.indexOf(null));
+                Assertions.assertEquals(materialized.lastIndexOf('a'), lazy.lastIndexOf('a'));
+            }
+            assertData("o,null,l|null,c,k|null,a,j", lazy);
+            var copy = new Matrix<>(lazy);
+            lazy.materialize();
+            Assertions.assertEquals(copy, lazy);
+        }
+    }
+
+    @Test
+    void view() {
+        var matrix = new Matrix<>(new Character[][] {{'a', 'b', 'c'}, {'d', 'e', 'f'}, {'g', 'h', 'i'}});
+        var view = matrix.view(Matrix.Block.of(1, 1, 3, 3));
+        assertData("e,f|h,i", view);
+        view.set(0, 0, 'j');
+        matrix.set(2, 2, 'k');
+        assertData("a,b,c|d,j,f|g,h,k", matrix);
+        assertData("j,f|h,k", view);
+        Assertions.assertEquals(Matrix.Coordinates.of(1, 1), view.indexOf('k'));
+        assertData("J,F|H,K", view.map(Character::toUpperCase));
+        view.turnClockwise();
+        assertData("h,j|k,f", view);
+        view.set(0, 0, 'l');
+        assertData("a,b,c|d,j,f|g,l,k", matrix);
+        view.materialize();
+        assertData("l,j|k,f", view);
+        var copy = new Matrix<>(view);
+        copy.set(0, 0, 'm');
+        Assertions.assertEquals('l', matrix.get(1, 2));
+        matrix.flip();
+        assertData("a,d,g|b,j,l|c,f,k", matrix);
+        assertData("f,j|k,l", view);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.addRow('x'));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.removeColumn(0));
+        Assertions.assertThrows(UnsupportedOperationException.class, view::clear);
+        assertBadIndex(() -> view.get(2, 0));
+        assertBadIndex(() -> matrix.view(Matrix.Block.of(1, 1, 4, 2)));
+        assertBadIndex(() -> matrix.view(Matrix.Block.of(1, 1, 1, 2)));
+        matrix.removeLastRow();
+        assertBadIndex(() -> view.get(0, 0));
+        Assertions.assertEquals('j', view.get(1, 0));
+    }
+
+    @Test
+    void viewRanges() {
+        var matrix = new Matrix<>(new Integer[][] {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}, {10, 11, 12}});
+        assertData("4,5,6|7,8,9", matrix.viewRows(Range.of(1, 3)));
+        assertData("10,11,12|7,8,9|4,5,6", matrix.viewRows(Range.of(3, 0)));
+        assertData("3,2|6,5|9,8|12,11", matrix.viewColumns(Range.of(2, 0)));
+        var transposed = matrix.transposedView();
+        assertData("1,4,7,10|2,5,8,11|3,6,9,12", transposed);
+        transposed.set(3, 0, 0);
+        Assertions.assertEquals(0, matrix.get(0, 3));
+        var nested = transposed.viewColumns(Range.of(1, 3)).viewRows(Range.of(2, 3));
+        assertData("6,9", nested);
+        nested.getBlock().forEach((x, y) -> nested.set(x, y, -nested.get(x, y)));
+        assertData("1,2,3|4,5,-6|7,8,-9|0,11,12", matrix);
+        Assertions.assertEquals(-15, nested.stream().mapToInt(Integer::intValue).sum());
+        assertBadIndex(() -> matrix.viewRows(Range.of(1, 1)));
+        assertBadIndex(() -> matrix.viewColumns(Range.of(1, 4)));
+        Assertions.assertTrue(new Matrix<>().viewRows(Range.of(0, 0)).isEmpty());
+    }
+
+    @Test
+    void indexed() {
+        List<Consumer<Matrix<Character>>> steps = List.of(m -> m.addRow('a', 'b', 'a'), m -> m.addRow('b', 'a'),
+                m -> m.addColumnBefore(1, 'a', 'c', 'b'), m -> m.set(0, 2, 'c'), Matrix::turnClockwise,
+                m -> m.swapRows(0, 3), m -> m.swapColumns(0, 2), m -> m.addRowBefore(2, 'a', 'a'), Matrix::reverseY,
+                m -> m.removeColumn(1), Matrix::flip, m -> m.setRow(1, 'c', 'b'), m -> m.removeRow(0),
+                Matrix::materialize, m -> m.setColumn(0, 'a'), Matrix::reverseX, Matrix::pack,
+                m -> m.removeRow(0), Matrix::clear, m -> m.addColumn('b', 'a'));
+        List<Supplier<Matrix<Character>>> suppliers = List.of(Matrix::new, () -> Matrix.flat(Matrix.Order.ROW_MAJOR),
+                Matrix::sparse);
+        for (var supplier : suppliers) {
+            var expected = supplier.get();
+            var matrix = supplier.get();
+            matrix.setIndexed(true);
+            Assertions.assertTrue(matrix.isIndexed());
+            for (var step : steps) {
+                step.accept(expected);
+                step.accept(matrix);
+                assertData(expected.toString(",", "|", "null", false), matrix);
+                for (Character element : new Character[] {'a', 'b', 'c', 'd', null}) {
+                    Assertions.assertEquals(expected.contains(element), matrix.contains(element));
+                    Assertions.assertEquals(expected.indexOf(element), matrix.indexOf(element));
+                    Assertions.assertEquals(expected.lastIndexOf(element), matrix.lastIndexOf(element));
+                    Assertions.assertEquals(expected.indexAllOf(element), matrix.indexAllOf(element));
+                }
+            }
+            var copy = new Matrix<>(matrix);
+            Assertions.assertTrue(copy.isIndexed());
+            matrix.setIndexed(false);
+            Assertions.assertFalse(matrix.isIndexed());
+            Assertions.assertEquals(List.of(Matrix.Coordinates.of(0, 0)), copy.indexAllOf('b'));
+        }
+        var random = new Random(1);
+        var expected = new Matrix<Integer>();
+        var matrix = new Matrix<Integer>();
+        matrix.setIndexed(true);
+        for (int i = 0; i < 500; i++) {
+            int size = expected.size().getY();
+            int y = random.nextInt(size + 1);
+            Integer element = i % 5;
+            Consumer<Matrix<Integer>> step = y < size && random.nextBoolean() ? m -> m.removeRow(y) :
+                    m -> m.addRowBefore(y, element, null, element);
+            step.accept(expected);
+            step.accept(matrix);
+            Assertions.assertEquals(expected.indexAllOf(element), matrix.indexAllOf(element));
+        }
+        assertData(expected.toString(",", "|", "null", false), matrix);
+    }
+
+    @Test
+    void indexedView() {
+        var matrix = new Matrix<>(new Integer[][] {{1, 2}, {3, 4}});
+        matrix.setIndexed(true);
+        var view = matrix.view(Matrix.Block.of(1, 0, 2, 2));
+        view.set(0, 1, 1);
+        Assertions.assertEquals(List.of(Matrix.Coordinates.of(0, 0), Matrix.Coordinates.of(1, 1)),
+                matrix.indexAllOf(1));
+        Assertions.assertFalse(matrix.contains(4));
+        Assertions.assertEquals(List.of(), matrix.indexAllOf(4));
+        var parent = new Matrix<>(new String[][] {{"a", "x"}, {"y", "a"}});
+        var window = parent.view(Matrix.Block.of(0, 0, 2, 2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> window.setIndexed(true));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> parent.transposedView().setIndexed(true));
+        window.setIndexed(false);
+        Assertions.assertFalse(window.isIndexed());
+        parent.set(1, 1, "b");
+        Assertions.assertEquals("b", window.get(1, 1));
+        Assertions.assertEquals(Matrix.Coordinates.of(0, 0), window.indexOf("a"));
+        Assertions.assertEquals(List.of(Matrix.Coordinates.of(0, 0)), window.indexAllOf("a"));
+        Assertions.assertTrue(window.contains("b"));
+    }
+
+    @Test
+    void splittableStreams() {
+        var block = Matrix.Block.of(2, 3, 1002, 503);
+        var spliterator = block.stream().parallel().spliterator();
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assertions.assertEquals(500_000, spliterator.estimateSize());
+        Assertions.assertEquals(250_000, spliterator.trySplit().estimateSize());
+        Assertions.assertEquals(List.of(Matrix.Coordinates.of(2, 3), Matrix.Coordinates.of(2, 4)),
+                block.stream().limit(2).toList());
+        Assertions.assertEquals(block.stream().mapToLong(c -> c.getX() + c.getY()).sum(),
+                block.packedStream().parallel().map(p -> Matrix.Coordinates.unpackX(p) + Matrix.Coordinates.unpackY(p))
+                        .sum());
+        Assertions.assertEquals(0, Matrix.Block.of(1, 1, 1, 5).stream().count());
+        long packed = Matrix.Coordinates.pack(7, Integer.MAX_VALUE);
+        Assertions.assertEquals(7, Matrix.Coordinates.unpackX(packed));
+        Assertions.assertEquals(Integer.MAX_VALUE, Matrix.Coordinates.unpackY(packed));
+        Assertions.assertTrue(Matrix.Coordinates.pack(1, 0) > Matrix.Coordinates.pack(0, 9));
+        List<Supplier<Matrix<Integer>>> suppliers = List.of(Matrix::new, () -> Matrix.flat(Matrix.Order.ROW_MAJOR),
+                Matrix::sparse, IntMatrix::new);
+        for (var supplier : suppliers) {
+            var matrix = supplier.get();
+            matrix.addColumn(Range.of(0, 1000).stream().toArray(Integer[]::new));
+            matrix.addColumn(Range.of(0, 1000).stream().toArray(Integer[]::new));
+            matrix.turnClockwise();
+            var cells = matrix.stream().parallel().spliterator();
+            Assertions.assertTrue(cells.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            Assertions.assertEquals(1000, cells.trySplit().estimateSize());
+            Assertions.assertEquals(matrix.stream().toList(), matrix.stream().parallel().toList());
+            Assertions.assertEquals(999_000, matrix.stream().parallel().mapToInt(Integer::intValue).sum());
+        }
+    }
+
+    @Test
+    void parallelBulk() {
+        List<Supplier<Matrix<Integer>>> suppliers = List.of(Matrix::new, () -> Matrix.flat(Matrix.Order.COLUMN_MAJOR),
+                Matrix::sparse, () -> Matrix.adaptive(0.5), IntMatrix::new);
+        for (var supplier : suppliers) {
+            var matrix = supplier.get();
+            Sugar.repeat(300, () -> matrix.addRow(Range.of(0, 200).stream().toArray(Integer[]::new)));
+            matrix.turnCounterClockwise();
+            matrix.setIndexed(supplier != suppliers.get(0));
+            matrix.setParallelThreshold(1000);
+            var expected = matrix.map(i -> i * 3 - 1);
+            Assertions.assertEquals(expected, matrix.parallelMap(i -> i * 3 - 1));
+            matrix.replaceAll(i -> i * 3 - 1);
+            Assertions.assertEquals(expected.stream().toList(), matrix.stream().toList());
+            Assertions.assertEquals(Matrix.Coordinates.of(0, 0), matrix.indexOf(596));
+            var sum = new LongAdder();
+            var count = new LongAdder();
+            matrix.parallelForEach(Matrix.Block.of(10, 100, 300, 150), (coordinates, element) -> {
+                Assertions.assertEquals(element, matrix.get(coordinates));
+                sum.add(element);
+                count.increment();
+            });
+            Assertions.assertEquals(290 * 50, count.sum());
+            Assertions.assertEquals(matrix.view(Matrix.Block.of(10, 100, 300, 150)).stream()
+                    .mapToLong(Integer::longValue).sum(), sum.sum());
+            assertBadIndex(() -> matrix.parallelForEach(Matrix.Block.of(0, 0, 301, 1), (c, e) -> {}));
+        }
+        var small = new Matrix<>(new Integer[][] {{1, 2}, {3, 4}});
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        small.parallelForEach(small.getBlock(), (c, e) -> threads.add(Thread.currentThread()));
+        Assertions.assertEquals(Set.of(Thread.currentThread()), threads);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> small.setParallelThreshold(-1));
+        var unmodifiable = Matrix.unmodifiableCopy(small);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> unmodifiable.replaceAll(i -> i));
+    }
+
+    @Test
+    void writeTo() throws IOException {
+        var matrix = new Matrix<>(new String[][] {{"a", "bb", null}, {null, null, null}, {"ccc", " ", "d"}});
+        matrix.addRow();
+        for (var options : List.of(List.of(",", "\n", "null"), List.of(" ", "\n", ""), List.of("\t", "\r\n", ""),
+                List.of(", ", " | ", " "))) {
+            for (boolean tabFiller : new boolean[] {false, true}) {
+                var writer = new StringWriter();
+                matrix.writeTo(writer, options.get(0), options.get(1), options.get(2), tabFiller);
+                var expected = matrix.getRows().stream().map(row -> String.join(options.get(0), row.stream()
+                        .map(cell -> Objects.toString(cell, options.get(2))).toList()).stripTrailing())
+                        .collect(Collectors.joining(options.get(1))).stripTrailing();
+                if (!tabFiller)
+                    Assertions.assertEquals(expected, writer.toString());
+                Assertions.assertEquals(matrix.toString(options.get(0), options.get(1), options.get(2), tabFiller),
+                        writer.toString());
+            }
+        }
+        Assertions.assertEquals("a   bb\n\nccc    d", matrix.toString(" ", "\n", "", true));
+        var sparse = Matrix.flat(Matrix.Order.ROW_MAJOR, 1, 1000);
+        sparse.set(0, 0, "a");
+        sparse.set(0, 500, "b");
+        var writer = new StringWriter();
+        sparse.writeTo(writer, ",", " \r\n", "", false);
+        Assertions.assertEquals("a" + " \r\n".repeat(500) + "b", writer.toString());
+    }
+
+    @Test
+    void readFrom() throws IOException {
+        var csv = "1,2,3\n4,,6\n,8\n\n9";
+        var matrix = Matrix.read(new StringReader(csv), ",", "\n", "", Integer::parseInt);
+        assertData("1,2,3|4,null,6|null,8,null|null,null,null|9,null,null", matrix);
+        var writer = new StringWriter();
+        matrix.writeTo(writer, ",", "\n", "", false);
+        Assertions.assertEquals("1,2,3\n4,,6\n,8,\n,,\n9,,", writer.toString());
+        assertData("a,b|c,d", Matrix.read(new StringReader("a::b;;c::d;;"), "::", ";;", "", s -> s));
+        assertData("a,b|c,null", Matrix.read(new StringReader("a,b\r\nc,-"), ",", "\r\n", "-", s -> s));
+        assertData("a,null|b,c", Matrix.read(new StringReader("a\r\nb\nc"), "\n", "\r\n", "", s -> s));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Matrix.read(new StringReader(""), ":", "::", "",
+                s -> s));
+        Assertions.assertTrue(Matrix.read(new StringReader(""), ",", "\n", "", s -> s).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Matrix.read(new StringReader(""), ",", ",", "",
+                s -> s));
+        var file = Files.createTempFile("matrix", ".tsv");
+        try {
+            var tsv = Matrix.flat(Matrix.Order.ROW_MAJOR, 300, 200);
+            tsv.getBlock().forEach((x, y) -> tsv.set(x, y, x % 7 == 0 ? null : x * y));
+            try (var fileWriter = Files.newBufferedWriter(file)) {
+                tsv.writeTo(fileWriter, "\t", System.lineSeparator(), "", false);
+            }
+            var read = Matrix.read(file, "\t", System.lineSeparator(), "", Integer::valueOf);
+            Assertions.assertEquals(tsv, read);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void readFromIncrementally() throws IOException {
+        var matrix = new Matrix<String>();
+        var chunks = List.of("a,b\nc", ",d\ne,", "f\n").iterator();
+        var rows = new ArrayList<Integer>();
+        matrix.readFrom(new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                rows.add(matrix.size().getY());
+                if (!chunks.hasNext())
+                    return -1;
+                var chunk = chunks.next();
+                chunk.getChars(0, chunk.length(), buffer, offset);
+                return chunk.length();
+            }
+
+            @Override
+            public void close() {}
+        }, ",", "\n", "", s -> s);
+        Assertions.assertEquals(List.of(0, 1, 2, 3), rows);
+        assertData("a,b|c,d|e,f", matrix);
+    }
+
+    @Test
+    void binary() throws IOException {
+        var matrix = new Matrix<String>();
+        matrix.addRow("a", null, "\u05d2");
+        matrix.addRow(null, "", "c".repeat(100));
+        var file = Files.createTempFile("matrix", ".bin");
+        try {
+            for (boolean compress : new boolean[] {false, true}) {
+                matrix.writeTo(file, CellCodec.STRING, compress);
+                var opened = Matrix.open(file, CellCodec.STRING);
+                Assertions.assertEquals(matrix, opened);
+                opened.addRow("x", "y", "z");
+                opened.removeColumn(1);
+                assertData("a,\u05d2|null," + "c".repeat(100) + "|x,z", opened);
+            }
+            var wide = new Matrix<Integer>();
+            wide.addRow(Range.of(0, 70_000).stream().toArray(Integer[]::new));
+            wide.writeTo(file, CellCodec.INTEGER, false);
+            var openedWide = Matrix.open(file, CellCodec.INTEGER);
+            Assertions.assertEquals(69_999, openedWide.get(69_999, 0));
+            Assertions.assertEquals(wide, openedWide);
+            new Matrix<Integer>().writeTo(file, CellCodec.INTEGER, true);
+            Assertions.assertTrue(Matrix.open(file, CellCodec.INTEGER).isEmpty());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Matrix.open(file, CellCodec.STRING));
+            Files.writeString(file, "a,b");
+            Assertions.assertThrows(IOException.class, () -> Matrix.open(file, CellCodec.INTEGER));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void binaryLazyColumns() throws IOException {
+        var matrix = new IntMatrix(Matrix.Order.COLUMN_MAJOR, 3, 1000);
+        matrix.getBlock().forEach((x, y) -> matrix.setInt(x, y, x * y));
+        var reads = new LongAdder();
+        var codec = new CellCodec<Integer>() {
+            @Override
+            public String name() {
+                return CellCodec.INTEGER.name();
+            }
+
+            @Override
+            public void write(Integer element, DataOutput out) throws IOException {
+                CellCodec.INTEGER.write(element, out);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                reads.increment();
+                return CellCodec.INTEGER.read(in);
+            }
+        };
+        var file = Files.createTempFile("matrix", ".bin");
+        try {
+            matrix.writeTo(file, codec, false);
+            var opened = Matrix.open(file, codec);
+            Assertions.assertEquals(Matrix.Coordinates.of(3, 1000), opened.size());
+            Assertions.assertEquals(0, reads.sum());
+            Assertions.assertEquals(1998, opened.get(2, 999));
+            Assertions.assertEquals(1000, reads.sum());
+            opened.set(2, 0, -1);
+            Assertions.assertEquals(999, opened.get(1, 999));
+            Assertions.assertEquals(2000, reads.sum());
+            Assertions.assertEquals(-1, opened.get(2, 0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void tiled() {
+        var matrix = Matrix.tiled(4, 3, CellCodec.INTEGER);
+        var reference = new Matrix<Integer>();
+        for (int y = 0; y < 30; y++) {
+            var row = new Integer[20];
+            for (int x = 0; x < 20; x++) {
+                row[x] = x % 7 == 0 ? null : x * 100 + y;
+            }
+            matrix.addRow(row);
+            reference.addRow(row);
+        }
+        var content = (TiledContent<Integer>) matrix.content();
+        Assertions.assertTrue(content.cachedTiles() <= 3);
+        Assertions.assertTrue(content.spilledTiles() > 0);
+        Assertions.assertEquals(reference, matrix);
+        Assertions.assertEquals(reference.stream().filter(Objects::nonNull).mapToInt(i -> i).sum(),
+                matrix.stream().filter(Objects::nonNull).mapToInt(i -> i).sum());
+        Assertions.assertEquals(List.of(100, 101, 102, 103, 200, 201, 202, 203), matrix.stream().skip(4).limit(8)
+                .toList());
+        for (var m : List.of(matrix, reference)) {
+            m.addRowBefore(5, 1, 2, 3);
+            m.removeColumn(2);
+            m.addColumnAfter(10, 4, 5, 6);
+            m.removeRow(20);
+            m.set(15, 15, -1);
+            m.turnClockwise();
+            m.replaceAll(i -> i == null ? 0 : i + 1);
+            m.pack();
+        }
+        Assertions.assertEquals(reference, matrix);
+        Assertions.assertEquals(reference.toString(), matrix.toString());
+        var copy = new Matrix<>(matrix);
+        copy.set(0, 0, -5);
+        Assertions.assertEquals(reference, matrix);
+        Assertions.assertEquals(-5, copy.get(0, 0));
+        matrix.clear();
+        Assertions.assertTrue(matrix.isEmpty());
+        matrix.addRow(1, 2);
+        assertData("1,2", matrix);
+    }
+
+    @Test
+    void tiledBlockStream() {
+        var block = Matrix.Block.of(1, 1, 6, 4);
+        Assertions.assertEquals(List.of(Matrix.Coordinates.of(1, 1), Matrix.Coordinates.of(1, 2),
+                Matrix.Coordinates.of(2, 1), Matrix.Coordinates.of(2, 2), Matrix.Coordinates.of(1, 3),
+                Matrix.Coordinates.of(2, 3), Matrix.Coordinates.of(3, 1), Matrix.Coordinates.of(3, 2)),
+                block.stream(2, 2).limit(8).toList());
+        Assertions.assertEquals(block.stream().collect(Collectors.toSet()), block.stream(2, 2)
+                .collect(Collectors.toSet()));
+        Assertions.assertEquals(15, block.stream(4, 5).distinct().count());
+        Assertions.assertEquals(block.stream().toList(), block.stream(1, 3).toList());
+        var spliterator = block.packedStream(2, 2).parallel().spliterator();
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assertions.assertEquals(15, spliterator.estimateSize());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> block.stream(0, 1));
+    }
+
+    @Test
+    void snapshots() {
+        var matrix = new Matrix<Integer>();
+        Sugar.repeat(150, () -> matrix.addRow(Range.of(0, 70).stream().toArray(Integer[]::new)));
+        var expected = Matrix.flat(Matrix.Order.COLUMN_MAJOR, 70, 150);
+        expected.getBlock().forEach((x, y) -> expected.set(x, y, x));
+        var snapshot = Matrix.unmodifiableCopy(matrix);
+        var copy = new Matrix<>(matrix);
+        matrix.set(3, 100, -1);
+        matrix.addRowBefore(64, 1, 2, 3);
+        matrix.removeColumn(10);
+        copy.removeRow(0);
+        copy.addColumnBefore(0);
+        copy.replaceAll(i -> i == null ? -2 : i * 2);
+        var parallelCopy = new Matrix<>(copy);
+        parallelCopy.setParallelThreshold(0);
+        parallelCopy.replaceAll(i -> -i);
+        Assertions.assertEquals(expected.stream().toList(), snapshot.stream().toList());
+        Assertions.assertEquals(copy.stream().map(i -> -i).toList(), parallelCopy.stream().toList());
+        Assertions.assertEquals(-1, matrix.get(3, 101));
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, null), matrix.getRow(64).subList(0, 4));
+        Assertions.assertEquals(11, matrix.get(10, 0));
+        Assertions.assertEquals(Matrix.Coordinates.of(71, 149), copy.size());
+        Assertions.assertEquals(List.of(-2, 0, 2, 4), copy.getRow(0).subList(0, 4));
+        var second = Matrix.unmodifiableCopy(snapshot);
+        Assertions.assertEquals(snapshot, second);
+        matrix.clear();
+        Assertions.assertEquals(expected.stream().toList(), second.stream().toList());
+    }
+
+    @Test
+    void persistentChunks() {
+        var random = new Random(7);
+        var matrix = new Matrix<Integer>();
+        var reference = Matrix.<Integer>flat(Matrix.Order.ROW_MAJOR);
+        List<Matrix<Integer>> snapshots = new ArrayList<>();
+        List<List<Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int y = random.nextInt(reference.size().getY() + 1);
+            if (reference.size().getY() > 0 && random.nextInt(3) == 0) {
+                Assertions.assertEquals(reference.removeRow(Math.min(y, reference.size().getY() - 1)),
+                        matrix.removeRow(Math.min(y, matrix.size().getY() - 1)));
+            } else {
+                Integer element = random.nextInt(4) == 0 ? null : i;
+                reference.addRowBefore(y, element, i);
+                matrix.addRowBefore(y, element, i);
+            }
+            if (i % 100 == 0) {
+                snapshots.add(Matrix.unmodifiableCopy(matrix));
+                expected.add(reference.stream().toList());
+            }
+        }
+        Assertions.assertEquals(reference.stream().toList(), matrix.stream().toList());
+        for (int i = 0; i < snapshots.size(); i++) {
+            Assertions.assertEquals(expected.get(i), snapshots.get(i).stream().toList());
+        }
+    }
+
+    @Test
+    void rope() {
+        var random = new Random(13);
+        var matrix = Matrix.<Integer>rope();
+        var reference = new Matrix<Integer>();
+        for (int i = 0; i < 3000; i++) {
+            var size = reference.size();
+            int y = random.nextInt(size.getY() + 1);
+            int x = random.nextInt(size.getX() + 1);
+            switch (random.nextInt(8)) {
+                case 0 -> {
+                    if (size.getY() > 0)
+                        Assertions.assertEquals(reference.removeRow(y % size.getY()),
+                                matrix.removeRow(y % size.getY()));
+                }
+                case 1 -> {
+                    if (size.getX() > 0)
+                        Assertions.assertEquals(reference.removeColumn(x % size.getX()),
+                                matrix.removeColumn(x % size.getX()));
+                }
+                case 2 -> {
+                    reference.addColumnBefore(x, i, null, i);
+                    matrix.addColumnBefore(x, i, null, i);
+                }
+                case 3 -> {
+                    if (size.getY() > 1) {
+                        reference.swapRows(0, y % size.getY());
+                        matrix.swapRows(0, y % size.getY());
+                    }
+                }
+                case 4 -> {
+                    reference.reverseX();
+                    matrix.reverseX();
+                }
+                default -> {
+                    reference.addRowBefore(y, i, -i);
+                    matrix.addRowBefore(y, i, -i);
+                }
+            }
+            Assertions.assertEquals(reference.size(), matrix.size());
+        }
+        Assertions.assertEquals(reference.stream().toList(), matrix.stream().toList());
+        matrix.turnClockwise();
+        reference.turnClockwise();
+        Assertions.assertEquals(reference.stream().toList(), new Matrix<>(matrix).stream().toList());
+    }
+
+    @Test
+    void ropeInsertBenchmark() {
+        var random = new Random(17);
+        int[] rows = {25000, 50000, 100000};
+        for (int i = 0; i < rows.length; i++) {
+            var matrix = Matrix.<Integer>rope();
+            List<Integer> expected = i == 0 ? new ArrayList<>() : null;
+            long start = System.nanoTime();
+            for (int y = 0; y < rows[i]; y++) {
+                int position = random.nextInt(y + 1);
+                matrix.addRowBefore(position, y, y, y);
+                if (expected != null)
+                    expected.add(position, y);
+            }
+            long nanos = System.nanoTime() - start;
+            Assertions.assertEquals(Matrix.Coordinates.of(3, rows[i]), matrix.size());
+            Assertions.assertEquals(matrix.getColumn(0), matrix.getColumn(2));
+            Assertions.assertEquals(Range.of(0, rows[i]).stream().toList(), matrix.getColumn(1).stream().sorted()
+                    .toList());
+            if (expected != null)
+                Assertions.assertEquals(expected, matrix.getColumn(0));
+            System.out.printf("%d rows inserted at random positions in %d ms%n", rows[i], nanos / 1000000);
+        }
+    }
+
+    @Test
+    void compressed() {
+        var source = new Matrix<String>(3, 1000);
+        source.getBlock().forEach((x, y) -> source.set(x, y, switch (x) {
+            case 0 -> y < 600 ? "open" : y < 900 ? null : "closed";
+            case 1 -> List.of("il", "fr", "us").get(y % 3);
+            default -> y % 10 == 0 ? "n" + y : null;
+        }));
+        var matrix = Matrix.compressed(source);
+        Assertions.assertEquals(source, matrix);
+        var content = (CompressedContent<String>) matrix.content();
+        Assertions.assertTrue(content.column(0).isEncoded());
+        Assertions.assertFalse(content.column(1).isEncoded());
+        Assertions.assertEquals(3, content.column(1).dictionarySize());
+        Assertions.assertEquals(Map.of("open", 600, "closed", 100), matrix.frequencies(0));
+        Assertions.assertEquals(source.frequencies(1), matrix.frequencies(1));
+        Assertions.assertEquals(Matrix.Coordinates.of(0, 600), matrix.indexOf(null));
+        Assertions.assertEquals(Matrix.Coordinates.of(2, 999), matrix.lastIndexOf(null));
+        Assertions.assertEquals(source.indexAllOf("closed"), matrix.indexAllOf("closed"));
+        Assertions.assertNull(matrix.indexOf("none"));
+        Assertions.assertTrue(matrix.contains("n990"));
+        matrix.set(0, 0, "closed");
+        matrix.addRowBefore(1, "open", "il");
+        matrix.removeRow(900);
+        matrix.swapRows(0, 2);
+        Assertions.assertFalse(content.column(0).isEncoded());
+        Assertions.assertEquals(Map.of("open", 600, "closed", 101), matrix.frequencies(0));
+        Assertions.assertEquals(Arrays.asList("open", "il", null), matrix.getRow(1));
+        Assertions.assertEquals(Arrays.asList("closed", "il", "n0"), matrix.getRow(2));
+        var copy = new Matrix<>(matrix);
+        copy.set(1, 1, "fr");
+        Assertions.assertEquals("il", matrix.get(1, 1));
+        matrix.flip();
+        Assertions.assertEquals(Matrix.Coordinates.of(1000, 3), matrix.size());
+        Assertions.assertEquals("closed", matrix.get(2, 0));
+        var recompressed = Matrix.compressed(matrix);
+        Assertions.assertEquals(matrix, recompressed);
+        recompressed.clear();
+        Assertions.assertTrue(recompressed.isEmpty());
+        var empty = Matrix.<Integer>compressed();
+        empty.addRow(1, 1);
+        empty.addColumn(2, null);
+        Assertions.assertEquals("1,1,2|null,null,null", empty.toString(",", "|", "null", false));
+        Assertions.assertEquals(Arrays.asList(2, null), empty.removeColumn(2));
+        Assertions.assertEquals(Map.of(1, 2), empty.map(n -> n == null ? 1 : n).frequencies(0));
+        var counter = Matrix.<Integer>compressed();
+        counter.addRow(0, 7);
+        var counterContent = (CompressedContent<Integer>) counter.content();
+        for (int i = 1; i <= 10_000; i++) {
+            counter.set(0, 0, i);
+        }
+        Assertions.assertTrue(counterContent.column(0).dictionarySize() <= 11);
+        Assertions.assertEquals(10_000, counter.get(0, 0));
+        Assertions.assertEquals(Map.of(10_000, 1), counter.frequencies(0));
+        Assertions.assertEquals(Matrix.Coordinates.of(1, 0), counter.indexOf(7));
+    }
+
+    @Test
+    void lazyTransformsUnmodifiable() {
+        var matrix = new Matrix<Character>();
+        matrix.addRow('a', 'b');
+        matrix.turnClockwise();
+        var unmodifiable = Matrix.unmodifiableCopy(matrix);
+        assertData("a|b", unmodifiable);
+        Assertions.assertThrows(UnsupportedOperationException.class, unmodifiable::reverseY);
+        Assertions.assertThrows(UnsupportedOperationException.class, unmodifiable::flip);
+        unmodifiable.materialize();
+        assertData("a|b", unmodifiable);
+    }
+
     @Test
     void equals() {
         var matrix1 = new Matrix<Character>();
@@ -1392,6 +2097,131 @@ public class MatrixTest {
         assertData("A,B|C,D", upper);
     }
 
+    @Test
+    void flatRowMajor() {
+        assertSameAsDefault(Matrix.flat(Matrix.Order.ROW_MAJOR));
+        assertSameAsDefault(Matrix.flat(Matrix.Order.ROW_MAJOR, 3, 2));
+    }
+
+    @Test
+    void flatColumnMajor() {
+        assertSameAsDefault(Matrix.flat(Matrix.Order.COLUMN_MAJOR));
+        assertSameAsDefault(Matrix.flat(Matrix.Order.COLUMN_MAJOR, 3, 2));
+    }
+
+    @Test
+    void flatGrowth() {
+        for (var order : Matrix.Order.values()) {
+            var matrix = Matrix.<Integer>flat(order);
+            var expected = new Matrix<Integer>();
+            for (int i = 0; i < 300; i++) {
+                int index = i;
+                List<Consumer<Matrix<Integer>>> steps = List.of(m -> m.addRow(index, index + 1),
+                        m -> m.addColumn(index), m -> m.addRowBefore(index % m.size().getY(), index),
+                        m -> m.addColumnAfter(index % m.size().getX(), index, index));
+                steps.forEach(step -> {
+                    step.accept(matrix);
+                    step.accept(expected);
+                });
+                if (i % 7 == 0) {
+                    matrix.removeRow(index % matrix.size().getY());
+                    expected.removeRow(index % expected.size().getY());
+                    matrix.removeColumn(index % matrix.size().getX());
+                    expected.removeColumn(index % expected.size().getX());
+                }
+            }
+            Assertions.assertEquals(expected, matrix);
+            Assertions.assertEquals(expected.getRows(), matrix.getRows());
+            Assertions.assertEquals(expected.getColumns(), matrix.getColumns());
+        }
+    }
+
+    @Test
+    void sparse() {
+        assertSameAsDefault(Matrix.sparse());
+        var matrix = Matrix.<Integer>sparse();
+        matrix.addColumn();
+        matrix.addRow();
+        Sugar.repeat(998, () -> matrix.addRow());
+        Sugar.repeat(999, () -> matrix.addColumn());
+        matrix.set(500, 700, 1);
+        matrix.set(20, 30, 2);
+        matrix.addRowBefore(0);
+        Assertions.assertEquals(Matrix.Coordinates.of(20, 31), matrix.indexOf(2));
+        Assertions.assertEquals(Matrix.Coordinates.of(500, 701), matrix.lastIndexOf(1));
+        Assertions.assertEquals(Matrix.Coordinates.of(999, 1000), matrix.lastIndexOf(null));
+        Assertions.assertEquals(List.of(Matrix.Coordinates.of(500, 701)), matrix.indexAllOf(1));
+        Assertions.assertEquals(1000 * 1001 - 2, matrix.indexAllOf(null).size());
+        Assertions.assertEquals(Map.of(2, 1), matrix.frequencies(20));
+        Assertions.assertEquals(2, matrix.getColumn(20).get(31));
+        var mapped = matrix.map(i -> i == null ? null : i * 10);
+        Assertions.assertEquals(20, mapped.get(20, 31));
+        matrix.flip();
+        Assertions.assertEquals(1, matrix.get(701, 500));
+        matrix.pack();
+        Assertions.assertTrue(matrix.size().equals(702, 501));
+        Assertions.assertEquals(2, matrix.stream().filter(Objects::nonNull).count());
+    }
+
+    @Test
+    void adaptive() {
+        assertSameAsDefault(Matrix.adaptive(0.5));
+        var matrix = Matrix.<Integer>adaptive(0.1);
+        var content = (AdaptiveContent<Integer>) matrix.content();
+        matrix.addRow(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        Sugar.repeat(9, () -> matrix.addRow());
+        Assertions.assertFalse(content.isSparse());
+        matrix.set(0, 9, 11);
+        matrix.set(0, 0, null);
+        Assertions.assertFalse(content.isSparse());
+        matrix.set(0, 9, null);
+        Assertions.assertTrue(content.isSparse());
+        matrix.getBlock().forEach((x, y) -> matrix.set(x, y, x * y));
+        Assertions.assertFalse(content.isSparse());
+        Assertions.assertEquals(Matrix.Coordinates.of(9, 9), matrix.indexOf(81));
+        var mapped = matrix.map(i -> i == 81 ? i : null);
+        var mappedContent = (AdaptiveContent<Integer>) mapped.content();
+        Assertions.assertTrue(mappedContent.isSparse());
+        Assertions.assertEquals(List.of(Matrix.Coordinates.of(9, 9)), mapped.indexAllOf(81));
+        mapped.getBlock().forEach((x, y) -> mapped.set(x, y, x));
+        Assertions.assertFalse(mappedContent.isSparse());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Matrix.adaptive(1.5));
+        for (double threshold : new double[] {0.5, 0.9, 1}) {
+            var high = Matrix.<Integer>adaptive(threshold);
+            var highContent = (AdaptiveContent<Integer>) high.content();
+            Sugar.repeat(10, () -> high.addRow());
+            Sugar.repeat(10, () -> high.addColumn());
+            Assertions.assertTrue(highContent.isSparse());
+            high.getBlock().forEach((x, y) -> high.set(x, y, x));
+            Assertions.assertFalse(highContent.isSparse());
+        }
+    }
+
+    private void assertSameAsDefault(Matrix<Character> matrix) {
+        var expected = new Matrix<Character>(matrix.size());
+        List<Consumer<Matrix<Character>>> steps = List.of(m -> m.addRow('a', 'b'), m -> m.addRow('c', 'd', 'e'),
+                m -> m.addColumnBefore(1, 'f', 'g', 'h', 'i', 'j'), m -> m.addRowBefore(0), m -> m.set(2, 0, 'k'),
+                m -> m.swapRows(0, 2), m -> m.swapColumns(0, 3), m -> m.removeRow(1), m -> m.removeColumn(2),
+                Matrix::reverseX, Matrix::reverseY, Matrix::flip, Matrix::turnClockwise, Matrix::turnCounterClockwise,
+                m -> m.setRow(1, 'l'), m -> m.setColumn(0, 'm', 'n', 'o', 'p', 'q', 'r'), Matrix::pack,
+                m -> m.removeRow(0), Matrix::clear, m -> m.addColumn(), m -> m.addRow('s', 't'));
+        for (var step : steps) {
+            step.accept(expected);
+            step.accept(matrix);
+            assertData(expected.toString(",", "|", "null", false), matrix);
+            Assertions.assertEquals(expected, matrix);
+            Assertions.assertEquals(expected.indexOf('a'), matrix.indexOf('a'));
+            Assertions.assertEquals(expected.lastIndexOf(null), matrix.lastIndexOf(null));
+            Assertions.assertEquals(expected.stream().toList(), matrix.stream().toList());
+            Assertions.assertEquals(expected.indexAllOf('a'), matrix.indexAllOf('a'));
+            Assertions.assertEquals(expected.indexAllOf(null), matrix.indexAllOf(null));
+            if (!expected.isEmpty()) {
+                Assertions.assertEquals(expected.getColumn(0), matrix.getColumn(0));
+                Assertions.assertEquals(expected.frequencies(0), matrix.frequencies(0));
+            }
+        }
+    }
+
     @Test
     void badIndexes() {
         assertBadIndex(() -> new Matrix<>(0, 1));
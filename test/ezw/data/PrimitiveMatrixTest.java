@@ -0,0 +1,136 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class PrimitiveMatrixTest {
+
+    private void assertData(String expected, Matrix<?> matrix) {
+        System.out.println(matrix);
+        System.out.println();
+        Assertions.assertEquals(expected, matrix.toString(",", "|", "null", false));
+    }
+
+    @Test
+    void intStructure() {
+        var matrix = new IntMatrix();
+        matrix.addRow(1, 2);
+        matrix.addRow(3, 4, 5);
+        assertData("1,2,0|3,4,5", matrix);
+        matrix.addColumnBefore(0, 6);
+        matrix.addRowBefore(1);
+        assertData("6,1,2,0|0,0,0,0|0,3,4,5", matrix);
+        Assertions.assertEquals(4, matrix.removeRow(2).size());
+        matrix.swapColumns(0, 2);
+        matrix.swapRows(0, 1);
+        assertData("0,0,0,0|2,1,6,0", matrix);
+        matrix.pack();
+        Assertions.assertTrue(matrix.size().equals(3, 2));
+        assertData("0,0,0|2,1,6", matrix);
+        matrix.turnClockwise();
+        assertData("2,0|1,0|6,0", matrix);
+        Assertions.assertEquals(6, matrix.setInt(0, 2, 7));
+        Assertions.assertEquals(7, matrix.getInt(0, 2));
+        matrix.setInt(0, 2, 6);
+        matrix.flip();
+        assertData("2,1,6|0,0,0", matrix);
+        matrix.packRows();
+        assertData("2,1,6", matrix);
+        matrix.set(1, 0, null);
+        Assertions.assertEquals(0, matrix.getInt(1, 0));
+        Assertions.assertEquals(new IntMatrix(new int[][] {{2, 0, 6}}), matrix);
+    }
+
+    @Test
+    void intAccessors() {
+        var matrix = new IntMatrix(new int[][] {{1, 2, 3}, {4, 5}});
+        assertData("1,2,3|4,5,0", matrix);
+        Assertions.assertEquals(5, matrix.setInt(1, 1, 50));
+        Assertions.assertEquals(50, matrix.getInt(1, 1));
+        Assertions.assertEquals(50, matrix.get(1, 1));
+        Assertions.assertEquals(60, matrix.intStream().sum());
+        var row = matrix.getRowView(1);
+        Assertions.assertEquals(3, row.size());
+        Assertions.assertEquals(4, row.setInt(0, 40));
+        Assertions.assertArrayEquals(new int[] {40, 50, 0}, row.toArray());
+        var column = matrix.getColumnView(2);
+        Assertions.assertEquals(3, column.stream().sum());
+        matrix.removeRow(0);
+        Assertions.assertArrayEquals(new int[] {0}, column.toArray());
+        try {
+            row.getInt(0);
+            Assertions.fail();
+        } catch (IndexOutOfBoundsException ignored) {}
+        matrix.getBlock().forEach((x, y) -> matrix.setInt(x, y, x + y));
+        assertData("0,1,2", matrix);
+        var copy = new IntMatrix(matrix);
+        copy.setInt(0, 0, 9);
+        Assertions.assertEquals(0, matrix.getInt(0, 0));
+    }
+
+    @Test
+    void longColumnMajor() {
+        var matrix = new LongMatrix(Matrix.Order.COLUMN_MAJOR, 2, 2);
+        matrix.setLong(0, 0, Long.MAX_VALUE);
+        matrix.setLong(1, 1, Long.MIN_VALUE);
+        matrix.addColumn(1L, 2L, 3L);
+        assertData(Long.MAX_VALUE + ",0,1|0," + Long.MIN_VALUE + ",2|0,0,3", matrix);
+        Assertions.assertEquals(Long.MIN_VALUE, matrix.getColumnView(1).getLong(1));
+        Assertions.assertEquals(3, matrix.getRowView(2).stream().sum());
+        matrix.reverseY();
+        matrix.reverseX();
+        assertData("3,0,0|2," + Long.MIN_VALUE + ",0|1,0," + Long.MAX_VALUE, matrix);
+        Assertions.assertEquals(6, matrix.longStream().filter(v -> v > 0 && v < 10).sum());
+    }
+
+    @Test
+    void doubleNulls() {
+        var matrix = new DoubleMatrix(new double[][] {{0.5, 1.5}, {2.5, 0}});
+        Assertions.assertEquals(1.5, matrix.set(1, 0, null));
+        Assertions.assertEquals(0.0, matrix.getDouble(1, 0));
+        matrix.addRow();
+        matrix.addColumn();
+        assertData("0.5,0.0,0.0|2.5,0.0,0.0|0.0,0.0,0.0", matrix);
+        matrix.pack();
+        assertData("0.5|2.5", matrix);
+        Assertions.assertEquals(3.0, matrix.doubleStream().sum());
+        Assertions.assertEquals(0.5, matrix.getColumnView(0).getDouble(0));
+        var unmodifiable = Matrix.unmodifiableCopy(matrix);
+        Assertions.assertEquals(2.5, unmodifiable.get(0, 1));
+        Assertions.assertEquals(matrix.getRows(), unmodifiable.getRows());
+    }
+
+    @Test
+    void binary() throws IOException {
+        var file = Files.createTempFile("matrix", ".bin");
+        try {
+            for (boolean compress : new boolean[] {false, true}) {
+                var ints = new Matrix<Integer>();
+                ints.addRow(1, null, 3);
+                ints.addRow(null, null, -4);
+                ints.addRow(5, 6, null);
+                ints.writeTo(file, CellCodec.INTEGER, compress);
+                var intMatrix = IntMatrix.open(file);
+                assertData("1,0,3|0,0,-4|5,6,0", intMatrix);
+                intMatrix.addRow(7);
+                Assertions.assertEquals(7, intMatrix.getInt(0, 3));
+                var longs = new LongMatrix(Matrix.Order.ROW_MAJOR, 300, 2);
+                longs.getBlock().forEach((x, y) -> longs.setLong(x, y, Long.MAX_VALUE - x * y));
+                longs.writeTo(file, CellCodec.LONG, compress);
+                Assertions.assertEquals(longs, LongMatrix.open(file));
+                var doubles = new Matrix<Double>();
+                doubles.addColumn(0.5, null, Double.NaN, -1e300);
+                doubles.writeTo(file, CellCodec.DOUBLE, compress);
+                assertData("0.5|0.0|NaN|-1.0E300", DoubleMatrix.open(file));
+                Assertions.assertThrows(IllegalArgumentException.class, () -> IntMatrix.open(file));
+            }
+            new Matrix<Integer>().writeTo(file, CellCodec.INTEGER, false);
+            Assertions.assertTrue(IntMatrix.open(file).isEmpty());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
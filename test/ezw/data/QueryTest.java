@@ -0,0 +1,160 @@
+package ezw.data;
+
+import ezw.function.Reducer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryTest {
+
+    private static Matrix<String> people() {
+        return new Matrix<>(new String[][] {
+                {"name", "city", "age"},
+                {"dan", "haifa", "31"},
+                {"eve", "eilat", "25"},
+                {"bob", "haifa", "40"},
+                {"amy", "acre", "25"},
+                {"cat", "haifa", null}});
+    }
+
+    private static String string(Matrix<?> matrix) {
+        return matrix.toString(",", "|", "null", false);
+    }
+
+    @Test
+    void filterProjectSort() {
+        var query = Query.of(people(), true);
+        int name = query.column("name");
+        int city = query.column("city");
+        int age = query.column("age");
+        Assertions.assertArrayEquals(new int[] {2, 0}, query.columns("age", "name"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> query.column("zip"));
+        Assertions.assertThrows(IllegalStateException.class, () -> Query.of(people(), false).column("name"));
+        var haifa = query.whereEquals(city, "haifa").select(name, age);
+        Assertions.assertEquals(List.of(List.of("dan", "31"), List.of("bob", "40"), Arrays.asList("cat",
+                null)), haifa.toList());
+        Assertions.assertEquals(3, haifa.count());
+        Assertions.assertEquals("name,age|bob,40|dan,31", string(haifa.where(age, a -> a != null && a.compareTo(
+                "30") > 0).orderBy(Comparator.naturalOrder(), name).toMatrix()));
+        Assertions.assertEquals("amy,acre|eve,eilat|cat,haifa|dan,haifa|bob,haifa", string(Query.of(people(), true)
+                .orderBy(Comparator.<String>naturalOrder().reversed(), age).orderBy(Comparator.naturalOrder(), city,
+                        age).select(name, city).toMatrix()).substring("name,city|".length()));
+        Assertions.assertEquals("name", string(query.whereEquals(city, "paris").select(name).toMatrix()));
+        Assertions.assertEquals(0, Query.of(new Matrix<String>(), false).count());
+    }
+
+    @Test
+    void lazy() {
+        var matrix = new Matrix<Integer>(2, 100000);
+        matrix.getBlock().forEach((x, y) -> matrix.set(x, y, y));
+        var reads = new AtomicInteger();
+        var first = Query.of(matrix, false).where(0, cell -> reads.incrementAndGet() > 0 && cell % 7 == 3).stream()
+                .findFirst().orElseThrow();
+        Assertions.assertEquals(List.of(3, 3), first);
+        Assertions.assertEquals(4, reads.get());
+        var sorted = Query.of(matrix, false).orderBy(Comparator.<Integer>naturalOrder().reversed(), 1).stream()
+                .limit(2).toList();
+        Assertions.assertEquals(List.of(List.of(99999, 99999), List.of(99998, 99998)), sorted);
+    }
+
+    @Test
+    void groupBy() {
+        var matrix = new Matrix<>(new Integer[][] {{1, 10, 5}, {2, 20, 6}, {1, 30, 7}, {3, 40, 8}, {2, 50, 9}});
+        var query = Query.of(matrix, false);
+        var groups = query.where(1, n -> n != 40).groupBy(new int[] {0}, Query.Aggregate.of(1,
+                Reducer.from(Integer::sum)), Query.Aggregate.of(2, Reducer.<Integer>max()));
+        Assertions.assertEquals("1,40,7|2,70,9", string(groups.toMatrix()));
+        Assertions.assertEquals("2,70,9", string(groups.orderBy(Comparator.naturalOrder(), 1).where(0, k -> k == 2)
+                .toMatrix()));
+        var people = Query.of(people(), true);
+        var cities = people.groupBy(people.columns("city"), Query.Aggregate.of(people.column("name"),
+                Reducer.first()), Query.Aggregate.of(people.column("age"), names -> String.valueOf(names.size())));
+        Assertions.assertEquals("city,name,age|haifa,dan,3|eilat,eve,1|acre,amy,1", string(cities.toMatrix()));
+    }
+
+    @Test
+    void indexes() {
+        var matrix = new Matrix<Integer>(3, 10000);
+        matrix.getBlock().forEach((x, y) -> matrix.set(x, y, x == 0 ? y % 100 : y));
+        var reads = new AtomicInteger();
+        var query = Query.of(matrix, false).hashIndex(0).sortedIndex(1, Comparator.naturalOrder());
+        var equal = query.where(2, n -> reads.incrementAndGet() > 0).whereEquals(0, 42);
+        Assertions.assertEquals(100, equal.count());
+        Assertions.assertEquals(100, reads.get());
+        Assertions.assertEquals(List.of(List.of(42, 42, 42), List.of(42, 142, 142)), equal.stream().limit(2)
+                .toList());
+        reads.set(0);
+        var range = query.where(2, n -> reads.incrementAndGet() > 0).whereBetween(1, 500, 510,
+                Comparator.naturalOrder());
+        Assertions.assertEquals(10, range.count());
+        Assertions.assertEquals(10, reads.get());
+        reads.set(0);
+        Assertions.assertEquals(10, query.where(2, n -> reads.incrementAndGet() > 0).whereBetween(1, 500, 510,
+                Integer::compare).count());
+        Assertions.assertEquals(10000, reads.get());
+        matrix.set(0, 0, 42);
+        matrix.set(1, 700, 505);
+        matrix.removeRow(1);
+        Assertions.assertEquals(101, equal.count());
+        Assertions.assertEquals(List.of(42, 0, 0), equal.toList().get(0));
+        Assertions.assertEquals(11, range.count());
+        query.dropIndexes();
+        Assertions.assertFalse(matrix.removeListener(change -> {}));
+        Assertions.assertEquals(101, equal.count());
+    }
+
+    @Test
+    void indexUpdates() {
+        var matrix = people();
+        var query = Query.of(matrix, true).hashIndex(1).sortedIndex(2, Comparator.naturalOrder());
+        var haifa = query.whereEquals(1, "haifa").select(0);
+        var twenties = query.whereBetween(2, "20", "30", Comparator.naturalOrder()).select(0);
+        Assertions.assertEquals(List.of(List.of("dan"), List.of("bob"), List.of("cat")), haifa.toList());
+        Assertions.assertEquals(List.of(List.of("eve"), List.of("amy")), twenties.toList());
+        matrix.set(1, 2, "haifa");
+        matrix.set(1, 1, "acre");
+        matrix.set(2, 5, "29");
+        matrix.set(2, 2, null);
+        matrix.set(0, 3, "ben");
+        matrix.set(1, 0, "haifa");
+        Assertions.assertEquals(List.of(List.of("eve"), List.of("ben"), List.of("cat")), haifa.toList());
+        Assertions.assertEquals(List.of(List.of("amy"), List.of("cat")), twenties.toList());
+        matrix.swapRows(5, 2);
+        Assertions.assertEquals(List.of(List.of("cat"), List.of("ben"), List.of("eve")), haifa.toList());
+        Assertions.assertEquals(List.of(List.of("cat"), List.of("amy")), twenties.toList());
+        matrix.swapRows(0, 3);
+        Assertions.assertEquals(List.of(List.of("cat"), List.of("name"), List.of("eve")), haifa.toList());
+        matrix.swapColumns(1, 2);
+        Assertions.assertEquals(0, haifa.count());
+        Assertions.assertEquals(List.of(List.of("cat"), List.of("name"), List.of("eve")),
+                query.whereEquals(2, "haifa").select(0).toList());
+        Assertions.assertEquals(List.of(List.of("cat"), List.of("amy")),
+                query.whereBetween(1, "20", "30", Comparator.naturalOrder()).select(0).toList());
+    }
+
+    @Test
+    void viewIndexes() {
+        var matrix = new Matrix<>(new String[][] {{"k0", "a"}, {"k1", "b"}, {"k2", "c"}, {"k3", "d"}});
+        List<Matrix<String>> views = List.of(matrix.view(Matrix.Block.of(0, 0, 2, 4)), matrix.viewRows(Range.of(0, 4)),
+                matrix.transposedView().transposedView(), matrix.view(matrix.getBlock()).viewColumns(Range.of(0, 2)));
+        for (var view : views) {
+            var query = Query.of(view, false);
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> query.hashIndex(0));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> query.sortedIndex(0,
+                    Comparator.naturalOrder()));
+            Assertions.assertEquals(1, query.whereEquals(0, "k1").count());
+        }
+        matrix.set(0, 1, "zz");
+        for (var view : views) {
+            var query = Query.of(view, false);
+            Assertions.assertEquals(List.of(List.of("zz", "b")), query.whereEquals(0, "zz").toList());
+            Assertions.assertEquals(0, query.whereEquals(0, "k1").count());
+        }
+        var indexed = Query.of(matrix, false).hashIndex(0);
+        Assertions.assertEquals(1, indexed.whereEquals(0, "zz").count());
+    }
+}
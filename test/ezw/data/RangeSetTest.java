@@ -0,0 +1,114 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class RangeSetTest {
+
+    private static void assertModel(BitSet model, RangeSet set) {
+        Assertions.assertArrayEquals(model.stream().toArray(), set.intStream().toArray());
+        Assertions.assertEquals(model.cardinality(), set.size());
+        for (int i = 1; i < set.rangeCount(); i++) {
+            Assertions.assertTrue(set.ranges().get(i - 1).getTo() < set.ranges().get(i).getFrom());
+        }
+    }
+
+    @Test
+    void intRange() {
+        var range = IntRange.of(2, 5);
+        Assertions.assertEquals(3, range.size());
+        Assertions.assertTrue(range.contains(2));
+        Assertions.assertFalse(range.contains(5));
+        Assertions.assertTrue(range.contains(IntRange.of(3, 5)));
+        Assertions.assertTrue(range.overlaps(IntRange.of(4, 9)));
+        Assertions.assertFalse(range.overlaps(IntRange.of(5, 9)));
+        Assertions.assertEquals(IntRange.of(4, 5), range.intersection(IntRange.of(4, 9)));
+        Assertions.assertNull(range.intersection(IntRange.of(0, 2)));
+        Assertions.assertEquals(IntRange.of(3, 6), IntRange.of(Range.of(5, 2)));
+        Assertions.assertEquals(range, IntRange.of(Range.of(2, 5)));
+        Assertions.assertEquals(Range.of(2, 5), range.toRange());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntRange.of(5, 2));
+    }
+
+    @Test
+    void coalescing() {
+        var set = RangeSet.of(IntRange.of(0, 5), IntRange.of(10, 15), IntRange.of(5, 7), IntRange.of(20, 20));
+        Assertions.assertEquals(List.of(IntRange.of(0, 7), IntRange.of(10, 15)), set.ranges());
+        set.add(IntRange.of(6, 11));
+        Assertions.assertEquals(List.of(IntRange.of(0, 15)), set.ranges());
+        set.remove(IntRange.of(3, 8));
+        Assertions.assertEquals(List.of(IntRange.of(0, 3), IntRange.of(8, 15)), set.ranges());
+        Assertions.assertEquals(10, set.size());
+        Assertions.assertTrue(set.contains(2));
+        Assertions.assertFalse(set.contains(3));
+        Assertions.assertTrue(set.contains(IntRange.of(9, 15)));
+        Assertions.assertFalse(set.contains(IntRange.of(2, 9)));
+        Assertions.assertTrue(set.overlaps(IntRange.of(2, 9)));
+        Assertions.assertFalse(set.overlaps(IntRange.of(3, 8)));
+        Assertions.assertEquals(IntRange.of(8, 15), set.rangeOf(14));
+        Assertions.assertNull(set.rangeOf(15));
+        Assertions.assertEquals(set.ranges(), set.overlapping(IntRange.of(-5, 9)));
+        Assertions.assertEquals("[[0, 3], [8, 15]]", set.toString());
+        set.add(IntRange.of(Integer.MIN_VALUE, -10));
+        Assertions.assertEquals(IntRange.of(Integer.MIN_VALUE, -10), set.rangeOf(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void setOperations() {
+        var a = RangeSet.of(IntRange.of(0, 10), IntRange.of(20, 30));
+        var b = RangeSet.of(IntRange.of(5, 22), IntRange.of(25, 27), IntRange.of(30, 35));
+        Assertions.assertEquals(RangeSet.of(IntRange.of(0, 35)), a.union(b));
+        Assertions.assertEquals(RangeSet.of(IntRange.of(5, 10), IntRange.of(20, 22), IntRange.of(25, 27)),
+                a.intersection(b));
+        Assertions.assertEquals(RangeSet.of(IntRange.of(0, 5), IntRange.of(22, 25), IntRange.of(27, 30)),
+                a.subtract(b));
+        Assertions.assertEquals(RangeSet.of(IntRange.of(10, 20), IntRange.of(30, 35)), b.subtract(a));
+        var copy = a.copy();
+        copy.clear();
+        Assertions.assertTrue(copy.isEmpty());
+        Assertions.assertEquals(2, a.rangeCount());
+    }
+
+    @Test
+    void randomAgainstBitSet() {
+        var random = new Random(7);
+        var set = new RangeSet();
+        var model = new BitSet();
+        var other = new RangeSet();
+        var otherModel = new BitSet();
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(1000);
+            var range = IntRange.of(from, from + random.nextInt(30));
+            if (random.nextInt(3) == 0) {
+                set.remove(range);
+                model.clear(range.getFrom(), range.getTo());
+            } else {
+                set.add(range);
+                model.set(range.getFrom(), range.getTo());
+            }
+            if (random.nextInt(2) == 0) {
+                other.add(range.getFrom() % 2 == 0 ? range : IntRange.of(range.getFrom() / 2, range.getTo() / 2));
+                otherModel.set(range.getFrom() % 2 == 0 ? range.getFrom() : range.getFrom() / 2,
+                        range.getFrom() % 2 == 0 ? range.getTo() : range.getTo() / 2);
+            }
+            int value = random.nextInt(1100);
+            Assertions.assertEquals(model.get(value), set.contains(value));
+            int next = model.nextSetBit(range.getFrom());
+            Assertions.assertEquals(next >= 0 && next < range.getTo(), set.overlaps(range));
+        }
+        assertModel(model, set);
+        var union = (BitSet) model.clone();
+        union.or(otherModel);
+        assertModel(union, set.union(other));
+        var intersection = (BitSet) model.clone();
+        intersection.and(otherModel);
+        assertModel(intersection, set.intersection(other));
+        var difference = (BitSet) model.clone();
+        difference.andNot(otherModel);
+        assertModel(difference, set.subtract(other));
+    }
+}
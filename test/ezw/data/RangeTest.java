@@ -0,0 +1,84 @@
+package ezw.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+public class RangeTest {
+
+    private static void assertSplittable(Spliterator<?> spliterator, long size) {
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assertions.assertEquals(size, spliterator.estimateSize());
+        if (size < 2)
+            return;
+        var prefix = spliterator.trySplit();
+        Assertions.assertNotNull(prefix);
+        Assertions.assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+        Assertions.assertTrue(Math.abs(prefix.estimateSize() - spliterator.estimateSize()) <= 1);
+    }
+
+    @Test
+    void stream() {
+        Assertions.assertEquals(List.of(2, 3, 4), Range.of(2, 5).stream().toList());
+        Assertions.assertEquals(List.of(5, 4, 3), Range.of(5, 2).stream().toList());
+        Assertions.assertEquals(List.of(), Range.of(3, 3).stream().toList());
+        Assertions.assertEquals(List.of(0, -1), Range.of(0, -2).stream().toList());
+        assertSplittable(Range.of(0, 1000).stream().parallel().spliterator(), 1000);
+        assertSplittable(Range.of(1000, 0).intStream().parallel().spliterator(), 1000);
+    }
+
+    @Test
+    void intStreamParallel() {
+        var range = Range.of(1_000_000, -1_000_000);
+        Assertions.assertEquals(range.intStream().asLongStream().sum(),
+                range.intStream().parallel().asLongStream().sum());
+        Assertions.assertArrayEquals(range.intStream().toArray(), range.intStream().parallel().toArray());
+        Assertions.assertEquals(IntStream.range(0, 10).sum(), Range.of(0, 10).intStream().parallel().sum());
+    }
+
+    @Test
+    void split() {
+        Assertions.assertEquals(List.of(Range.of(0, 4), Range.of(4, 7), Range.of(7, 10)), Range.of(0, 10).split(3));
+        Assertions.assertEquals(List.of(Range.of(10, 6), Range.of(6, 3), Range.of(3, 0)), Range.of(10, 0).split(3));
+        Assertions.assertEquals(List.of(Range.of(0, 1), Range.of(1, 2)), Range.of(0, 2).split(5));
+        Assertions.assertEquals(List.of(), Range.of(3, 3).split(2));
+        Assertions.assertEquals(List.of(Range.of(-5, 5)), Range.of(-5, 5).split(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Range.of(0, 2).split(0));
+    }
+
+    @Test
+    void chunks() {
+        Assertions.assertEquals(List.of(Range.of(0, 4), Range.of(4, 8), Range.of(8, 10)), Range.of(0, 10).chunks(4));
+        Assertions.assertEquals(List.of(Range.of(10, 6), Range.of(6, 2), Range.of(2, 0)), Range.of(10, 0).chunks(4));
+        Assertions.assertEquals(List.of(Range.of(0, 3)), Range.of(0, 3).chunks(5));
+        Assertions.assertEquals(List.of(), Range.of(0, 0).chunks(5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Range.of(0, 2).chunks(0));
+    }
+
+    @Test
+    void parallelForEach() {
+        var counts = new AtomicIntegerArray(100_000);
+        Range.of(0, 100_000).parallelForEach(counts::incrementAndGet);
+        Assertions.assertTrue(IntStream.range(0, counts.length()).allMatch(i -> counts.get(i) == 1));
+        Set<Integer> values = ConcurrentHashMap.newKeySet();
+        var pool = new ForkJoinPool(3);
+        try {
+            Range.of(5, -5).parallelForEach(values::add, pool);
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertEquals(Set.copyOf(Range.of(5, -5).stream().toList()), values);
+        Range.of(0, 0).parallelForEach(value -> Assertions.fail());
+        Assertions.assertThrows(IllegalStateException.class, () -> Range.of(0, 1000).parallelForEach(value -> {
+            if (value == 500)
+                throw new IllegalStateException();
+        }));
+    }
+}